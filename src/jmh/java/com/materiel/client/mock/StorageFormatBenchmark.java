@@ -0,0 +1,85 @@
+package com.materiel.client.mock;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.materiel.client.config.StorageFormat;
+import com.materiel.client.model.Intervention;
+import com.materiel.client.model.Resource;
+
+/**
+ * Lecture et écriture d'un historique d'interventions en JSON et en Smile.
+ * La taille des fichiers produits est affichée au démarrage de chaque essai.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageFormatBenchmark {
+
+    @Param({"JSON", "SMILE"})
+    public StorageFormat format;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private List<Intervention> interventions;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mapper = DataFiles.mapper(format);
+        interventions = new ArrayList<>(size);
+        LocalDateTime start = LocalDateTime.of(2020, 1, 6, 8, 0);
+        for (int i = 0; i < size; i++) {
+            Intervention it = new Intervention();
+            it.setId((long) i);
+            it.setTitre("Intervention " + i);
+            it.setDateDebut(start.plusHours(i * 3L));
+            it.setDateFin(start.plusHours(i * 3L + 2));
+            it.setRessources(List.of(new Resource((long) (i % 50), "Ressource " + (i % 50), Resource.ResourceType.GRUE)));
+            interventions.add(it);
+        }
+        file = DataFiles.resolve(Files.createTempDirectory("gm-bench").resolve("interventions.json"), format);
+        DataFiles.write(mapper, format, file, interventions);
+        System.out.println(format + " " + size + " interventions : " + Files.size(file) + " octets");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Intervention[] load() throws IOException {
+        return mapper.readValue(file.toFile(), Intervention[].class);
+    }
+
+    @Benchmark
+    public void save() throws IOException {
+        DataFiles.write(mapper, format, file, interventions);
+    }
+}
@@ -0,0 +1,120 @@
+package com.materiel.client.view.planning;
+
+import java.awt.Color;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.materiel.client.model.Intervention;
+
+/**
+ * Coût des calculs de mise en page du planning sur des jeux synthétiques.
+ * <p>
+ * {@code size} est le nombre d'interventions, {@code overlap} le nombre moyen
+ * d'interventions simultanées sur une même ligne. Lancement :
+ * {@code mvn -Pbench test-compile exec:exec@jmh} (ops/s + profil GC pour le
+ * taux d'allocation, résultats dans target/jmh-result.json).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlanningLayoutBenchmark {
+
+    private static final LocalDate WEEK = LocalDate.of(2024, 12, 9);
+    private static final int WEEK_MINUTES = 7 * 24 * 60;
+    /** Nombre moyen d'interventions par ressource pour le benchmark du board. */
+    private static final int PER_ROW = 50;
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int size;
+
+    @Param({"1", "4", "16"})
+    public int overlap;
+
+    private List<Intervention> interventions;
+    private PlanningBoard board;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        interventions = generate(size, overlap, new Random(42));
+
+        board = new PlanningBoard(WEEK);
+        List<PlanningBoard.RessourceRow> rows = new ArrayList<>();
+        Map<UUID, List<Intervention>> byRow = new LinkedHashMap<>();
+        int rowCount = Math.max(1, size / PER_ROW);
+        for (int r = 0; r < rowCount; r++) {
+            UUID id = new UUID(0, r);
+            rows.add(new PlanningBoard.RessourceRow(id, "Ressource " + r, Color.GRAY));
+            byRow.put(id, new ArrayList<>());
+        }
+        for (int i = 0; i < interventions.size(); i++) {
+            byRow.get(rows.get(i % rowCount).id).add(interventions.get(i));
+        }
+        board.setDonnees(rows, byRow);
+    }
+
+    /**
+     * Interventions réparties sur la semaine ; la durée est choisie pour que
+     * {@code overlap} créneaux se recouvrent en moyenne.
+     */
+    static List<Intervention> generate(int n, int overlap, Random random) {
+        int duration = Math.max(1, (int) ((long) overlap * WEEK_MINUTES / n));
+        LocalDateTime monday = WEEK.atStartOfDay();
+        List<Intervention> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Intervention it = new Intervention();
+            it.setId((long) i);
+            LocalDateTime start = monday.plusMinutes(random.nextInt(WEEK_MINUTES - duration));
+            it.setDateDebut(start);
+            it.setDateFin(start.plusMinutes(duration / 2 + random.nextInt(duration + 1)));
+            list.add(it);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public Object laneLayoutComputeLanes() {
+        // computeLanes trie sa liste en place : on travaille sur une copie
+        return LaneLayout.computeLanes(new ArrayList<>(interventions),
+                Intervention::getDateDebut, Intervention::getDateFin, 7 * 24 * 48);
+    }
+
+    @Benchmark
+    public Object dayCellLaneLayoutComputeLanes() {
+        return com.materiel.client.view.planning.layout.LaneLayout.computeLanes(new ArrayList<>(interventions),
+                Intervention::getDateDebut, Intervention::getDateFin, 7 * 24 * 48);
+    }
+
+    @Benchmark
+    public Object overlapLayoutLayoutLanes() {
+        return OverlapLayout.layoutLanes(interventions);
+    }
+
+    @Benchmark
+    public PlanningBoard planningBoardRelayoutAll() {
+        board.relayoutAll();
+        return board;
+    }
+}
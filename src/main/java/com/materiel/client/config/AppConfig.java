@@ -15,6 +15,16 @@ public class AppConfig {
     private String apiToken;
     private String apiBasicUser;
     private String apiBasicPass;
+    private StorageFormat storageFormat;
+    private long writeDelayMillis;
+    private long backupIntervalMinutes;
+    private long backupMaxBytesPerSecond;
+    private int backupKeep;
+    private int httpMaxConnections;
+    private int httpKeepAliveSeconds;
+    private int httpDispatcherThreads;
+    private int httpMaxRequests;
+    private long httpCacheMaxBytes;
 
     private AppConfig() {
         loadConfiguration();
@@ -44,6 +54,29 @@ public class AppConfig {
         this.apiToken = System.getProperty("api.token", props.getProperty("api.token"));
         this.apiBasicUser = System.getProperty("api.basic.user", props.getProperty("api.basic.user"));
         this.apiBasicPass = System.getProperty("api.basic.pass", props.getProperty("api.basic.pass"));
+        this.storageFormat = StorageFormat.fromProperty(
+                System.getProperty("mock.storage.format", props.getProperty("mock.storage.format", "json")));
+        this.writeDelayMillis = longProperty(props, "mock.write.delay.ms", 200);
+        this.backupIntervalMinutes = longProperty(props, "mock.backup.interval.min", 30);
+        this.backupMaxBytesPerSecond = longProperty(props, "mock.backup.max.bytes.per.sec", 8L * 1024 * 1024);
+        this.backupKeep = (int) longProperty(props, "mock.backup.keep", 48);
+        this.httpMaxConnections = (int) longProperty(props, "http.pool.max.connections", 16);
+        this.httpKeepAliveSeconds = (int) longProperty(props, "http.pool.keepalive.sec", 300);
+        this.httpDispatcherThreads = (int) Math.max(1, longProperty(props, "http.dispatcher.threads", 4));
+        this.httpMaxRequests = (int) Math.max(1, longProperty(props, "http.max.requests", 64));
+        this.httpCacheMaxBytes = Math.max(0, longProperty(props, "http.cache.max.bytes", 50L * 1024 * 1024));
+    }
+
+    private static long longProperty(Properties props, String key, long defaultValue) {
+        String value = System.getProperty(key, props.getProperty(key));
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
     }
 
     public DataMode getDataMode() { return dataMode; }
@@ -56,6 +89,28 @@ public class AppConfig {
     public String getApiBasicUser() { return apiBasicUser; }
     public String getApiBasicPass() { return apiBasicPass; }
 
+    public StorageFormat getStorageFormat() { return storageFormat; }
+    public void setStorageFormat(StorageFormat storageFormat) { this.storageFormat = storageFormat; }
+
+    public long getWriteDelayMillis() { return writeDelayMillis; }
+    public void setWriteDelayMillis(long writeDelayMillis) { this.writeDelayMillis = writeDelayMillis; }
+
+    public long getBackupIntervalMinutes() { return backupIntervalMinutes; }
+    public void setBackupIntervalMinutes(long backupIntervalMinutes) { this.backupIntervalMinutes = backupIntervalMinutes; }
+
+    public long getBackupMaxBytesPerSecond() { return backupMaxBytesPerSecond; }
+    public void setBackupMaxBytesPerSecond(long backupMaxBytesPerSecond) { this.backupMaxBytesPerSecond = backupMaxBytesPerSecond; }
+
+    public int getBackupKeep() { return backupKeep; }
+    public void setBackupKeep(int backupKeep) { this.backupKeep = backupKeep; }
+
+    public int getHttpMaxConnections() { return httpMaxConnections; }
+    public int getHttpKeepAliveSeconds() { return httpKeepAliveSeconds; }
+    public int getHttpDispatcherThreads() { return httpDispatcherThreads; }
+    public int getHttpMaxRequests() { return httpMaxRequests; }
+    public long getHttpCacheMaxBytes() { return httpCacheMaxBytes; }
+    public void setHttpCacheMaxBytes(long httpCacheMaxBytes) { this.httpCacheMaxBytes = httpCacheMaxBytes; }
+
     public boolean isBackendMode() { return dataMode == DataMode.BACKEND_API; }
     public boolean isMockMode() { return dataMode == DataMode.MOCK_JSON; }
 
@@ -0,0 +1,24 @@
+package com.materiel.client.config;
+
+/**
+ * Encodage des fichiers du répertoire de données (mode Mock)
+ */
+public enum StorageFormat {
+    JSON("json"),
+    SMILE("smile");
+
+    private final String extension;
+
+    StorageFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /** Valeur de la propriété {@code mock.storage.format} ; JSON par défaut. */
+    public static StorageFormat fromProperty(String value) {
+        return "smile".equalsIgnoreCase(value) ? SMILE : JSON;
+    }
+}
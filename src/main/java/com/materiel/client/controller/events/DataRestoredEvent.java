@@ -0,0 +1,22 @@
+package com.materiel.client.controller.events;
+
+/**
+ * Les fichiers de données ont été remplacés par une sauvegarde
+ */
+public class DataRestoredEvent {
+
+    private final String snapshotId;
+
+    public DataRestoredEvent(String snapshotId) {
+        this.snapshotId = snapshotId;
+    }
+
+    public String getSnapshotId() {
+        return snapshotId;
+    }
+
+    @Override
+    public String toString() {
+        return "DataRestoredEvent{snapshotId='" + snapshotId + "'}";
+    }
+}
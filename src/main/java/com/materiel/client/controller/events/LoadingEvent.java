@@ -0,0 +1,46 @@
+package com.materiel.client.controller.events;
+
+/**
+ * Événement de début/fin d'un chargement en arrière-plan
+ */
+public class LoadingEvent {
+    
+    public enum Type {
+        STARTED, FINISHED
+    }
+    
+    private final Type type;
+    private final String source;
+    private final String message;
+    
+    public LoadingEvent(Type type, String source, String message) {
+        this.type = type;
+        this.source = source;
+        this.message = message;
+    }
+    
+    public static LoadingEvent started(String source, String message) {
+        return new LoadingEvent(Type.STARTED, source, message);
+    }
+    
+    public static LoadingEvent finished(String source) {
+        return new LoadingEvent(Type.FINISHED, source, null);
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public String getSource() {
+        return source;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    @Override
+    public String toString() {
+        return "LoadingEvent{type=" + type + ", source='" + source + "'}";
+    }
+}
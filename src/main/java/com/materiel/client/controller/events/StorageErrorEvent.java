@@ -0,0 +1,28 @@
+package com.materiel.client.controller.events;
+
+/**
+ * Échec définitif de l'enregistrement d'un fichier de données
+ */
+public class StorageErrorEvent {
+
+    private final String file;
+    private final String message;
+
+    public StorageErrorEvent(String file, String message) {
+        this.file = file;
+        this.message = message;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "StorageErrorEvent{file='" + file + "', message='" + message + "'}";
+    }
+}
@@ -0,0 +1,400 @@
+package com.materiel.client.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.materiel.client.config.StorageFormat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Sauvegardes incrémentales du répertoire de données, adressées par contenu.
+ * <p>
+ * Chaque fichier est découpé en blocs de taille variable (frontières
+ * déterminées par le contenu, hash « gear » glissant) : une insertion au
+ * milieu d'un fichier JSON ne décale que les blocs voisins. Un bloc est
+ * identifié par son SHA-256 et stocké une seule fois, compressé, sous
+ * {@code chunks/}. Un instantané ({@code snapshots/<id>.json}) liste, pour
+ * chaque fichier, ses blocs ; un fichier dont la taille et la date n'ont pas
+ * changé depuis l'instantané précédent n'est même pas relu. La lecture est
+ * bridée à {@code maxBytesPerSecond} pour ne pas gêner l'application.
+ * <p>
+ * Aucun instantané n'est écrit si rien n'a changé. Seuls les {@code keep}
+ * instantanés les plus récents sont conservés ; les blocs qu'ils ne
+ * référencent plus sont alors supprimés (marquage puis balayage).
+ */
+public final class BackupStore implements AutoCloseable {
+
+    /** Fichier sauvegardé : empreinte disque et blocs dans l'ordre. */
+    public record FileEntry(long size, long modified, List<String> chunks) {}
+
+    /** Instantané du répertoire à un instant donné. */
+    public record Snapshot(String id, Instant created, Map<String, FileEntry> files) {}
+
+    static final int MIN_CHUNK = 2 * 1024;
+    static final int MAX_CHUNK = 64 * 1024;
+    /** Bits de poids fort du hash (qui dépendent des 64 derniers octets) : blocs de ~8 Kio en moyenne. */
+    private static final long BOUNDARY_MASK = ((1L << 13) - 1) << 51;
+    private static final long[] GEAR = new long[256];
+    static {
+        Random random = new Random(0x6d61746572L); // graine fixe : mêmes frontières d'une exécution à l'autre
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+    private static final DateTimeFormatter ID_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private final Path dataDirectory;
+    private final Path chunkDirectory;
+    private final Path snapshotDirectory;
+    private final long maxBytesPerSecond;
+    private final int keep;
+    private final ObjectMapper json = DataFiles.plainMapper(StorageFormat.JSON);
+    private ScheduledExecutorService scheduler;
+    private Snapshot last;
+
+    /**
+     * @param maxBytesPerSecond débit de lecture maximal pendant une sauvegarde, 0 = illimité
+     */
+    public BackupStore(Path dataDirectory, Path backupDirectory, long maxBytesPerSecond) {
+        this(dataDirectory, backupDirectory, maxBytesPerSecond, 0);
+    }
+
+    /**
+     * @param maxBytesPerSecond débit de lecture maximal pendant une sauvegarde, 0 = illimité
+     * @param keep              nombre d'instantanés conservés, 0 = tous
+     */
+    public BackupStore(Path dataDirectory, Path backupDirectory, long maxBytesPerSecond, int keep) {
+        this.dataDirectory = dataDirectory;
+        this.chunkDirectory = backupDirectory.resolve("chunks");
+        this.snapshotDirectory = backupDirectory.resolve("snapshots");
+        this.maxBytesPerSecond = Math.max(0, maxBytesPerSecond);
+        this.keep = Math.max(0, keep);
+    }
+
+    /**
+     * Crée un instantané ; seuls les blocs encore inconnus sont écrits. Si
+     * aucun fichier n'a changé, l'instantané précédent est retourné.
+     */
+    public synchronized Snapshot backup() throws IOException {
+        Files.createDirectories(snapshotDirectory);
+        Snapshot previous = last != null ? last : latest();
+        Throttle throttle = new Throttle(maxBytesPerSecond);
+        Map<String, FileEntry> files = new TreeMap<>();
+        int newChunks = 0;
+        long read = 0;
+
+        List<Path> sources;
+        try (Stream<Path> list = Files.walk(dataDirectory)) {
+            sources = list.filter(Files::isRegularFile)
+                    .filter(f -> !f.getFileName().toString().endsWith(".tmp"))
+                    .sorted()
+                    .toList();
+        }
+        for (Path source : sources) {
+            String name = dataDirectory.relativize(source).toString().replace('\\', '/');
+            BasicFileAttributes attrs = Files.readAttributes(source, BasicFileAttributes.class);
+            long modified = attrs.lastModifiedTime().toMillis();
+            FileEntry before = previous != null ? previous.files().get(name) : null;
+            if (before != null && before.size() == attrs.size() && before.modified() == modified) {
+                files.put(name, before);
+                continue;
+            }
+            List<String> chunks = new ArrayList<>();
+            try (InputStream in = Files.newInputStream(source)) {
+                newChunks += chunk(in, chunks, throttle);
+            }
+            read += attrs.size();
+            files.put(name, new FileEntry(attrs.size(), modified, chunks));
+        }
+
+        if (previous != null && files.equals(previous.files())) {
+            last = previous;
+            return previous;
+        }
+        Instant now = Instant.now();
+        String id = ID_FORMAT.format(now);
+        Snapshot snapshot = new Snapshot(id, now, files);
+        DataFiles.write(json, StorageFormat.JSON, snapshotDirectory.resolve(id + ".json"), snapshot);
+        last = snapshot;
+        System.out.println("Sauvegarde " + id + " : " + files.size() + " fichier(s), "
+                + read / 1024 + " Kio relus, " + newChunks + " nouveau(x) bloc(s)");
+        prune();
+        return snapshot;
+    }
+
+    /**
+     * Supprime les instantanés au-delà des {@code keep} plus récents, puis les
+     * blocs qu'aucun instantané restant ne référence.
+     */
+    private void prune() throws IOException {
+        if (keep == 0) {
+            return;
+        }
+        List<Snapshot> snapshots = listSnapshots();
+        if (snapshots.size() <= keep) {
+            return;
+        }
+        List<Snapshot> kept = snapshots.subList(snapshots.size() - keep, snapshots.size());
+        for (Snapshot expired : snapshots.subList(0, snapshots.size() - keep)) {
+            Files.deleteIfExists(snapshotDirectory.resolve(expired.id() + ".json"));
+        }
+        Set<String> referenced = new HashSet<>();
+        for (Snapshot s : kept) {
+            for (FileEntry entry : s.files().values()) {
+                referenced.addAll(entry.chunks());
+            }
+        }
+        List<Path> unreferenced;
+        try (Stream<Path> list = Files.walk(chunkDirectory)) {
+            unreferenced = list.filter(Files::isRegularFile)
+                    .filter(f -> {
+                        String name = f.getFileName().toString();
+                        return name.endsWith(".gz") && !referenced.contains(name.substring(0, name.length() - 3));
+                    })
+                    .toList();
+        }
+        for (Path chunk : unreferenced) {
+            Files.deleteIfExists(chunk);
+        }
+        System.out.println("Sauvegardes : " + (snapshots.size() - keep) + " instantané(s) expiré(s), "
+                + unreferenced.size() + " bloc(s) supprimé(s)");
+    }
+
+    /** Instantanés disponibles, du plus ancien au plus récent. */
+    public List<Snapshot> listSnapshots() throws IOException {
+        if (Files.notExists(snapshotDirectory)) {
+            return List.of();
+        }
+        List<Snapshot> snapshots = new ArrayList<>();
+        try (Stream<Path> list = Files.list(snapshotDirectory)) {
+            for (Path file : list.filter(f -> f.getFileName().toString().endsWith(".json")).toList()) {
+                snapshots.add(json.readValue(file.toFile(), Snapshot.class));
+            }
+        }
+        snapshots.sort(Comparator.comparing(Snapshot::created));
+        return snapshots;
+    }
+
+    /** Dernier instantané pris au plus tard à {@code pointInTime}, ou null. */
+    public Snapshot snapshotAt(Instant pointInTime) throws IOException {
+        Snapshot found = null;
+        for (Snapshot s : listSnapshots()) {
+            if (s.created().isAfter(pointInTime)) break;
+            found = s;
+        }
+        return found;
+    }
+
+    /**
+     * Remet {@code targetDirectory} dans l'état de l'instantané. Tous les
+     * fichiers sont d'abord reconstitués à côté de leur cible (chaque bloc
+     * est vérifié) : un bloc manquant ou corrompu laisse le répertoire
+     * intact. Ils remplacent ensuite atomiquement les fichiers courants, puis
+     * les fichiers absents de l'instantané (partitions, journaux créés depuis)
+     * sont supprimés.
+     */
+    public synchronized void restore(Snapshot snapshot, Path targetDirectory) throws IOException {
+        Files.createDirectories(targetDirectory);
+        Map<Path, Path> staged = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, FileEntry> e : snapshot.files().entrySet()) {
+                Path target = targetDirectory.resolve(e.getKey());
+                Path tmp = target.resolveSibling(target.getFileName() + ".restore.tmp");
+                staged.put(tmp, target);
+                Files.createDirectories(target.getParent());
+                try (OutputStream out = Files.newOutputStream(tmp)) {
+                    for (String hash : e.getValue().chunks()) {
+                        byte[] data;
+                        try (InputStream in = new GZIPInputStream(Files.newInputStream(chunkPath(hash)))) {
+                            data = in.readAllBytes();
+                        }
+                        if (!hash.equals(sha256(data, data.length))) {
+                            throw new IOException("Bloc corrompu " + hash + " dans la sauvegarde " + snapshot.id());
+                        }
+                        out.write(data);
+                    }
+                }
+                Files.setLastModifiedTime(tmp, FileTime.fromMillis(e.getValue().modified()));
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Path tmp : staged.keySet()) {
+                Files.deleteIfExists(tmp);
+            }
+            throw e;
+        }
+        for (Map.Entry<Path, Path> e : staged.entrySet()) {
+            Files.move(e.getKey(), e.getValue(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        Set<Path> restored = new HashSet<>(staged.values());
+        List<Path> extra;
+        try (Stream<Path> list = Files.walk(targetDirectory)) {
+            extra = list.filter(Files::isRegularFile)
+                    .filter(f -> !f.getFileName().toString().endsWith(".tmp"))
+                    .filter(f -> !restored.contains(f))
+                    .toList();
+        }
+        for (Path file : extra) {
+            Files.deleteIfExists(file);
+        }
+        System.out.println("Sauvegarde " + snapshot.id() + " restaurée dans " + targetDirectory
+                + (extra.isEmpty() ? "" : " (" + extra.size() + " fichier(s) postérieur(s) supprimé(s))"));
+    }
+
+    /**
+     * Lance une sauvegarde périodique en arrière-plan ; {@code beforeBackup}
+     * est appelé juste avant chaque sauvegarde (vidage des écritures différées).
+     */
+    public synchronized void start(Duration interval, Runnable beforeBackup) {
+        if (scheduler != null || interval.isZero() || interval.isNegative()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mock-backup");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        long period = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                if (beforeBackup != null) {
+                    beforeBackup.run();
+                }
+                backup();
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Erreur lors de la sauvegarde automatique: " + e.getMessage());
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private Snapshot latest() throws IOException {
+        List<Snapshot> snapshots = listSnapshots();
+        return snapshots.isEmpty() ? null : snapshots.get(snapshots.size() - 1);
+    }
+
+    /** Découpe le flux en blocs ; renvoie le nombre de blocs nouvellement stockés. */
+    private int chunk(InputStream in, List<String> chunks, Throttle throttle) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        ByteArrayOutputStream current = new ByteArrayOutputStream(MAX_CHUNK);
+        long hash = 0;
+        int stored = 0;
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            throttle.consumed(n);
+            int from = 0;
+            for (int i = 0; i < n; i++) {
+                hash = (hash << 1) + GEAR[buffer[i] & 0xff];
+                int size = current.size() + i - from + 1;
+                if ((size >= MIN_CHUNK && (hash & BOUNDARY_MASK) == 0) || size >= MAX_CHUNK) {
+                    current.write(buffer, from, i - from + 1);
+                    stored += store(current, chunks);
+                    from = i + 1;
+                    hash = 0;
+                }
+            }
+            current.write(buffer, from, n - from);
+        }
+        if (current.size() > 0) {
+            stored += store(current, chunks);
+        }
+        return stored;
+    }
+
+    private int store(ByteArrayOutputStream current, List<String> chunks) throws IOException {
+        byte[] data = current.toByteArray();
+        current.reset();
+        String hash = sha256(data, data.length);
+        chunks.add(hash);
+        Path path = chunkPath(hash);
+        if (Files.exists(path)) {
+            return 0;
+        }
+        Files.createDirectories(path.getParent());
+        Path tmp = path.resolveSibling(hash + ".tmp");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+            out.write(data);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return 1;
+    }
+
+    private Path chunkPath(String hash) {
+        return chunkDirectory.resolve(hash.substring(0, 2)).resolve(hash + ".gz");
+    }
+
+    private static String sha256(byte[] data, int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(data, 0, length);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Limite le débit de lecture en dormant quand on est en avance. */
+    private static final class Throttle {
+        private final long bytesPerSecond;
+        private final long start = System.nanoTime();
+        private long bytes;
+
+        Throttle(long bytesPerSecond) {
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        void consumed(int n) throws IOException {
+            if (bytesPerSecond == 0) {
+                return;
+            }
+            bytes += n;
+            long due = bytes * 1_000_000_000L / bytesPerSecond;
+            long ahead = due - (System.nanoTime() - start);
+            if (ahead > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(ahead);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Sauvegarde interrompue", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.materiel.client.mock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.materiel.client.config.StorageFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Accès aux fichiers du répertoire de données selon leur encodage.
+ * <p>
+ * Les stores sont désignés par leur nom logique ({@code orders.json}) ; le
+ * fichier réel porte l'extension du format choisi ({@code orders.smile}).
+ * Si seul le fichier de l'autre format existe, il est converti au premier
+ * accès et l'original est conservé sous {@code <nom>.migrated}. La conversion
+ * passe par l'arbre Jackson : elle ne dépend pas du type stocké.
+ */
+public final class DataFiles {
+
+    private static final String MIGRATED_SUFFIX = ".migrated";
+
+    private DataFiles() {
+    }
+
+    /**
+     * Mapper configuré (dates Java 8 incluses) pour le format donné ; clients
+     * et ressources lus sont dédoublonnés par le {@link ReferencePool}.
+     */
+    public static ObjectMapper mapper(StorageFormat format) {
+        ObjectMapper mapper = plainMapper(format);
+        mapper.registerModule(ReferencePool.getInstance().module());
+        return mapper;
+    }
+
+    /** Mapper sans partage des références (outils de migration, validation). */
+    static ObjectMapper plainMapper(StorageFormat format) {
+        ObjectMapper mapper = format == StorageFormat.SMILE
+                ? new ObjectMapper(new SmileFactory())
+                : new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        return mapper;
+    }
+
+    /** Fichier réel d'un store logique dans le format donné. */
+    public static Path resolve(Path logical, StorageFormat format) {
+        String name = logical.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return logical.resolveSibling(base + "." + format.getExtension());
+    }
+
+    /**
+     * Renvoie le fichier réel du store, après avoir converti si besoin le
+     * fichier existant dans un autre format.
+     */
+    public static Path migrate(Path logical, StorageFormat format) throws IOException {
+        Path target = resolve(logical, format);
+        if (Files.exists(target)) {
+            return target;
+        }
+        for (StorageFormat other : StorageFormat.values()) {
+            if (other == format) continue;
+            Path source = resolve(logical, other);
+            if (Files.exists(source) && Files.size(source) > 0) {
+                JsonNode tree = mapper(other).readTree(source.toFile());
+                write(mapper(format), format, target, tree);
+                Files.move(source, source.resolveSibling(source.getFileName() + MIGRATED_SUFFIX),
+                        StandardCopyOption.REPLACE_EXISTING);
+                System.out.println("Données converties : " + source.getFileName() + " -> " + target.getFileName());
+                break;
+            }
+        }
+        return target;
+    }
+
+    /** Écriture atomique (fichier temporaire puis renommage) ; JSON indenté, binaire compact. */
+    public static void write(ObjectMapper mapper, StorageFormat format, Path target, Object value) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            write(mapper, format, out, value);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Sérialise {@code value} dans le flux ; JSON indenté, binaire compact. */
+    public static void write(ObjectMapper mapper, StorageFormat format, OutputStream out, Object value) throws IOException {
+        if (format == StorageFormat.JSON) {
+            mapper.writerWithDefaultPrettyPrinter().writeValue(out, value);
+        } else {
+            mapper.writeValue(out, value);
+        }
+    }
+
+    /** Export JSON indenté d'un fichier de données, quel que soit son format (débogage). */
+    public static void exportJson(Path source, StorageFormat format, Path target) throws IOException {
+        JsonNode tree = mapper(format).readTree(source.toFile());
+        write(mapper(StorageFormat.JSON), StorageFormat.JSON, target, tree);
+    }
+}
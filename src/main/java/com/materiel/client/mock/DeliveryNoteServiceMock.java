@@ -18,9 +18,10 @@ public class DeliveryNoteServiceMock implements DeliveryNoteService {
     private final List<DeliveryNote> cache;
 
     public DeliveryNoteServiceMock(Path dataDir, SequenceService sequenceService) {
-        this.store = new JsonStore<>(dataDir.resolve("delivery_notes.json"), DeliveryNote[].class);
+        this.store = new JsonStore<>(dataDir.resolve("delivery_notes.json"), DeliveryNote[].class, DeliveryNote::getId);
         this.sequenceService = sequenceService;
         this.cache = store.load();
+        sequenceService.reconcile(DocumentType.DELIVERY_NOTE, cache.stream().map(DeliveryNote::getNumber).toList());
         if (this.cache.isEmpty()) {
             DeliveryNote sample = new DeliveryNote();
             sample.setCustomerId(UUID.randomUUID());
@@ -33,6 +34,13 @@ public class DeliveryNoteServiceMock implements DeliveryNoteService {
         }
     }
 
+    /** Relit le fichier après une restauration des données. */
+    public void reload() {
+        cache.clear();
+        cache.addAll(store.load());
+        sequenceService.reconcile(DocumentType.DELIVERY_NOTE, cache.stream().map(DeliveryNote::getNumber).toList());
+    }
+
     @Override
     public List<DeliveryNote> list() { return new ArrayList<>(cache); }
 
@@ -45,23 +53,23 @@ public class DeliveryNoteServiceMock implements DeliveryNoteService {
         if (note.getNumber() == null) note.setNumber(generateNumber(note.getDate()));
         note.recalcTotals();
         cache.add(note);
-        store.save(cache);
+        store.put(note);
         return note;
     }
 
     @Override
     public DeliveryNote update(DeliveryNote note) {
-        delete(note.getId());
+        cache.removeIf(o -> o.getId().equals(note.getId()));
         note.recalcTotals();
         cache.add(note);
-        store.save(cache);
+        store.put(note);
         return note;
     }
 
     @Override
     public void delete(UUID id) {
         cache.removeIf(o -> o.getId().equals(id));
-        store.save(cache);
+        store.remove(id);
     }
 
     @Override
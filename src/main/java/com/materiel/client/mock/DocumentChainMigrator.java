@@ -0,0 +1,96 @@
+package com.materiel.client.mock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.materiel.client.config.AppConfig;
+import com.materiel.client.config.StorageFormat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Migration des fichiers de commandes et de bons de livraison vers le format
+ * normalisé : le document amont imbriqué ({@code devisOrigine},
+ * {@code commandeOrigine}) est remplacé par son id ({@code devisOrigineId},
+ * {@code commandeOrigineId}). L'original est conservé sous
+ * {@code <fichier>.pre-normalisation}. Sans document imbriqué, le fichier
+ * n'est pas réécrit : la migration peut être relancée sans effet.
+ */
+public final class DocumentChainMigrator {
+
+    static final String BACKUP_SUFFIX = ".pre-normalisation";
+
+    /** Champ imbriqué -> clé étrangère qui le remplace. */
+    private static final Map<String, String> LINKS = new LinkedHashMap<>();
+    static {
+        LINKS.put("devisOrigine", "devisOrigineId");
+        LINKS.put("commandeOrigine", "commandeOrigineId");
+    }
+
+    private DocumentChainMigrator() {
+    }
+
+    /**
+     * Normalise un fichier de documents.
+     *
+     * @return nombre de documents dont le document amont a été remplacé par son id
+     */
+    public static int migrate(Path file, StorageFormat format) throws IOException {
+        if (Files.notExists(file) || Files.size(file) == 0) {
+            return 0;
+        }
+        ObjectMapper mapper = DataFiles.mapper(format);
+        JsonNode root = mapper.readTree(file.toFile());
+        if (root == null || !root.isArray()) {
+            return 0;
+        }
+        int replaced = 0;
+        for (JsonNode element : root) {
+            if (element instanceof ObjectNode document && normalize(document)) {
+                replaced++;
+            }
+        }
+        if (replaced > 0) {
+            Files.copy(file, file.resolveSibling(file.getFileName() + BACKUP_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+            DataFiles.write(mapper, format, file, root);
+            System.out.println(file.getFileName() + " normalisé : " + replaced + " document(s) amont remplacé(s) par leur id");
+        }
+        return replaced;
+    }
+
+    /**
+     * Remplace dans un document les documents amont imbriqués par leur id
+     * (étape de migration enregistrement par enregistrement).
+     *
+     * @return true si le document a été modifié
+     */
+    public static boolean normalize(ObjectNode document) {
+        boolean changed = false;
+        for (Map.Entry<String, String> link : LINKS.entrySet()) {
+            JsonNode nested = document.remove(link.getKey());
+            if (nested == null) continue;
+            changed = true;
+            if (nested.hasNonNull("id") && !document.hasNonNull(link.getValue())) {
+                document.set(link.getValue(), nested.get("id"));
+            }
+        }
+        return changed;
+    }
+
+    /** Migration ponctuelle d'un répertoire de données (par défaut celui de l'utilisateur). */
+    public static void main(String[] args) throws IOException {
+        Path dataDirectory = args.length > 0
+                ? Paths.get(args[0])
+                : Paths.get(System.getProperty("user.home"), ".gestion-materiel", "data");
+        StorageFormat format = AppConfig.getInstance().getStorageFormat();
+        for (String name : MockDataManager.CHAINED_DOCUMENT_FILES) {
+            migrate(DataFiles.migrate(dataDirectory.resolve(name), format), format);
+        }
+    }
+}
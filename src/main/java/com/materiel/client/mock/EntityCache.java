@@ -0,0 +1,220 @@
+package com.materiel.client.mock;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache mémoire write-through des fichiers JSON du mode Mock.
+ * <p>
+ * Chaque fichier n'est parsé qu'une fois : les lectures suivantes sont servies
+ * depuis la mémoire tant que la date de modification et la taille du fichier
+ * n'ont pas changé. Une modification externe invalide donc l'entrée.
+ * Un contenu dont l'écriture est différée ({@link #putPending}) fait foi
+ * jusqu'à ce qu'il soit sur disque.
+ * <p>
+ * Seules les listes sont copiées : les éléments mis en cache sont partagés
+ * et ne doivent jamais être modifiés. {@link MockDataManager} y dépose des
+ * copies des entités écrites ; une entité à modifier est d'abord copiée
+ * ({@link MockDataManager#copyOf}).
+ */
+public class EntityCache {
+
+    /**
+     * Contenu mis en cache pour un fichier, avec son empreinte disque. Après
+     * {@link #evict}, seule l'empreinte reste ({@code data} nul).
+     */
+    private static final class Entry {
+        final List<?> data;
+        final FileTime modified;
+        final long size;
+
+        Entry(List<?> data, FileTime modified, long size) {
+            this.data = data;
+            this.modified = modified;
+            this.size = size;
+        }
+    }
+
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Map<Path, AtomicLong> revisions = new ConcurrentHashMap<>();
+
+    /**
+     * Retourne une copie de la liste en cache (éléments partagés, en lecture
+     * seule), ou {@code null} si le fichier n'est pas en cache ou a été
+     * modifié depuis.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(Path file) {
+        Entry entry = entries.get(file);
+        boolean fresh = entry != null && isFresh(entry, file);
+        if (fresh && entry.data != null) {
+            hits.incrementAndGet();
+            return new ArrayList<>((List<T>) entry.data);
+        }
+        if (entry != null && !fresh && entries.remove(file, entry)) {
+            bump(file);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Contenu en cache tel quel (vide si absent), sans contrôle de fraîcheur
+     * ni effet sur les statistiques.
+     */
+    @SuppressWarnings("unchecked")
+    <T> List<T> peek(Path file) {
+        Entry entry = entries.get(file);
+        return entry != null && entry.data != null ? (List<T>) entry.data : List.of();
+    }
+
+    /**
+     * Enregistre le contenu qui vient d'être lu sur disque. Relire un fichier
+     * libéré par {@link #evict} sans qu'il ait changé ne modifie pas sa
+     * révision.
+     * <p>
+     * La lecture a pu commencer avant un {@link #putPending} ou un
+     * {@link #written} concurrent : un contenu en attente d'écriture, ou déjà
+     * en cache et toujours à jour, est alors conservé.
+     *
+     * @return le contenu qui fait foi après l'appel
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> put(Path file, List<T> data) {
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            entries.computeIfPresent(file, (f, current) -> current.modified == null ? current : null);
+            bump(file);
+            return data;
+        }
+        Entry read = new Entry(Collections.unmodifiableList(new ArrayList<>(data)), attrs.lastModifiedTime(), attrs.size());
+        boolean[] unchanged = {false};
+        Entry kept = entries.compute(file, (f, current) -> {
+            if (current != null && (current.modified == null || (current.data != null && isFresh(current, f)))) {
+                unchanged[0] = true;
+                return current;
+            }
+            // Fichier libéré par evict puis relu tel quel : même révision
+            unchanged[0] = current != null && current.size == read.size && read.modified.equals(current.modified);
+            return read;
+        });
+        if (!unchanged[0]) {
+            bump(file);
+        }
+        return (List<T>) kept.data;
+    }
+
+    /**
+     * Enregistre un contenu dont l'écriture sur disque est différée : il fait
+     * foi quel que soit l'état du fichier jusqu'à {@link #written}.
+     *
+     * @return l'instantané immuable conservé, à transmettre à l'écriture
+     */
+    public <T> List<T> putPending(Path file, List<T> data) {
+        List<T> snapshot = Collections.unmodifiableList(new ArrayList<>(data));
+        entries.put(file, new Entry(snapshot, null, -1));
+        bump(file);
+        return snapshot;
+    }
+
+    /**
+     * Le fichier contient désormais {@code snapshot} : l'entrée reprend
+     * l'empreinte disque, sauf si un contenu plus récent l'a remplacée.
+     */
+    public void written(Path file, List<?> snapshot) {
+        Entry entry = entries.get(file);
+        if (entry == null || entry.data != snapshot) {
+            return;
+        }
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            entries.replace(file, entry, new Entry(snapshot, attrs.lastModifiedTime(), attrs.size()));
+        } catch (IOException e) {
+            entries.remove(file, entry);
+        }
+    }
+
+    /**
+     * L'écriture de {@code snapshot} a définitivement échoué : l'entrée ne
+     * fait plus foi et le fichier sera relu, sauf si un contenu plus récent
+     * l'a remplacée.
+     */
+    public void failed(Path file, List<?> snapshot) {
+        Entry entry = entries.get(file);
+        if (entry != null && entry.data == snapshot && entries.remove(file, entry)) {
+            bump(file);
+        }
+    }
+
+    public void invalidate(Path file) {
+        entries.remove(file);
+        bump(file);
+    }
+
+    /**
+     * Libère la mémoire d'un fichier sans changer sa révision (le contenu
+     * n'a pas changé, il sera relu au prochain accès). L'empreinte est gardée
+     * pour que {@link #revision} voie encore une modification externe. Un
+     * contenu dont l'écriture est encore en attente est conservé.
+     */
+    public void evict(Path file) {
+        entries.computeIfPresent(file, (f, entry) -> entry.modified == null
+                ? entry
+                : new Entry(null, entry.modified, entry.size));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+        revisions.values().forEach(AtomicLong::incrementAndGet);
+    }
+
+    /**
+     * Révision du contenu d'un fichier : elle change à chaque écriture,
+     * rechargement ou modification externe. Permet aux index dérivés de savoir
+     * s'ils doivent être reconstruits sans relire les données.
+     */
+    public long revision(Path file) {
+        Entry entry = entries.get(file);
+        if (entry != null && !isFresh(entry, file) && entries.remove(file, entry)) {
+            bump(file);
+        }
+        return revisions.computeIfAbsent(file, f -> new AtomicLong()).get();
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+
+    public void resetStatistics() {
+        hits.set(0);
+        misses.set(0);
+    }
+
+    private void bump(Path file) {
+        revisions.computeIfAbsent(file, f -> new AtomicLong()).incrementAndGet();
+    }
+
+    private boolean isFresh(Entry entry, Path file) {
+        if (entry.modified == null) {
+            return true; // écriture différée en attente
+        }
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            return attrs.size() == entry.size && attrs.lastModifiedTime().equals(entry.modified);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
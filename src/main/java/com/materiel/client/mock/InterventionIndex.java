@@ -0,0 +1,183 @@
+package com.materiel.client.mock;
+
+import com.materiel.client.model.Intervention;
+import com.materiel.client.model.Resource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Index secondaire des interventions du mode Mock.
+ * <p>
+ * Maintient un découpage par jour de début et, pour chaque ressource, les
+ * interventions triées par date de début. Les requêtes par période ou par
+ * ressource deviennent logarithmiques au lieu de parcourir tout l'historique.
+ * Les clés sont figées à l'indexation : une intervention modifiée en place doit
+ * être ré-indexée via {@link #index(Intervention)}. Avec une fonction de copie,
+ * l'index garde ses propres copies et n'en remet que des copies : modifier un
+ * résultat sans l'enregistrer ne change pas l'index. Les recherches se font
+ * sous verrou de lecture partagé et peuvent s'exécuter en parallèle.
+ */
+public final class InterventionIndex {
+
+    /** Clés sous lesquelles une intervention a été indexée. */
+    private record Keys(Intervention intervention, LocalDate day, LocalDateTime start, List<Long> resourceIds) {}
+
+    private final NavigableMap<LocalDate, List<Intervention>> byDay = new TreeMap<>();
+    private final Map<Long, NavigableMap<LocalDateTime, List<Intervention>>> byResource = new HashMap<>();
+    private final Map<Long, Keys> byId = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final UnaryOperator<Intervention> copier;
+
+    /** Index qui partage les instances indexées avec l'appelant. */
+    public InterventionIndex() {
+        this(UnaryOperator.identity());
+    }
+
+    /** @param copier copie appliquée à l'indexation et à chaque résultat */
+    public InterventionIndex(UnaryOperator<Intervention> copier) {
+        this.copier = copier;
+    }
+
+    public void rebuild(Collection<Intervention> interventions) {
+        lock.writeLock().lock();
+        try {
+            byDay.clear();
+            byResource.clear();
+            byId.clear();
+            for (Intervention i : interventions) {
+                add(copier.apply(i));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Ajoute ou remplace une intervention (identifiée par son id). */
+    public void index(Intervention intervention) {
+        Intervention copy = copier.apply(intervention);
+        lock.writeLock().lock();
+        try {
+            add(copy);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long interventionId) {
+        lock.writeLock().lock();
+        try {
+            delete(interventionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Intervention intervention) {
+        if (intervention.getId() == null) {
+            return;
+        }
+        delete(intervention.getId());
+
+        LocalDateTime start = intervention.getDateDebut();
+        LocalDate day = start != null ? start.toLocalDate() : null;
+        List<Long> resourceIds = new ArrayList<>();
+        if (intervention.getRessources() != null) {
+            for (Resource r : intervention.getRessources()) {
+                if (r != null && r.getId() != null && !resourceIds.contains(r.getId())) {
+                    resourceIds.add(r.getId());
+                }
+            }
+        }
+        Keys keys = new Keys(intervention, day, start != null ? start : LocalDateTime.MIN, resourceIds);
+        byId.put(intervention.getId(), keys);
+
+        if (day != null) {
+            byDay.computeIfAbsent(day, d -> new ArrayList<>()).add(intervention);
+        }
+        for (Long resourceId : resourceIds) {
+            byResource.computeIfAbsent(resourceId, r -> new TreeMap<>())
+                    .computeIfAbsent(keys.start(), s -> new ArrayList<>(1))
+                    .add(intervention);
+        }
+    }
+
+    private void delete(Long interventionId) {
+        Keys keys = byId.remove(interventionId);
+        if (keys == null) {
+            return;
+        }
+        if (keys.day() != null) {
+            removeFrom(byDay, keys.day(), keys.intervention());
+        }
+        for (Long resourceId : keys.resourceIds()) {
+            NavigableMap<LocalDateTime, List<Intervention>> timeline = byResource.get(resourceId);
+            if (timeline == null) continue;
+            removeFrom(timeline, keys.start(), keys.intervention());
+            if (timeline.isEmpty()) {
+                byResource.remove(resourceId);
+            }
+        }
+    }
+
+    public Intervention findById(Long id) {
+        lock.readLock().lock();
+        try {
+            Keys keys = byId.get(id);
+            return keys != null ? copier.apply(keys.intervention()) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Interventions dont le jour de début est compris entre les bornes (incluses). */
+    public List<Intervention> findByDateRange(LocalDate startDate, LocalDate endDate) {
+        List<Intervention> result = new ArrayList<>();
+        if (startDate.isAfter(endDate)) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            for (List<Intervention> day : byDay.subMap(startDate, true, endDate, true).values()) {
+                day.forEach(i -> result.add(copier.apply(i)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /** Interventions affectant la ressource, triées par date de début. */
+    public List<Intervention> findByResource(Long resourceId) {
+        List<Intervention> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            NavigableMap<LocalDateTime, List<Intervention>> timeline = byResource.get(resourceId);
+            if (timeline != null) {
+                timeline.values().forEach(list -> list.forEach(i -> result.add(copier.apply(i))));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private static <K> void removeFrom(Map<K, List<Intervention>> map, K key, Intervention intervention) {
+        List<Intervention> list = map.get(key);
+        if (list == null) return;
+        list.removeIf(i -> i == intervention);
+        if (list.isEmpty()) {
+            map.remove(key);
+        }
+    }
+}
@@ -0,0 +1,541 @@
+package com.materiel.client.mock;
+
+import com.materiel.client.config.StorageFormat;
+import com.materiel.client.model.Intervention;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Stockage des interventions en partitions mensuelles, selon le mois de
+ * début ({@code interventions/2024-12.json} ; les interventions sans date
+ * vont dans {@code interventions/sans-date.json}).
+ * <p>
+ * Une requête par période ne lit que les mois qu'elle couvre, et seuls les
+ * {@link #HOT_PARTITIONS} mois les plus récemment utilisés restent dans le
+ * cache : les autres en sont libérés et seront relus à la demande.
+ * L'enregistrement ou la suppression d'une intervention ne réécrit que sa
+ * partition (et l'ancienne si elle a changé de mois), plus le petit index
+ * {@code interventions/index.json} qui associe chaque id à sa partition.
+ * Le marqueur {@code interventions/index.pending} existe tant qu'une version
+ * de l'index n'est pas écrite : s'il est présent au démarrage (arrêt brutal),
+ * l'index est reconstruit en parcourant les partitions.
+ * <p>
+ * Les lectures (planning, recherche) se font en parallèle sous le verrou de
+ * lecture ; les écritures prennent le verrou exclusif.
+ */
+final class InterventionPartitions {
+
+    static final String DIRECTORY = "interventions";
+    static final String UNDATED = "sans-date";
+    static final int HOT_PARTITIONS = 6;
+
+    private static final String INDEX_NAME = "index";
+    private static final String PENDING_MARKER = "index.pending";
+    static final String INDEX_FILE = DIRECTORY + "/" + INDEX_NAME + ".json";
+
+    /** Partition d'une intervention, dans l'index. */
+    record Location(Long id, String partition) {}
+
+    /** Accès aux fichiers via le cache et les écritures différées de {@link MockDataManager}. */
+    interface Storage {
+        <T> List<T> load(String filename, Class<T[]> type);
+
+        /** {@code afterWrite} est appelé sur le thread d'écriture une fois le fichier écrit. */
+        <T> void save(String filename, List<T> items, Runnable afterWrite);
+
+        void evict(String filename);
+
+        /** Révision du contenu d'un fichier ; change aussi quand il est modifié hors de l'application. */
+        long revision(String filename);
+    }
+
+    private final Path directory;
+    private final String suffix;
+    private final Storage storage;
+    private final AtomicLong revision = new AtomicLong();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object markerLock = new Object();
+    private long indexVersion;
+    private final LinkedHashMap<String, Boolean> hot = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> resident = ConcurrentHashMap.newKeySet();
+    private final Set<String> unwritten = ConcurrentHashMap.newKeySet();
+    private volatile Set<String> known;
+    private volatile FileTime listed;
+    private volatile Map<Long, String> locations;
+
+    InterventionPartitions(Path directory, StorageFormat format, Storage storage) {
+        this.directory = directory;
+        this.suffix = "." + format.getExtension();
+        this.storage = storage;
+    }
+
+    static String partitionOf(Intervention intervention) {
+        return intervention.getDateDebut() == null
+                ? UNDATED
+                : YearMonth.from(intervention.getDateDebut()).toString();
+    }
+
+    static String filename(String partition) {
+        return DIRECTORY + "/" + partition + ".json";
+    }
+
+    /**
+     * Change à chaque écriture, à chaque {@link #reset()} et quand une
+     * partition est modifiée, ajoutée ou supprimée hors de l'application.
+     * Relire une partition sortie du cache ne la change pas.
+     */
+    long revision() {
+        lock.readLock().lock();
+        try {
+            relistIfChanged();
+            long result = revision.get();
+            for (String partition : known()) {
+                result += storage.revision(filename(partition));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Des interventions ont-elles déjà été enregistrées (même aucune) ? */
+    boolean exists() {
+        lock.readLock().lock();
+        try {
+            return Files.exists(path(INDEX_NAME)) || !known().isEmpty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Noms logiques des partitions présentes. */
+    List<String> filenames() {
+        lock.readLock().lock();
+        try {
+            return known().stream().map(InterventionPartitions::filename).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int getPartitionCount() {
+        lock.readLock().lock();
+        try {
+            return known().size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int getResidentCount() {
+        return resident.size();
+    }
+
+    /** Toutes les interventions : chaque partition est lue, les plus anciennes ressortent aussitôt du cache. */
+    List<Intervention> all() {
+        lock.readLock().lock();
+        try {
+            List<Intervention> result = new ArrayList<>();
+            for (String partition : known()) {
+                result.addAll(load(partition));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Interventions dont le jour de début est dans la période (bornes incluses). */
+    List<Intervention> range(LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            List<Intervention> result = new ArrayList<>();
+            YearMonth last = YearMonth.from(endDate);
+            for (YearMonth month = YearMonth.from(startDate); !month.isAfter(last); month = month.plusMonths(1)) {
+                if (!known().contains(month.toString())) continue;
+                for (Intervention i : load(month.toString())) {
+                    if (i.getDateDebut() == null) continue;
+                    LocalDate day = i.getDateDebut().toLocalDate();
+                    if (!day.isBefore(startDate) && !day.isAfter(endDate)) {
+                        result.add(i);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Partitions présentes, dans l'ordre chronologique ({@link #UNDATED} en dernier). */
+    List<String> partitions() {
+        lock.readLock().lock();
+        try {
+            relistIfChanged();
+            return List.copyOf(known());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Partitions présentes des mois couverts par la période (bornes incluses). */
+    List<String> partitions(LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            relistIfChanged();
+            List<String> result = new ArrayList<>();
+            YearMonth last = YearMonth.from(endDate);
+            for (YearMonth month = YearMonth.from(startDate); !month.isAfter(last); month = month.plusMonths(1)) {
+                if (known().contains(month.toString())) {
+                    result.add(month.toString());
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Contenu d'une partition (vide si elle n'existe pas) ; seule celle-ci est lue. */
+    List<Intervention> partition(String partition) {
+        lock.readLock().lock();
+        try {
+            return known().contains(partition) ? load(partition) : new ArrayList<>();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Révision d'une partition : change quand elle est écrite, rechargée ou modifiée hors de l'application. */
+    long revision(String partition) {
+        return storage.revision(filename(partition));
+    }
+
+    /** Lit seulement la partition de l'intervention. */
+    Intervention find(Long id) {
+        lock.readLock().lock();
+        try {
+            String partition = locations().get(id);
+            if (partition == null) {
+                return null;
+            }
+            Intervention found = findIn(partition, id);
+            if (found != null) {
+                return found;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            // Index périmé : une fois reconstruit, il fait foi
+            rebuildLocations();
+            String partition = locations.get(id);
+            return partition != null ? findIn(partition, id) : null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Enregistre une intervention (un id est attribué aux nouvelles) : seule
+     * sa partition est réécrite, ainsi que l'ancienne si elle a changé de mois.
+     */
+    void save(Intervention intervention) {
+        lock.writeLock().lock();
+        try {
+            saveLocked(intervention);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void saveLocked(Intervention intervention) {
+        Map<Long, String> index = locations();
+        if (intervention.getId() == null) {
+            intervention.setId(index.keySet().stream().mapToLong(Long::longValue).max().orElse(0L) + 1);
+        }
+        Long id = intervention.getId();
+        String target = partitionOf(intervention);
+        String previous = index.get(id);
+        if (previous != null && !previous.equals(target)) {
+            List<Intervention> items = load(previous);
+            items.removeIf(i -> id.equals(i.getId()));
+            write(previous, items);
+        }
+        List<Intervention> items = load(target);
+        boolean replaced = false;
+        for (int i = 0; i < items.size(); i++) {
+            if (id.equals(items.get(i).getId())) {
+                items.set(i, intervention);
+                replaced = true;
+                break;
+            }
+        }
+        if (!replaced) {
+            items.add(intervention);
+        }
+        write(target, items);
+        if (!target.equals(previous)) {
+            index.put(id, target);
+            writeLocations();
+        }
+        revision.incrementAndGet();
+    }
+
+    void delete(Long id) {
+        lock.writeLock().lock();
+        try {
+            String partition = locations().remove(id);
+            if (partition == null) {
+                return;
+            }
+            List<Intervention> items = load(partition);
+            items.removeIf(i -> id.equals(i.getId()));
+            write(partition, items);
+            writeLocations();
+            revision.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Remplace tout le contenu (import, découpage de l'ancien fichier unique) : toutes les partitions sont réécrites. */
+    void replaceAll(List<Intervention> interventions) {
+        lock.writeLock().lock();
+        try {
+            Map<String, List<Intervention>> groups = new TreeMap<>();
+            Map<Long, String> index = new HashMap<>();
+            for (Intervention i : interventions) {
+                String partition = partitionOf(i);
+                groups.computeIfAbsent(partition, p -> new ArrayList<>()).add(i);
+                if (i.getId() != null) {
+                    index.put(i.getId(), partition);
+                }
+            }
+            for (String partition : known()) {
+                groups.putIfAbsent(partition, new ArrayList<>());
+            }
+            groups.forEach(this::write);
+            locations = index;
+            writeLocations();
+            revision.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Oublie l'état mémoire après un remplacement des fichiers (restauration, réparation, réinitialisation). */
+    void reset() {
+        lock.writeLock().lock();
+        try {
+            synchronized (hot) {
+                hot.clear();
+            }
+            resident.clear();
+            known = null;
+            locations = null;
+            revision.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Intervention findIn(String partition, Long id) {
+        for (Intervention i : load(partition)) {
+            if (id.equals(i.getId())) {
+                return i;
+            }
+        }
+        return null;
+    }
+
+    private List<Intervention> load(String partition) {
+        List<Intervention> items = storage.load(filename(partition), Intervention[].class);
+        touch(partition);
+        return items;
+    }
+
+    private void write(String partition, List<Intervention> items) {
+        String filename = filename(partition);
+        unwritten.add(partition);
+        storage.save(filename, items, () -> {
+            unwritten.remove(partition);
+            // Écrite après être sortie des partitions chaudes : plus besoin de la garder
+            if (!resident.contains(partition)) {
+                storage.evict(filename);
+            }
+        });
+        known().add(partition);
+        touch(partition);
+    }
+
+    /** Marque la partition comme récemment utilisée et libère les plus anciennes. */
+    private void touch(String partition) {
+        synchronized (hot) {
+            hot.put(partition, Boolean.TRUE);
+            resident.add(partition);
+            Iterator<String> eldest = hot.keySet().iterator();
+            while (hot.size() > HOT_PARTITIONS) {
+                String cold = eldest.next();
+                eldest.remove();
+                resident.remove(cold);
+                storage.evict(filename(cold));
+            }
+        }
+    }
+
+    /** Partitions présentes ; la liste n'est relue que si le répertoire a changé. */
+    private Set<String> known() {
+        Set<String> current = known;
+        if (current == null) {
+            synchronized (this) {
+                if (known == null) {
+                    listed = lastModified(directory);
+                    known = list();
+                }
+                current = known;
+            }
+        }
+        return current;
+    }
+
+    /** Partition ajoutée ou supprimée hors de l'application : la liste est relue. */
+    private void relistIfChanged() {
+        Set<String> current = known();
+        FileTime modified = lastModified(directory);
+        if (Objects.equals(modified, listed)) {
+            return;
+        }
+        synchronized (this) {
+            if (known != current) {
+                return;
+            }
+            Set<String> fresh = list();
+            fresh.addAll(unwritten); // pas encore sur disque
+            listed = modified;
+            if (!fresh.equals(current)) {
+                known = fresh;
+                revision.incrementAndGet();
+            }
+        }
+    }
+
+    private Set<String> list() {
+        Set<String> partitions = new ConcurrentSkipListSet<>();
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> list = Files.list(directory)) {
+                list.map(f -> f.getFileName().toString())
+                        .filter(name -> name.endsWith(suffix))
+                        .map(name -> name.substring(0, name.length() - suffix.length()))
+                        .filter(name -> name.matches("\\d{4}-\\d{2}") || name.equals(UNDATED))
+                        .forEach(partitions::add);
+            } catch (IOException e) {
+                System.err.println("Erreur lors de la lecture des partitions d'interventions: " + e.getMessage());
+            }
+        }
+        return partitions;
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Map<Long, String> locations() {
+        Map<Long, String> current = locations;
+        if (current == null) {
+            synchronized (this) {
+                if (locations == null) {
+                    List<Location> saved = Files.exists(directory.resolve(PENDING_MARKER))
+                            ? List.of()
+                            : storage.load(INDEX_FILE, Location[].class);
+                    if (saved.isEmpty() && !known().isEmpty()) {
+                        rebuildLocations();
+                    } else {
+                        Map<Long, String> index = new HashMap<>();
+                        for (Location l : saved) {
+                            index.put(l.id(), l.partition());
+                        }
+                        locations = index;
+                    }
+                }
+                current = locations;
+            }
+        }
+        return current;
+    }
+
+    private void rebuildLocations() {
+        Map<Long, String> index = new HashMap<>();
+        for (String partition : known()) {
+            for (Intervention i : load(partition)) {
+                if (i.getId() != null) {
+                    index.put(i.getId(), partition);
+                }
+            }
+        }
+        locations = index;
+        writeLocations();
+        System.out.println("Index des interventions reconstruit (" + index.size() + " interventions)");
+    }
+
+    private void writeLocations() {
+        List<Location> list = new ArrayList<>(locations.size());
+        locations.forEach((id, partition) -> list.add(new Location(id, partition)));
+        list.sort(Comparator.comparing(Location::id));
+        Path marker = directory.resolve(PENDING_MARKER);
+        long version;
+        synchronized (markerLock) {
+            version = ++indexVersion;
+            try {
+                if (Files.notExists(marker)) {
+                    Files.createDirectories(directory);
+                    Files.createFile(marker);
+                }
+            } catch (IOException e) {
+                System.err.println("Erreur lors de la création de " + PENDING_MARKER + ": " + e.getMessage());
+            }
+        }
+        storage.save(INDEX_FILE, list, () -> {
+            synchronized (markerLock) {
+                if (version != indexVersion) {
+                    return; // une version plus récente est en attente
+                }
+                try {
+                    Files.deleteIfExists(marker);
+                } catch (IOException e) {
+                    System.err.println("Erreur lors de la suppression de " + PENDING_MARKER + ": " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    private Path path(String name) {
+        return directory.resolve(name + suffix);
+    }
+}
@@ -18,9 +18,10 @@ public class InvoiceServiceMock implements InvoiceService {
     private final List<Invoice> cache;
 
     public InvoiceServiceMock(Path dataDir, SequenceService sequenceService) {
-        this.store = new JsonStore<>(dataDir.resolve("invoices.json"), Invoice[].class);
+        this.store = new JsonStore<>(dataDir.resolve("invoices.json"), Invoice[].class, Invoice::getId);
         this.sequenceService = sequenceService;
         this.cache = store.load();
+        sequenceService.reconcile(DocumentType.INVOICE, cache.stream().map(Invoice::getNumber).toList());
         if (this.cache.isEmpty()) {
             Invoice sample = new Invoice();
             sample.setCustomerId(UUID.randomUUID());
@@ -33,6 +34,13 @@ public class InvoiceServiceMock implements InvoiceService {
         }
     }
 
+    /** Relit le fichier après une restauration des données. */
+    public void reload() {
+        cache.clear();
+        cache.addAll(store.load());
+        sequenceService.reconcile(DocumentType.INVOICE, cache.stream().map(Invoice::getNumber).toList());
+    }
+
     @Override
     public List<Invoice> list() { return new ArrayList<>(cache); }
 
@@ -45,23 +53,23 @@ public class InvoiceServiceMock implements InvoiceService {
         if (invoice.getNumber() == null) invoice.setNumber(generateNumber(invoice.getDate()));
         invoice.recalcTotals();
         cache.add(invoice);
-        store.save(cache);
+        store.put(invoice);
         return invoice;
     }
 
     @Override
     public Invoice update(Invoice invoice) {
-        delete(invoice.getId());
+        cache.removeIf(o -> o.getId().equals(invoice.getId()));
         invoice.recalcTotals();
         cache.add(invoice);
-        store.save(cache);
+        store.put(invoice);
         return invoice;
     }
 
     @Override
     public void delete(UUID id) {
         cache.removeIf(o -> o.getId().equals(id));
-        store.save(cache);
+        store.remove(id);
     }
 
     @Override
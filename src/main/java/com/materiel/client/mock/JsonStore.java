@@ -1,37 +1,102 @@
 package com.materiel.client.mock;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.materiel.client.config.AppConfig;
+import com.materiel.client.config.StorageFormat;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 
 /**
  * Stockage générique JSON d'une liste d'objets.
+ * <p>
+ * En mode journalisé (constructeur avec fonction d'identifiant), chaque
+ * mutation est ajoutée à un journal {@code <fichier>.journal} au lieu de
+ * réécrire tout le fichier. Une compaction en tâche de fond replie le journal
+ * dans le snapshot, écrit dans un fichier temporaire puis renommé atomiquement :
+ * un arrêt brutal ne peut donc jamais corrompre le snapshot. Les opérations du
+ * journal sont idempotentes (upsert/suppression par id), rejouer un journal
+ * déjà compacté est sans effet.
+ * <p>
+ * Le snapshot est encodé selon le {@link StorageFormat} choisi (JSON ou Smile,
+ * voir {@link DataFiles}) ; le journal reste en lignes JSON.
  */
 public class JsonStore<T> {
+    /** Nombre d'opérations journalisées au-delà duquel une compaction est planifiée. */
+    static final int COMPACT_THRESHOLD = 256;
+
+    private static final String OP_PUT = "put";
+    private static final String OP_DELETE = "delete";
+
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "json-store-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+
     private final ObjectMapper mapper;
+    private final ObjectMapper snapshotMapper;
+    private final StorageFormat format;
     private final Path file;
+    private Path snapshot;
+    private final Path journal;
     private final Class<T[]> arrayType;
+    private final Class<T> itemType;
+    private final Function<T, ?> idFunction;
+    private int journalSize;
+    private boolean compactionPending;
 
     public JsonStore(Path file, Class<T[]> arrayType) {
+        this(file, arrayType, null);
+    }
+
+    /**
+     * Crée un store journalisé : {@link #put(Object)} et {@link #remove(Object)}
+     * coûtent O(taille de la modification) au lieu de O(taille du fichier).
+     */
+    public JsonStore(Path file, Class<T[]> arrayType, Function<T, ?> idFunction) {
+        this(file, arrayType, idFunction, AppConfig.getInstance().getStorageFormat());
+    }
+
+    @SuppressWarnings("unchecked")
+    public JsonStore(Path file, Class<T[]> arrayType, Function<T, ?> idFunction, StorageFormat format) {
         this.file = file;
+        this.format = format;
+        this.snapshotMapper = DataFiles.mapper(format);
+        this.journal = file.resolveSibling(file.getFileName() + ".journal");
         this.arrayType = arrayType;
-        this.mapper = new ObjectMapper();
-        this.mapper.registerModule(new JavaTimeModule());
+        this.itemType = (Class<T>) arrayType.getComponentType();
+        this.idFunction = idFunction;
+        this.mapper = DataFiles.mapper(StorageFormat.JSON);
     }
 
     public synchronized List<T> load() {
         try {
-            if (Files.notExists(file)) {
-                return new ArrayList<>();
+            List<T> snapshot = readSnapshot();
+            if (idFunction == null || Files.notExists(journal)) {
+                return snapshot;
             }
-            T[] arr = mapper.readValue(file.toFile(), arrayType);
-            return new ArrayList<>(Arrays.asList(arr));
+            Map<String, T> byId = new LinkedHashMap<>();
+            for (T item : snapshot) {
+                byId.put(key(idFunction.apply(item)), item);
+            }
+            journalSize = replayJournal(byId);
+            return new ArrayList<>(byId.values());
         } catch (IOException e) {
             throw new RuntimeException("Erreur de lecture JSON", e);
         }
@@ -39,10 +104,141 @@ public class JsonStore<T> {
 
     public synchronized void save(List<T> data) {
         try {
-            Files.createDirectories(file.getParent());
-            mapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), data);
+            writeSnapshot(data);
+            if (idFunction != null) {
+                Files.deleteIfExists(journal);
+                journalSize = 0;
+            }
         } catch (IOException e) {
             throw new RuntimeException("Erreur d'écriture JSON", e);
         }
     }
+
+    /** Ajoute ou remplace un élément (mode journalisé). */
+    public synchronized void put(T item) {
+        ObjectNode entry = mapper.createObjectNode();
+        entry.put("op", OP_PUT);
+        entry.set("data", mapper.valueToTree(item));
+        append(entry);
+    }
+
+    /** Supprime l'élément portant cet identifiant (mode journalisé). */
+    public synchronized void remove(Object id) {
+        ObjectNode entry = mapper.createObjectNode();
+        entry.put("op", OP_DELETE);
+        entry.put("id", key(id));
+        append(entry);
+    }
+
+    /** Exporte le contenu courant (snapshot + journal) en JSON indenté, pour le débogage. */
+    public synchronized void exportJson(Path target) {
+        try {
+            DataFiles.write(mapper, StorageFormat.JSON, target, load());
+        } catch (IOException e) {
+            throw new RuntimeException("Erreur d'export JSON", e);
+        }
+    }
+
+    /** Replie immédiatement le journal dans le snapshot. */
+    public synchronized void compact() {
+        compactionPending = false;
+        if (idFunction == null || Files.notExists(journal)) {
+            return;
+        }
+        save(load());
+    }
+
+    private void append(ObjectNode entry) {
+        if (idFunction == null) {
+            throw new IllegalStateException("Store non journalisé : utiliser save()");
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            byte[] line = (mapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+            Files.write(journal, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new RuntimeException("Erreur d'écriture du journal JSON", e);
+        }
+        if (++journalSize >= COMPACT_THRESHOLD && !compactionPending) {
+            compactionPending = true;
+            COMPACTOR.execute(this::compact);
+        }
+    }
+
+    /** Fichier du snapshot dans le format choisi (converti au premier accès si besoin). */
+    private Path snapshotFile() throws IOException {
+        if (snapshot == null) {
+            snapshot = DataFiles.migrate(file, format);
+        }
+        return snapshot;
+    }
+
+    private List<T> readSnapshot() throws IOException {
+        Path path = snapshotFile();
+        if (Files.notExists(path)) {
+            return new ArrayList<>();
+        }
+        T[] arr = snapshotMapper.readValue(path.toFile(), arrayType);
+        return new ArrayList<>(Arrays.asList(arr));
+    }
+
+    private void writeSnapshot(List<T> data) throws IOException {
+        DataFiles.write(snapshotMapper, format, snapshotFile(), data);
+    }
+
+    /**
+     * Rejoue le journal ligne par ligne. Une ligne illisible ou sans fin de
+     * ligne ne peut venir que d'un arrêt brutal pendant un ajout : le journal
+     * est tronqué juste avant, sinon l'ajout suivant serait collé à ce
+     * fragment et perdu au prochain rejeu.
+     */
+    private int replayJournal(Map<String, T> byId) throws IOException {
+        byte[] bytes = Files.readAllBytes(journal);
+        int count = 0;
+        int complete = 0; // fin de la dernière ligne valide, fin de ligne comprise
+        while (complete < bytes.length) {
+            int end = indexOf(bytes, (byte) '\n', complete);
+            if (end < 0) {
+                break;
+            }
+            String line = new String(bytes, complete, end - complete, StandardCharsets.UTF_8);
+            if (!line.isBlank()) {
+                JsonNode entry;
+                try {
+                    entry = mapper.readTree(line);
+                } catch (IOException e) {
+                    break;
+                }
+                if (OP_PUT.equals(entry.path("op").asText())) {
+                    T item = mapper.treeToValue(entry.get("data"), itemType);
+                    byId.put(key(idFunction.apply(item)), item);
+                } else if (OP_DELETE.equals(entry.path("op").asText())) {
+                    byId.remove(entry.path("id").asText());
+                }
+                count++;
+            }
+            complete = end + 1;
+        }
+        if (complete < bytes.length) {
+            try (FileChannel ch = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+                ch.truncate(complete);
+            }
+            System.err.println("Journal " + journal.getFileName() + " tronqué : "
+                    + (bytes.length - complete) + " octets incomplets ignorés");
+        }
+        return count;
+    }
+
+    private static int indexOf(byte[] bytes, byte value, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String key(Object id) {
+        return Objects.toString(id);
+    }
 }
@@ -1,69 +1,267 @@
 // MockDataManager.java
 package com.materiel.client.mock;
 
+import com.materiel.client.controller.EventBus;
+import com.materiel.client.controller.events.DataRestoredEvent;
+import com.materiel.client.controller.events.StorageErrorEvent;
 import com.materiel.client.model.Resource;
 import com.materiel.client.model.Intervention;
 import com.materiel.client.model.Client;
 import com.materiel.client.model.Devis;
+import com.materiel.client.model.Commande;
+import com.materiel.client.model.BonLivraison;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.materiel.client.mock.RecordMigrationEngine.RecordMigration;
+import com.materiel.client.config.AppConfig;
+import com.materiel.client.config.StorageFormat;
 
 import java.io.*;
 import java.nio.file.*;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 
 /**
- * Gestionnaire des données Mock persistées en JSON
+ * Gestionnaire des données Mock persistées en JSON.
+ * <p>
+ * Utilisable depuis plusieurs threads : les lectures sont servies sans verrou
+ * depuis des instantanés immuables du cache (chaque appelant reçoit sa propre
+ * copie de liste) et les écritures publient un nouvel instantané avant
+ * l'écriture différée du fichier. Les services Mock sérialisent leurs
+ * lecture-modification-écriture.
  */
 public class MockDataManager {
     
-    private static MockDataManager instance;
     private final ObjectMapper objectMapper;
+    /** Copie des clients et ressources hors du registre des références partagées. */
+    private final ObjectMapper plainMapper = DataFiles.plainMapper(StorageFormat.JSON);
+    private final StorageFormat storageFormat;
+    private final Map<String, Path> dataFiles = new ConcurrentHashMap<>();
     private final Path dataDirectory;
+    private final InterventionPartitions interventionPartitions;
+    private final EntityCache cache = new EntityCache();
+    private final ReferencePool referencePool = ReferencePool.getInstance();
+    private final WriteBehindWriter writer;
+    private final BackupStore backupStore;
     
     private static final String RESOURCES_FILE = "resources.json";
+    /** Ancien fichier unique des interventions, découpé en partitions mensuelles au démarrage. */
     private static final String INTERVENTIONS_FILE = "interventions.json";
     private static final String CLIENTS_FILE = "clients.json";
     private static final String DEVIS_FILE = "devis.json";
+    private static final String COMMANDES_FILE = "commandes.json";
+    private static final String BONS_LIVRAISON_FILE = "bons-livraison.json";
+    
+    /** Fichiers dont les documents référencent un document amont par son id. */
+    static final List<String> CHAINED_DOCUMENT_FILES = List.of(COMMANDES_FILE, BONS_LIVRAISON_FILE);
+    
+    /** Versions de schéma atteintes par chaque fichier. */
+    private static final String SCHEMA_FILE = "schema.json";
+    
+    /** Type des enregistrements de chaque fichier, pour la validation lors des réparations. */
+    private static final Map<String, Class<?>> RECORD_TYPES = new LinkedHashMap<>();
+    
+    /** Migrations de chaque fichier, dans l'ordre : la version N applique les N premières. */
+    private static final Map<String, List<RecordMigration>> MIGRATIONS = new LinkedHashMap<>();
+    
+    static {
+        RECORD_TYPES.put(RESOURCES_FILE, Resource.class);
+        RECORD_TYPES.put(CLIENTS_FILE, Client.class);
+        RECORD_TYPES.put(INTERVENTIONS_FILE, Intervention.class);
+        RECORD_TYPES.put(DEVIS_FILE, Devis.class);
+        RECORD_TYPES.put(COMMANDES_FILE, Commande.class);
+        RECORD_TYPES.put(BONS_LIVRAISON_FILE, BonLivraison.class);
+        
+        MIGRATIONS.put(INTERVENTIONS_FILE, List.of(MockDataManager::dropDerivedHours));
+        MIGRATIONS.put(COMMANDES_FILE, List.of(DocumentChainMigrator::normalize));
+        MIGRATIONS.put(BONS_LIVRAISON_FILE, List.of(DocumentChainMigrator::normalize));
+    }
     
     private MockDataManager() {
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
+        this.storageFormat = AppConfig.getInstance().getStorageFormat();
+        this.objectMapper = DataFiles.mapper(storageFormat);
+        this.writer = new WriteBehindWriter(AppConfig.getInstance().getWriteDelayMillis());
+        Runtime.getRuntime().addShutdownHook(new Thread(writer::close, "mock-write-flush"));
         
         // Répertoire de données dans le dossier utilisateur
         this.dataDirectory = Paths.get(System.getProperty("user.home"), ".gestion-materiel", "data");
+        this.interventionPartitions = new InterventionPartitions(
+                dataDirectory.resolve(InterventionPartitions.DIRECTORY), storageFormat, new PartitionStorage());
+        AppConfig config = AppConfig.getInstance();
+        this.backupStore = new BackupStore(dataDirectory, dataDirectory.getParent().resolve("backups"),
+                config.getBackupMaxBytesPerSecond(), config.getBackupKeep());
         
         try {
             Files.createDirectories(dataDirectory);
+            migrateStores();
+            partitionLegacyInterventions();
             initializeDefaultData();
+            backupStore.start(Duration.ofMinutes(config.getBackupIntervalMinutes()), writer::flush);
         } catch (IOException e) {
             throw new RuntimeException("Impossible d'initialiser le répertoire de données", e);
         }
     }
     
+    /** Initialisation paresseuse thread-safe (classe holder), sans verrou à la lecture. */
+    private static final class Holder {
+        static final MockDataManager INSTANCE = new MockDataManager();
+    }
+    
     public static MockDataManager getInstance() {
-        if (instance == null) {
-            instance = new MockDataManager();
+        return Holder.INSTANCE;
+    }
+    
+    /**
+     * Amène chaque fichier à la dernière version de schéma, en une passe par
+     * enregistrement, puis mémorise la version atteinte.
+     */
+    private void migrateStores() {
+        Path schemaFile = dataDirectory.resolve(SCHEMA_FILE);
+        ObjectMapper json = DataFiles.plainMapper(StorageFormat.JSON);
+        Map<String, Integer> versions = new TreeMap<>();
+        try {
+            if (Files.exists(schemaFile)) {
+                versions.putAll(json.readValue(schemaFile.toFile(), new TypeReference<Map<String, Integer>>() {}));
+            }
+        } catch (IOException e) {
+            System.err.println("Versions de schéma illisibles, migrations rejouées : " + e.getMessage());
+        }
+        RecordMigrationEngine engine = new RecordMigrationEngine(storageFormat);
+        boolean updated = false;
+        for (Map.Entry<String, List<RecordMigration>> entry : MIGRATIONS.entrySet()) {
+            String filename = entry.getKey();
+            List<RecordMigration> steps = entry.getValue();
+            int version = Math.min(versions.getOrDefault(filename, 0), steps.size());
+            if (version == steps.size()) continue;
+            try {
+                for (String file : storeFiles(filename)) {
+                    engine.run(dataFile(file), RECORD_TYPES.get(filename), steps.subList(version, steps.size()));
+                }
+                versions.put(filename, steps.size());
+                updated = true;
+            } catch (IOException e) {
+                System.err.println("Erreur lors de la migration de " + filename + ": " + e.getMessage());
+            }
+        }
+        if (updated) {
+            try {
+                DataFiles.write(json, StorageFormat.JSON, schemaFile, versions);
+            } catch (IOException e) {
+                System.err.println("Erreur lors de l'écriture de " + SCHEMA_FILE + ": " + e.getMessage());
+            }
+        }
+    }
+    
+    /** Fichiers d'un store : pour les interventions, l'ancien fichier unique et chaque partition. */
+    private List<String> storeFiles(String filename) {
+        if (!filename.equals(INTERVENTIONS_FILE)) {
+            return List.of(filename);
+        }
+        List<String> files = new ArrayList<>();
+        files.add(INTERVENTIONS_FILE);
+        files.addAll(interventionPartitions.filenames());
+        return files;
+    }
+    
+    /**
+     * Découpe l'ancien fichier unique des interventions en partitions
+     * mensuelles, puis le met de côté ({@code interventions.json.partitioned}).
+     * Rejoué après une restauration antérieure au découpage.
+     */
+    private void partitionLegacyInterventions() throws IOException {
+        Path legacy = dataFile(INTERVENTIONS_FILE);
+        if (Files.notExists(legacy)) {
+            return;
+        }
+        List<Intervention> interventions = loadFromFile(INTERVENTIONS_FILE, Intervention[].class);
+        saveInterventions(interventions);
+        writer.flush();
+        cache.invalidate(legacy);
+        Files.move(legacy, legacy.resolveSibling(legacy.getFileName() + ".partitioned"),
+                StandardCopyOption.REPLACE_EXISTING);
+        Files.deleteIfExists(legacy.resolveSibling(legacy.getFileName() + ".idx"));
+        System.out.println(INTERVENTIONS_FILE + " découpé en " + interventionPartitions.getPartitionCount()
+                + " partition(s) mensuelle(s)");
+    }
+    
+    /** v1 des interventions : heureDebut/heureFin, dérivées de dateDebut/dateFin, ne sont plus stockées. */
+    private static boolean dropDerivedHours(ObjectNode record) {
+        boolean changed = record.remove("heureDebut") != null;
+        return record.remove("heureFin") != null || changed;
+    }
+    
+    /**
+     * Répare un fichier : chaque enregistrement passe par toutes les
+     * migrations (idempotentes) et les enregistrements invalides sont mis en
+     * quarantaine au lieu d'effacer le fichier.
+     *
+     * @return true si le fichier a été réécrit
+     */
+    private boolean repairStore(String filename) {
+        // Une partition (ou son index) se répare comme le store des interventions
+        String store = filename.startsWith(InterventionPartitions.DIRECTORY + "/") ? INTERVENTIONS_FILE : filename;
+        Class<?> type = filename.equals(InterventionPartitions.INDEX_FILE)
+                ? InterventionPartitions.Location.class
+                : RECORD_TYPES.get(store);
+        if (type == null) {
+            return false;
+        }
+        List<RecordMigration> steps = type == InterventionPartitions.Location.class
+                ? List.of()
+                : MIGRATIONS.getOrDefault(store, List.of());
+        writer.flush();
+        RecordMigrationEngine engine = new RecordMigrationEngine(storageFormat);
+        boolean changed = false;
+        for (String file : store.equals(filename) ? storeFiles(store) : List.of(filename)) {
+            try {
+                RecordMigrationEngine.Report report = engine.run(dataFile(file), type, steps);
+                if (report.changed()) {
+                    cache.invalidate(dataFile(file));
+                    changed = true;
+                }
+            } catch (IOException e) {
+                System.err.println("Erreur lors de la réparation de " + file + ": " + e.getMessage());
+            }
+        }
+        if (changed && store.equals(INTERVENTIONS_FILE)) {
+            interventionPartitions.reset();
+        }
+        return changed;
+    }
+    
+    /** Répare tous les fichiers de données (voir {@link #repairStore}). */
+    public void repairAllStores() {
+        for (String filename : RECORD_TYPES.keySet()) {
+            repairStore(filename);
         }
-        return instance;
     }
     
     private void initializeDefaultData() {
         // Initialiser avec des données par défaut si les fichiers n'existent pas
-        if (!Files.exists(dataDirectory.resolve(RESOURCES_FILE))) {
+        if (!Files.exists(dataFile(RESOURCES_FILE))) {
             saveResources(createDefaultResources());
         }
-        if (!Files.exists(dataDirectory.resolve(CLIENTS_FILE))) {
+        if (!Files.exists(dataFile(CLIENTS_FILE))) {
             saveClients(createDefaultClients());
         }
-        if (!Files.exists(dataDirectory.resolve(INTERVENTIONS_FILE))) {
+        if (!interventionPartitions.exists()) {
             saveInterventions(createDefaultInterventions());
         }
-        if (!Files.exists(dataDirectory.resolve(DEVIS_FILE))) {
+        if (!Files.exists(dataFile(DEVIS_FILE))) {
             saveDevis(createDefaultDevis());
         }
     }
@@ -273,15 +471,83 @@ public class MockDataManager {
     }
     
     public void saveResources(List<Resource> resources) {
-        saveToFile(RESOURCES_FILE, resources);
+        saveToFile(RESOURCES_FILE, referencePool.updateResources(resources));
     }
     
+    /** Toutes les interventions (lit chaque partition mensuelle). */
     public List<Intervention> getInterventions() {
-        return loadFromFile(INTERVENTIONS_FILE, Intervention[].class);
+        return interventionPartitions.all();
     }
     
+    /** Remplace toutes les interventions : chaque partition est réécrite. */
     public void saveInterventions(List<Intervention> interventions) {
-        saveToFile(INTERVENTIONS_FILE, interventions);
+        interventions.forEach(this::internReferences);
+        interventionPartitions.replaceAll(interventions);
+    }
+    
+    /**
+     * Enregistre une intervention (id attribué si nouvelle) ; seule sa
+     * partition mensuelle est réécrite.
+     */
+    public void saveIntervention(Intervention intervention) {
+        internReferences(intervention);
+        interventionPartitions.save(intervention);
+    }
+    
+    public void deleteIntervention(Long id) {
+        interventionPartitions.delete(id);
+    }
+    
+    /** Intervention par id, en ne lisant que sa partition. */
+    public Intervention getIntervention(Long id) {
+        return interventionPartitions.find(id);
+    }
+    
+    private void internReferences(Intervention intervention) {
+        intervention.setClient(referencePool.intern(intervention.getClient()));
+        if (intervention.getRessources() != null) {
+            List<Resource> ressources = new ArrayList<>(intervention.getRessources().size());
+            for (Resource r : intervention.getRessources()) {
+                ressources.add(referencePool.intern(r));
+            }
+            intervention.setRessources(ressources);
+        }
+    }
+    
+    /**
+     * Interventions dont le jour de début est dans la période (bornes incluses).
+     * Seules les partitions des mois couverts sont lues.
+     */
+    public List<Intervention> getInterventionsInRange(LocalDate startDate, LocalDate endDate) {
+        return interventionPartitions.range(startDate, endDate);
+    }
+    
+    /** Partitions mensuelles des interventions, dans l'ordre chronologique (« sans-date » en dernier). */
+    public List<String> getInterventionPartitions() {
+        return interventionPartitions.partitions();
+    }
+    
+    /** Partitions mensuelles des interventions qui couvrent la période (bornes incluses). */
+    public List<String> getInterventionPartitions(LocalDate startDate, LocalDate endDate) {
+        return interventionPartitions.partitions(startDate, endDate);
+    }
+    
+    /** Interventions d'une partition mensuelle (seule celle-ci est lue). */
+    public List<Intervention> getInterventionPartition(String partition) {
+        return interventionPartitions.partition(partition);
+    }
+    
+    /** Révision d'une partition : permet de savoir si un index construit dessus est périmé. */
+    public long getInterventionPartitionRevision(String partition) {
+        return interventionPartitions.revision(partition);
+    }
+    
+    /**
+     * Révision courante des interventions (change à chaque écriture, réparation,
+     * restauration ou modification externe d'une partition)
+     */
+    public long getInterventionsRevision() {
+        return interventionPartitions.revision();
     }
     
     public List<Client> getClients() {
@@ -289,7 +555,7 @@ public class MockDataManager {
     }
     
     public void saveClients(List<Client> clients) {
-        saveToFile(CLIENTS_FILE, clients);
+        saveToFile(CLIENTS_FILE, referencePool.updateClients(clients));
     }
     
     public List<Devis> getDevis() {
@@ -297,27 +563,77 @@ public class MockDataManager {
     }
     
     public void saveDevis(List<Devis> devis) {
+        for (Devis d : devis) {
+            d.setClient(referencePool.intern(d.getClient()));
+        }
         saveToFile(DEVIS_FILE, devis);
     }
     
+    public List<Commande> getCommandes() {
+        return loadFromFile(COMMANDES_FILE, Commande[].class);
+    }
+    
+    public void saveCommandes(List<Commande> commandes) {
+        for (Commande c : commandes) {
+            c.setClient(referencePool.intern(c.getClient()));
+        }
+        saveToFile(COMMANDES_FILE, commandes);
+    }
+    
+    public List<BonLivraison> getBonsLivraison() {
+        return loadFromFile(BONS_LIVRAISON_FILE, BonLivraison[].class);
+    }
+    
+    public void saveBonsLivraison(List<BonLivraison> bonsLivraison) {
+        for (BonLivraison bl : bonsLivraison) {
+            bl.setClient(referencePool.intern(bl.getClient()));
+        }
+        saveToFile(BONS_LIVRAISON_FILE, bonsLivraison);
+    }
+    
+    /**
+     * Fichier réel d'un store (extension selon le format configuré), converti
+     * depuis l'autre format au premier accès si besoin.
+     */
+    private Path dataFile(String filename) {
+        return dataFiles.computeIfAbsent(filename, name -> {
+            Path logical = dataDirectory.resolve(name);
+            try {
+                return DataFiles.migrate(logical, storageFormat);
+            } catch (IOException e) {
+                System.err.println("Erreur lors de la conversion de " + name + ": " + e.getMessage());
+                return DataFiles.resolve(logical, storageFormat);
+            }
+        });
+    }
+
     private <T> List<T> loadFromFile(String filename, Class<T[]> arrayClass) {
-        Path filePath = dataDirectory.resolve(filename);
+        return loadFromFile(filename, arrayClass, false);
+    }
+    
+    private <T> List<T> loadFromFile(String filename, Class<T[]> arrayClass, boolean repaired) {
+        Path filePath = dataFile(filename);
+        
+        List<T> cached = cache.get(filePath);
+        if (cached != null) {
+            return cached;
+        }
         
         try {
             if (Files.exists(filePath)) {
                 byte[] data = Files.readAllBytes(filePath);
                 if (data.length > 0) {
                     T[] array = objectMapper.readValue(data, arrayClass);
-                    return new ArrayList<>(Arrays.asList(array));
+                    List<T> list = new ArrayList<>(Arrays.asList(array));
+                    return new ArrayList<>(cache.put(filePath, list));
                 }
             }
-        } catch (com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException e) {
-            System.err.println("Données corrompues détectées dans " + filename + ": " + e.getMessage());
+        } catch (JsonProcessingException e) {
+            System.err.println("Données corrompues détectées dans " + filename + ": " + e.getOriginalMessage());
             
-            // Proposer automatiquement la réparation
-            if (handleCorruptedData(filename)) {
-                // Réessayer après réparation
-                return loadFromFile(filename, arrayClass);
+            // Réparation enregistrement par enregistrement, puis nouvel essai
+            if (!repaired && repairStore(filename)) {
+                return loadFromFile(filename, arrayClass, true);
             }
         } catch (IOException e) {
             System.err.println("Erreur lors du chargement de " + filename + ": " + e.getMessage());
@@ -327,77 +643,134 @@ public class MockDataManager {
         return new ArrayList<>();
     }
     
+    private <T> void saveToFile(String filename, List<T> data) {
+        saveToFile(filename, data, null);
+    }
+    
     /**
-     * Gère les données corrompues
+     * Le cache est mis à jour immédiatement ; l'écriture du fichier est
+     * différée et regroupée avec les suivantes par le {@link WriteBehindWriter}.
+     * Les objets de l'appelant sont copiés avant d'entrer dans le cache : il
+     * peut encore les modifier.
      */
-    private boolean handleCorruptedData(String filename) {
-        try {
-            System.out.println("🔧 Tentative de réparation automatique pour " + filename);
-            
-            // Créer une sauvegarde avant réparation
-            Path corruptedFile = dataDirectory.resolve(filename);
-            Path backupFile = dataDirectory.resolve(filename + ".corrupted." + System.currentTimeMillis());
-            
-            if (Files.exists(corruptedFile)) {
-                Files.copy(corruptedFile, backupFile);
-                System.out.println("Sauvegarde créée: " + backupFile.getFileName());
-                
-                // Supprimer le fichier corrompu
-                Files.delete(corruptedFile);
-                System.out.println("Fichier corrompu supprimé: " + filename);
-                
-                // Recréer les données par défaut
-                if (filename.equals(INTERVENTIONS_FILE)) {
-                    saveInterventions(createDefaultInterventions());
-                } else if (filename.equals(RESOURCES_FILE)) {
-                    saveResources(createDefaultResources());
-                } else if (filename.equals(CLIENTS_FILE)) {
-                    saveClients(createDefaultClients());
-                } else if (filename.equals(DEVIS_FILE)) {
-                    saveDevis(createDefaultDevis());
-                }
-                
-                System.out.println("✅ Données par défaut recréées pour " + filename);
-                return true;
+    private <T> void saveToFile(String filename, List<T> data, Runnable afterWrite) {
+        Path filePath = dataFile(filename);
+        List<T> snapshot = cache.putPending(filePath, detach(filePath, data));
+        writer.submit(filePath, out -> DataFiles.write(objectMapper, storageFormat, out, snapshot), written -> {
+            cache.written(written, snapshot);
+            if (afterWrite != null) {
+                afterWrite.run();
             }
-            
-        } catch (IOException e) {
-            System.err.println("Erreur lors de la réparation de " + filename + ": " + e.getMessage());
-        }
-        
-        return false;
+            System.out.println("Données sauvegardées : " + filename + " (" + snapshot.size() + " éléments)");
+        }, error -> {
+            // Les modifications non écrites sont perdues : on revient au contenu du disque
+            cache.failed(filePath, snapshot);
+            EventBus.getInstance().publish(new StorageErrorEvent(filename, error.getMessage()));
+        });
     }
     
-    private <T> void saveToFile(String filename, List<T> data) {
-        Path filePath = dataDirectory.resolve(filename);
-        
+    /**
+     * Copie profonde d'une entité, à modifier puis enregistrer sans toucher
+     * l'instance lue. Les clients et ressources qu'elle référence restent les
+     * instances partagées du {@link ReferencePool} ; un record, immuable, est
+     * retourné tel quel.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T copyOf(T entity) {
+        if (entity == null || entity instanceof Record) {
+            return entity;
+        }
+        ObjectMapper mapper = entity instanceof Client || entity instanceof Resource ? plainMapper : objectMapper;
         try {
-            byte[] jsonData = objectMapper.writerWithDefaultPrettyPrinter()
-                                        .writeValueAsBytes(data);
-            Files.write(filePath, jsonData, StandardOpenOption.CREATE, 
-                       StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
-            
-            System.out.println("Données sauvegardées : " + filename + " (" + data.size() + " éléments)");
-        } catch (IOException e) {
-            System.err.println("Erreur lors de la sauvegarde de " + filename + ": " + e.getMessage());
-            e.printStackTrace();
+            return (T) mapper.treeToValue(mapper.valueToTree(entity), entity.getClass());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Copie impossible de " + entity.getClass().getSimpleName(), e);
+        }
+    }
+    
+    /**
+     * Copie les éléments que l'appelant possède encore. Ceux qui viennent du
+     * cache, partagés et en lecture seule, sont repris tels quels : une
+     * écriture ne copie que les entités créées ou modifiées.
+     */
+    private <T> List<T> detach(Path filePath, List<T> data) {
+        Set<Object> shared = Collections.newSetFromMap(new IdentityHashMap<>());
+        shared.addAll(cache.peek(filePath));
+        List<T> result = new ArrayList<>(data.size());
+        for (T item : data) {
+            result.add(shared.contains(item) ? item : copyOf(item));
         }
+        return result;
+    }
+    
+    /** Attend que toutes les écritures différées soient sur disque. */
+    public void flushPendingWrites() {
+        writer.flush();
+    }
+    
+    /** Nombre de fichiers dont l'écriture est encore en attente. */
+    public int getPendingWriteCount() {
+        return writer.getQueueDepth();
     }
     
     public Path getDataDirectory() {
         return dataDirectory;
     }
     
+    /**
+     * Cache mémoire des fichiers de données (compteurs hits/misses inclus)
+     */
+    public EntityCache getCache() {
+        return cache;
+    }
+    
+    /**
+     * Exporte les données en JSON indenté dans {@code targetDir}, quel que soit
+     * le format de stockage (débogage).
+     */
+    public void exportJson(Path targetDir) {
+        writer.flush();
+        // Tous les stores de RECORD_TYPES ; les interventions sont dans leurs partitions
+        List<String> filenames = new ArrayList<>();
+        for (String filename : RECORD_TYPES.keySet()) {
+            if (filename.equals(INTERVENTIONS_FILE)) {
+                filenames.addAll(interventionPartitions.filenames());
+            } else {
+                filenames.add(filename);
+            }
+        }
+        for (String filename : filenames) {
+            Path source = dataFile(filename);
+            if (!Files.exists(source)) continue;
+            try {
+                DataFiles.exportJson(source, storageFormat, targetDir.resolve(filename));
+            } catch (IOException e) {
+                System.err.println("Erreur lors de l'export de " + filename + ": " + e.getMessage());
+            }
+        }
+        System.out.println("Export JSON créé dans : " + targetDir);
+    }
+
     /**
      * Réinitialise toutes les données avec les valeurs par défaut
      */
     public void resetAllData() {
+        writer.flush();
         try {
             // Supprimer tous les fichiers existants
-            Files.deleteIfExists(dataDirectory.resolve(RESOURCES_FILE));
-            Files.deleteIfExists(dataDirectory.resolve(CLIENTS_FILE));
-            Files.deleteIfExists(dataDirectory.resolve(INTERVENTIONS_FILE));
-            Files.deleteIfExists(dataDirectory.resolve(DEVIS_FILE));
+            Files.deleteIfExists(dataFile(RESOURCES_FILE));
+            Files.deleteIfExists(dataFile(CLIENTS_FILE));
+            Files.deleteIfExists(dataFile(INTERVENTIONS_FILE));
+            for (String partition : interventionPartitions.filenames()) {
+                Files.deleteIfExists(dataFile(partition));
+            }
+            Files.deleteIfExists(dataFile(InterventionPartitions.INDEX_FILE));
+            Files.deleteIfExists(dataFile(DEVIS_FILE));
+            Files.deleteIfExists(dataFile(COMMANDES_FILE));
+            Files.deleteIfExists(dataFile(BONS_LIVRAISON_FILE));
+            cache.invalidateAll();
+            interventionPartitions.reset();
+            referencePool.clear();
             
             // Recréer avec les données par défaut
             initializeDefaultData();
@@ -409,24 +782,49 @@ public class MockDataManager {
     }
     
     /**
-     * Sauvegarde de sauvegarde de toutes les données
+     * Sauvegarde incrémentale de tout le répertoire de données (y compris
+     * devis/commandes/factures du mode documents et séquences)
      */
     public void backupAllData() {
+        writer.flush();
         try {
-            Path backupDir = dataDirectory.getParent().resolve("backup-" + LocalDate.now());
-            Files.createDirectories(backupDir);
-            
-            Files.copy(dataDirectory.resolve(RESOURCES_FILE), backupDir.resolve(RESOURCES_FILE));
-            Files.copy(dataDirectory.resolve(CLIENTS_FILE), backupDir.resolve(CLIENTS_FILE));
-            Files.copy(dataDirectory.resolve(INTERVENTIONS_FILE), backupDir.resolve(INTERVENTIONS_FILE));
-            Files.copy(dataDirectory.resolve(DEVIS_FILE), backupDir.resolve(DEVIS_FILE));
-            
-            System.out.println("Sauvegarde créée dans : " + backupDir);
+            backupStore.backup();
         } catch (IOException e) {
             System.err.println("Erreur lors de la sauvegarde : " + e.getMessage());
         }
     }
     
+    /**
+     * Restaure l'état des données tel qu'il était à {@code pointInTime}
+     * (dernière sauvegarde antérieure).
+     *
+     * @return false s'il n'existe aucune sauvegarde antérieure
+     */
+    public boolean restoreBackup(Instant pointInTime) {
+        try {
+            BackupStore.Snapshot snapshot = backupStore.snapshotAt(pointInTime);
+            if (snapshot == null) {
+                return false;
+            }
+            writer.flush();
+            backupStore.restore(snapshot, dataDirectory);
+            cache.invalidateAll();
+            interventionPartitions.reset();
+            // L'instantané a pu être pris avant certaines migrations (schema.json restauré lui aussi)
+            migrateStores();
+            partitionLegacyInterventions();
+            EventBus.getInstance().publish(new DataRestoredEvent(snapshot.id()));
+            return true;
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la restauration : " + e.getMessage());
+            return false;
+        }
+    }
+    
+    public BackupStore getBackupStore() {
+        return backupStore;
+    }
+    
     /**
      * Affiche les statistiques des données
      */
@@ -435,8 +833,38 @@ public class MockDataManager {
         System.out.println("Répertoire : " + dataDirectory);
         System.out.println("Ressources : " + getResources().size());
         System.out.println("Clients : " + getClients().size());
-        System.out.println("Interventions : " + getInterventions().size());
+        System.out.println("Interventions : " + getInterventions().size() + " ("
+                + interventionPartitions.getPartitionCount() + " partitions, "
+                + interventionPartitions.getResidentCount() + " en mémoire)");
         System.out.println("Devis : " + getDevis().size());
+        System.out.println("Références partagées : " + referencePool.getClientCount() + " clients, "
+                + referencePool.getResourceCount() + " ressources");
+        System.out.println("Écritures différées : " + writer.getQueueDepth() + " en attente, "
+                + writer.getWriteCount() + " écrites, " + writer.getCoalescedCount() + " regroupées");
+        System.out.println("Cache : " + cache.getHits() + " hits / " + cache.getMisses() + " misses");
         System.out.println("=====================================");
     }
-}
\ No newline at end of file
+    
+    /** Accès des partitions d'interventions au cache et aux écritures différées. */
+    private final class PartitionStorage implements InterventionPartitions.Storage {
+        @Override
+        public <T> List<T> load(String filename, Class<T[]> type) {
+            return loadFromFile(filename, type);
+        }
+        
+        @Override
+        public <T> void save(String filename, List<T> items, Runnable afterWrite) {
+            saveToFile(filename, items, afterWrite);
+        }
+        
+        @Override
+        public void evict(String filename) {
+            cache.evict(dataFile(filename));
+        }
+        
+        @Override
+        public long revision(String filename) {
+            return cache.revision(dataFile(filename));
+        }
+    }
+}
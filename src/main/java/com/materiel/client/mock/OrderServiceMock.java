@@ -18,9 +18,10 @@ public class OrderServiceMock implements OrderService {
     private final List<Order> cache;
 
     public OrderServiceMock(Path dataDir, SequenceService sequenceService) {
-        this.store = new JsonStore<>(dataDir.resolve("orders.json"), Order[].class);
+        this.store = new JsonStore<>(dataDir.resolve("orders.json"), Order[].class, Order::getId);
         this.sequenceService = sequenceService;
         this.cache = store.load();
+        sequenceService.reconcile(DocumentType.ORDER, cache.stream().map(Order::getNumber).toList());
         if (this.cache.isEmpty()) {
             Order sample = new Order();
             sample.setCustomerId(UUID.randomUUID());
@@ -33,6 +34,13 @@ public class OrderServiceMock implements OrderService {
         }
     }
 
+    /** Relit le fichier après une restauration des données. */
+    public void reload() {
+        cache.clear();
+        cache.addAll(store.load());
+        sequenceService.reconcile(DocumentType.ORDER, cache.stream().map(Order::getNumber).toList());
+    }
+
     @Override
     public List<Order> list() { return new ArrayList<>(cache); }
 
@@ -45,23 +53,23 @@ public class OrderServiceMock implements OrderService {
         if (order.getNumber() == null) order.setNumber(generateNumber(order.getDate()));
         order.recalcTotals();
         cache.add(order);
-        store.save(cache);
+        store.put(order);
         return order;
     }
 
     @Override
     public Order update(Order order) {
-        delete(order.getId());
+        cache.removeIf(o -> o.getId().equals(order.getId()));
         order.recalcTotals();
         cache.add(order);
-        store.save(cache);
+        store.put(order);
         return order;
     }
 
     @Override
     public void delete(UUID id) {
         cache.removeIf(o -> o.getId().equals(id));
-        store.save(cache);
+        store.remove(id);
     }
 
     @Override
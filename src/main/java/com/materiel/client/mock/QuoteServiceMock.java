@@ -1,6 +1,7 @@
 package com.materiel.client.mock;
 
 import com.materiel.client.backend.model.Quote;
+import com.materiel.client.service.Page;
 import com.materiel.client.service.QuoteService;
 
 import java.nio.file.Path;
@@ -16,15 +17,38 @@ public class QuoteServiceMock implements QuoteService {
     private final List<Quote> cache;
 
     public QuoteServiceMock(Path dataDir) {
-        this.store = new JsonStore<>(dataDir.resolve("quotes.json"), Quote[].class);
+        this.store = new JsonStore<>(dataDir.resolve("quotes.json"), Quote[].class, Quote::getId);
         this.cache = store.load();
     }
 
+    /** Relit le fichier après une restauration des données. */
+    public void reload() {
+        cache.clear();
+        cache.addAll(store.load());
+    }
+
     @Override
     public List<Quote> list() {
         return new ArrayList<>(cache);
     }
 
+    /** Curseur : position dans la liste, suffisant pour le mode Mock. */
+    @Override
+    public Page<Quote> listPage(String cursor, int limit) {
+        List<Quote> all = list();
+        int from = 0;
+        if (cursor != null) {
+            try {
+                from = Math.max(0, Integer.parseInt(cursor));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Curseur invalide: " + cursor);
+            }
+        }
+        int to = Math.min(all.size(), from + Math.max(1, limit));
+        List<Quote> items = from < to ? new ArrayList<>(all.subList(from, to)) : new ArrayList<>();
+        return new Page<>(items, to < all.size() ? String.valueOf(to) : null);
+    }
+
     @Override
     public Quote get(UUID id) {
         return cache.stream().filter(q -> id.equals(q.getId())).findFirst().orElse(null);
@@ -36,21 +60,21 @@ public class QuoteServiceMock implements QuoteService {
             quote.setId(UUID.randomUUID());
         }
         cache.add(quote);
-        store.save(cache);
+        store.put(quote);
         return quote;
     }
 
     @Override
     public Quote update(Quote quote) {
-        delete(quote.getId());
+        cache.removeIf(q -> quote.getId().equals(q.getId()));
         cache.add(quote);
-        store.save(cache);
+        store.put(quote);
         return quote;
     }
 
     @Override
     public void delete(UUID id) {
         cache.removeIf(q -> id.equals(q.getId()));
-        store.save(cache);
+        store.remove(id);
     }
 }
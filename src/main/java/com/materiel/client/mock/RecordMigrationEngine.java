@@ -0,0 +1,164 @@
+package com.materiel.client.mock;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.materiel.client.config.StorageFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Migration et réparation des fichiers de données, enregistrement par
+ * enregistrement.
+ * <p>
+ * Le tableau est lu au fil du flux de jetons Jackson : chaque enregistrement
+ * passe par les migrations demandées puis est validé contre son type. Les
+ * enregistrements valides sont réécrits dans un fichier temporaire, les autres
+ * sont mis en quarantaine dans {@code <fichier>.quarantine.jsonl} (une ligne
+ * par enregistrement, avec l'erreur) au lieu de faire perdre tout le fichier.
+ * Une seule passe, un seul enregistrement en mémoire à la fois ; le fichier
+ * n'est remplacé (renommage atomique) que si quelque chose a changé. Si la
+ * fin du fichier est illisible, ce qui précède est conservé et l'original est
+ * copié sous {@code <fichier>.corrupted.<horodatage>}.
+ */
+public final class RecordMigrationEngine {
+
+    /** Étape de migration appliquée à un enregistrement ; renvoie true si elle l'a modifié. */
+    @FunctionalInterface
+    public interface RecordMigration {
+        boolean upgrade(ObjectNode record);
+    }
+
+    /** Bilan d'une passe. */
+    public record Report(int kept, int upgraded, int quarantined, boolean truncated) {
+        public boolean changed() {
+            return upgraded > 0 || quarantined > 0 || truncated;
+        }
+    }
+
+    static final String QUARANTINE_SUFFIX = ".quarantine.jsonl";
+
+    private final StorageFormat format;
+    private final ObjectMapper mapper;
+    private final ObjectMapper json = DataFiles.plainMapper(StorageFormat.JSON);
+
+    public RecordMigrationEngine(StorageFormat format) {
+        this.format = format;
+        this.mapper = DataFiles.plainMapper(format);
+    }
+
+    public <T> Report run(Path file, Class<T> type, List<RecordMigration> steps) throws IOException {
+        if (Files.notExists(file) || Files.size(file) == 0) {
+            return new Report(0, 0, 0, false);
+        }
+        String name = file.getFileName().toString();
+        Path tmp = file.resolveSibling(name + ".repair.tmp");
+        Path quarantine = file.resolveSibling(name + QUARANTINE_SUFFIX);
+        int kept = 0;
+        int upgraded = 0;
+        int quarantined = 0;
+        boolean truncated = false;
+        BufferedWriter rejected = null;
+
+        try (JsonParser p = mapper.getFactory().createParser(file.toFile());
+             OutputStream out = Files.newOutputStream(tmp);
+             JsonGenerator g = mapper.getFactory().createGenerator(out)) {
+            if (format == StorageFormat.JSON) {
+                g.useDefaultPrettyPrinter();
+            }
+            g.writeStartArray();
+            if (nextToken(p) != JsonToken.START_ARRAY) {
+                truncated = true; // contenu qui n'est pas un tableau : rien à récupérer
+            } else {
+                while (true) {
+                    JsonNode node;
+                    try {
+                        JsonToken t = p.nextToken();
+                        if (t == JsonToken.END_ARRAY) break;
+                        if (t == null) {
+                            truncated = true;
+                            break;
+                        }
+                        node = mapper.readTree(p);
+                    } catch (JsonProcessingException e) {
+                        truncated = true;
+                        break;
+                    }
+                    if (!(node instanceof ObjectNode record)) {
+                        rejected = quarantine(rejected, quarantine, node, "enregistrement qui n'est pas un objet");
+                        quarantined++;
+                        continue;
+                    }
+                    boolean changed = false;
+                    for (RecordMigration step : steps) {
+                        changed |= step.upgrade(record);
+                    }
+                    try {
+                        mapper.treeToValue(record, type);
+                    } catch (JsonProcessingException | IllegalArgumentException e) {
+                        String reason = e instanceof JsonProcessingException jpe ? jpe.getOriginalMessage() : e.getMessage();
+                        rejected = quarantine(rejected, quarantine, record, reason);
+                        quarantined++;
+                        continue;
+                    }
+                    mapper.writeTree(g, record);
+                    if (changed) upgraded++; else kept++;
+                }
+            }
+            g.writeEndArray();
+        } finally {
+            if (rejected != null) {
+                rejected.close();
+            }
+        }
+
+        Report report = new Report(kept, upgraded, quarantined, truncated);
+        if (!report.changed()) {
+            Files.deleteIfExists(tmp);
+            return report;
+        }
+        if (truncated) {
+            Files.copy(file, file.resolveSibling(name + ".corrupted." + System.currentTimeMillis()),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.println("🔧 " + name + " : " + kept + " conservé(s), " + upgraded + " migré(s), "
+                + quarantined + " en quarantaine" + (truncated ? ", fin de fichier illisible ignorée" : ""));
+        return report;
+    }
+
+    private static JsonToken nextToken(JsonParser p) {
+        try {
+            return p.nextToken();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private BufferedWriter quarantine(BufferedWriter writer, Path target, JsonNode record, String reason) throws IOException {
+        if (writer == null) {
+            writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("error", reason);
+        entry.put("record", record);
+        writer.write(json.writeValueAsString(entry));
+        writer.newLine();
+        return writer;
+    }
+}
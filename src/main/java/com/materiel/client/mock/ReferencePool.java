@@ -0,0 +1,175 @@
+package com.materiel.client.mock;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.materiel.client.model.Client;
+import com.materiel.client.model.Resource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre des instances canoniques de {@link Client} et {@link Resource},
+ * indexées par id.
+ * <p>
+ * Le module Jackson {@link #module()} remplace chaque client ou ressource
+ * désérialisé par l'instance canonique de même id : toutes les interventions
+ * et tous les documents partagent alors le même objet (moins de mémoire,
+ * comparaisons par identité). Un élément lu à la racine d'un fichier
+ * ({@code clients.json}, {@code resources.json}) fait foi et met à jour
+ * l'instance canonique en place ; une copie imbriquée (client d'une
+ * intervention, d'un devis...) réutilise simplement l'instance existante.
+ */
+public final class ReferencePool {
+
+    private static final ReferencePool INSTANCE = new ReferencePool();
+
+    private final Map<Long, Client> clients = new ConcurrentHashMap<>();
+    private final Map<Long, Resource> resources = new ConcurrentHashMap<>();
+
+    public static ReferencePool getInstance() {
+        return INSTANCE;
+    }
+
+    ReferencePool() {
+    }
+
+    /** Instance canonique du client (enregistre {@code client} s'il est le premier de son id). */
+    public Client intern(Client client) {
+        if (client == null || client.getId() == null) {
+            return client;
+        }
+        Client canonical = clients.putIfAbsent(client.getId(), client);
+        return canonical != null ? canonical : client;
+    }
+
+    /** Instance canonique de la ressource (enregistre {@code resource} si elle est la première de son id). */
+    public Resource intern(Resource resource) {
+        if (resource == null || resource.getId() == null) {
+            return resource;
+        }
+        Resource canonical = resources.putIfAbsent(resource.getId(), resource);
+        return canonical != null ? canonical : resource;
+    }
+
+    /** Comme {@link #intern(Client)}, mais les valeurs de {@code client} remplacent celles de l'instance canonique. */
+    public Client update(Client client) {
+        Client canonical = intern(client);
+        if (canonical != client) {
+            canonical.setNom(client.getNom());
+            canonical.setAdresse(client.getAdresse());
+            canonical.setTelephone(client.getTelephone());
+            canonical.setEmail(client.getEmail());
+            canonical.setSiret(client.getSiret());
+        }
+        return canonical;
+    }
+
+    /** Comme {@link #intern(Resource)}, mais les valeurs de {@code resource} remplacent celles de l'instance canonique. */
+    public Resource update(Resource resource) {
+        Resource canonical = intern(resource);
+        if (canonical != resource) {
+            canonical.setNom(resource.getNom());
+            canonical.setType(resource.getType());
+            canonical.setDescription(resource.getDescription());
+            canonical.setDisponible(resource.isDisponible());
+            canonical.setSpecifications(resource.getSpecifications());
+        }
+        return canonical;
+    }
+
+    /** Liste des instances canoniques mises à jour avec les valeurs de {@code clients}. */
+    public List<Client> updateClients(List<Client> clients) {
+        List<Client> result = new ArrayList<>(clients.size());
+        for (Client c : clients) {
+            result.add(update(c));
+        }
+        return result;
+    }
+
+    /** Liste des instances canoniques mises à jour avec les valeurs de {@code resources}. */
+    public List<Resource> updateResources(List<Resource> resources) {
+        List<Resource> result = new ArrayList<>(resources.size());
+        for (Resource r : resources) {
+            result.add(update(r));
+        }
+        return result;
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    public int getResourceCount() {
+        return resources.size();
+    }
+
+    public void clear() {
+        clients.clear();
+        resources.clear();
+    }
+
+    /** Module Jackson qui fait passer clients et ressources désérialisés par ce registre. */
+    public Module module() {
+        SimpleModule module = new SimpleModule("ReferencePool");
+        module.setDeserializerModifier(new BeanDeserializerModifier() {
+            @Override
+            public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc,
+                                                          JsonDeserializer<?> deserializer) {
+                Class<?> type = beanDesc.getBeanClass();
+                if (type == Client.class || type == Resource.class) {
+                    return new Interning(deserializer);
+                }
+                return deserializer;
+            }
+        });
+        return module;
+    }
+
+    private final class Interning extends DelegatingDeserializer {
+
+        Interning(JsonDeserializer<?> delegate) {
+            super(delegate);
+        }
+
+        @Override
+        protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+            return new Interning(newDelegatee);
+        }
+
+        @Override
+        public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            boolean authoritative = isTopLevel(p.getParsingContext());
+            Object value = super.deserialize(p, ctxt);
+            if (value instanceof Client c) {
+                return authoritative ? update(c) : intern(c);
+            }
+            if (value instanceof Resource r) {
+                return authoritative ? update(r) : intern(r);
+            }
+            return value;
+        }
+
+        /** Objet racine, ou élément d'un tableau racine. */
+        private boolean isTopLevel(JsonStreamContext ctx) {
+            if (ctx != null && ctx.inObject()) {
+                ctx = ctx.getParent();
+            }
+            if (ctx == null || ctx.inRoot()) {
+                return true;
+            }
+            return ctx.inArray() && ctx.getParent() != null && ctx.getParent().inRoot();
+        }
+    }
+}
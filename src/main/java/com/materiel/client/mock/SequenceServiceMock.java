@@ -6,54 +6,195 @@ import com.materiel.client.model.DocumentType;
 import com.materiel.client.service.SequenceService;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Implémentation mock du service de séquences basée sur un fichier JSON.
+ * <p>
+ * Chaque clé (type de document, année) a un compteur atomique : l'attribution
+ * d'un numéro ne prend aucun verrou. Les numéros sont réservés par blocs et
+ * seul le plafond réservé (high-water mark) est écrit dans
+ * {@code sequences.json}, avant que le premier numéro du bloc ne soit rendu :
+ * après un arrêt brutal on ne réattribue jamais un numéro. Le fichier marqueur
+ * {@code sequences.reserved} signale qu'un bloc était entamé ;
+ * {@link #reconcile} ramène alors le compteur au dernier numéro réellement
+ * utilisé pour ne pas laisser de trou. {@link #close()} écrit les valeurs
+ * exactes et supprime le marqueur.
  */
-public class SequenceServiceMock implements SequenceService {
+public class SequenceServiceMock implements SequenceService, AutoCloseable {
+
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+
+    private static final class Counter {
+        final AtomicLong issued;      // dernier numéro attribué
+        final long loaded;            // valeur lue au démarrage
+        volatile long reserved;       // plafond persisté
+
+        Counter(long start) {
+            this.issued = new AtomicLong(start);
+            this.loaded = start;
+            this.reserved = start;
+        }
+    }
+
     private final Path file;
+    private final Path marker;
+    private final int blockSize;
     private final ObjectMapper mapper = new ObjectMapper();
-    private Map<String, Integer> sequences;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private volatile boolean recovering;
 
     public SequenceServiceMock(Path dataDir) {
+        this(dataDir, DEFAULT_BLOCK_SIZE);
+    }
+
+    public SequenceServiceMock(Path dataDir, int blockSize) {
         this.file = dataDir.resolve("sequences.json");
+        this.marker = dataDir.resolve("sequences.reserved");
+        this.blockSize = Math.max(1, blockSize);
+        this.recovering = Files.exists(marker);
+        load();
+    }
+
+    /**
+     * Relit les compteurs après une restauration des données ; à appeler
+     * avant de recharger les documents, qui les réconcilient.
+     */
+    public synchronized void reload() {
+        counters.clear();
+        recovering = Files.exists(marker);
         load();
     }
 
     private void load() {
         try {
             if (Files.exists(file)) {
-                sequences = mapper.readValue(file.toFile(), new TypeReference<Map<String, Integer>>(){});
-            } else {
-                sequences = new HashMap<>();
+                Map<String, Long> values = mapper.readValue(file.toFile(), new TypeReference<Map<String, Long>>(){});
+                values.forEach((k, v) -> counters.put(k, new Counter(v)));
             }
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private void save() {
+    @Override
+    public String nextNumber(DocumentType type, LocalDate date) {
+        int year = date.getYear();
+        String key = type.name() + "-" + year;
+        Counter counter = counters.computeIfAbsent(key, k -> new Counter(0));
+        long next = counter.issued.incrementAndGet();
+        if (next > counter.reserved) {
+            reserve(counter, next);
+        }
+        return format(type, year, next);
+    }
+
+    /**
+     * Ramène le compteur au plus grand numéro présent dans {@code numbers}
+     * après un arrêt brutal, tant qu'aucun numéro n'a été attribué depuis le
+     * démarrage. Sans arrêt brutal, ne fait rien : un numéro supprimé n'est
+     * jamais réutilisé.
+     */
+    @Override
+    public void reconcile(DocumentType type, Collection<String> numbers) {
+        if (!recovering) {
+            return;
+        }
+        Map<Integer, Long> maxByYear = new HashMap<>();
+        String prefix = prefix(type) + "-";
+        for (String number : numbers) {
+            if (number == null || !number.startsWith(prefix)) continue;
+            String[] parts = number.substring(prefix.length()).split("-");
+            if (parts.length != 2) continue;
+            try {
+                int year = Integer.parseInt(parts[0]);
+                long n = Long.parseLong(parts[1]);
+                maxByYear.merge(year, n, Math::max);
+            } catch (NumberFormatException ignored) {
+                // numéro saisi à la main : hors séquence
+            }
+        }
+        for (Map.Entry<String, Counter> e : counters.entrySet()) {
+            if (!e.getKey().startsWith(type.name() + "-")) continue;
+            int year = Integer.parseInt(e.getKey().substring(type.name().length() + 1));
+            long used = maxByYear.getOrDefault(year, 0L);
+            Counter c = e.getValue();
+            if (used < c.loaded && c.issued.compareAndSet(c.loaded, used)) {
+                System.out.println("Séquence " + e.getKey() + " reprise à " + used + " (réservé : " + c.loaded + ")");
+            }
+        }
+    }
+
+    /** Écrit les derniers numéros réellement attribués et lève le marqueur de réservation. */
+    @Override
+    public synchronized void close() {
+        Map<String, Long> exact = new TreeMap<>();
+        counters.forEach((k, c) -> exact.put(k, c.issued.get()));
         try {
-            Files.createDirectories(file.getParent());
-            mapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), sequences);
+            write(exact);
+            counters.values().forEach(c -> c.reserved = c.issued.get());
+            Files.deleteIfExists(marker);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'écriture des séquences: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Réserve un nouveau bloc couvrant {@code next} ; le plafond n'est publié
+     * qu'une fois écrit sur disque, les autres threads attendent ici.
+     */
+    private synchronized void reserve(Counter counter, long next) {
+        if (next <= counter.reserved) {
+            return;
+        }
+        long mark = Math.max(next, counter.issued.get()) + blockSize - 1;
+        Map<String, Long> marks = new TreeMap<>();
+        counters.forEach((k, c) -> marks.put(k, c == counter ? mark : c.reserved));
+        try {
+            if (Files.notExists(marker)) {
+                Files.createDirectories(marker.getParent());
+                Files.createFile(marker);
+            }
+            write(marks);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+        counter.reserved = mark;
     }
 
-    @Override
-    public synchronized String nextNumber(DocumentType type, LocalDate date) {
-        String year = String.valueOf(date.getYear());
-        String key = type.name() + "-" + year;
-        int next = sequences.getOrDefault(key, 0) + 1;
-        sequences.put(key, next);
-        save();
-        return prefix(type) + "-" + year + String.format("-%05d", next);
+    /** Écriture atomique (fichier temporaire, fsync, renommage). */
+    private void write(Map<String, Long> values) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        byte[] bytes = mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(values);
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                ch.write(buffer);
+            }
+            ch.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private String format(DocumentType type, int year, long n) {
+        StringBuilder b = new StringBuilder(16).append(prefix(type)).append('-').append(year).append('-');
+        String digits = Long.toString(n);
+        for (int i = digits.length(); i < 5; i++) b.append('0');
+        return b.append(digits).toString();
     }
 
     private String prefix(DocumentType type) {
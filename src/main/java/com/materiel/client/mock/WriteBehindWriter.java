@@ -0,0 +1,232 @@
+package com.materiel.client.mock;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Écriture différée (write-behind) des fichiers de données.
+ * <p>
+ * Chaque demande remplace la précédente encore en attente pour le même
+ * fichier : une rafale de modifications (glisser-déposer dans le planning)
+ * produit une seule écriture, au plus {@code delayMillis} après la première.
+ * Toutes les écritures se font sur un thread dédié, hors EDT : fichier
+ * temporaire unique, fsync puis renommage atomique. {@link #flush()} attend
+ * que tout ce qui est en attente ou en cours soit sur disque (fermeture de
+ * l'application, sauvegarde, restauration). Avec un délai nul, l'appelant
+ * attend la fin de son écriture.
+ * <p>
+ * Une écriture en échec est retentée avec un délai croissant, sauf si une
+ * demande plus récente l'a remplacée ; après {@link #MAX_ATTEMPTS} essais
+ * (ou à la fermeture), le callback d'échec est appelé.
+ * <p>
+ * Après {@link #close()}, une demande est écrite tout de suite sur le thread
+ * appelant : un enregistrement tardif n'est jamais perdu.
+ */
+public final class WriteBehindWriter implements AutoCloseable {
+
+    /** Contenu à écrire, sérialisé au moment de l'écriture. */
+    @FunctionalInterface
+    public interface Payload {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    static final int MAX_ATTEMPTS = 5;
+
+    private record Pending(Payload payload, Consumer<Path> onWritten, Consumer<Exception> onFailed, int attempt) {
+        Pending retry() {
+            return new Pending(payload, onWritten, onFailed, attempt + 1);
+        }
+    }
+
+    private final long delayMillis;
+    private final long retryDelayMillis;
+    private final ScheduledExecutorService executor;
+    private final Map<Path, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public WriteBehindWriter(long delayMillis) {
+        this(delayMillis, 1000);
+    }
+
+    /** @param retryDelayMillis délai avant le premier nouvel essai, doublé à chaque échec */
+    WriteBehindWriter(long delayMillis, long retryDelayMillis) {
+        this.delayMillis = Math.max(0, delayMillis);
+        this.retryDelayMillis = Math.max(1, retryDelayMillis);
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mock-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Programme l'écriture de {@code target} ; {@code onWritten} est appelé
+     * sur le thread d'écriture une fois le fichier en place.
+     */
+    public void submit(Path target, Payload payload, Consumer<Path> onWritten) {
+        submit(target, payload, onWritten, null);
+    }
+
+    /**
+     * Comme {@link #submit(Path, Payload, Consumer)} ; {@code onFailed} est
+     * appelé si l'écriture échoue définitivement (le contenu n'est pas sur
+     * disque et ne le sera pas).
+     */
+    public void submit(Path target, Payload payload, Consumer<Path> onWritten, Consumer<Exception> onFailed) {
+        submitted.incrementAndGet();
+        Pending job = new Pending(payload, onWritten, onFailed, 1);
+        if (delayMillis == 0) {
+            pending.put(target, job);
+            runOnWriter(() -> writePending(target));
+            return;
+        }
+        if (pending.put(target, job) == null) {
+            schedule(target, delayMillis);
+        }
+    }
+
+    /**
+     * Attend que toutes les écritures en attente soient terminées, y compris
+     * celle en cours sur le thread d'écriture : la tâche passe toujours par ce
+     * thread, qui n'en exécute qu'une à la fois.
+     */
+    public void flush() {
+        runOnWriter(() -> new ArrayList<>(pending.keySet()).forEach(this::writePending));
+    }
+
+    /** Vide les écritures en attente puis arrête le thread d'écriture. */
+    @Override
+    public void close() {
+        flush();
+        executor.shutdown();
+        // Écritures encore en échec après le dernier essai : abandonnées
+        new ArrayList<>(pending.keySet()).forEach(target -> {
+            Pending job = pending.remove(target);
+            if (job != null) {
+                giveUp(target, job, new IOException("écriture abandonnée à la fermeture"));
+            }
+        });
+    }
+
+    /** Nombre de fichiers dont l'écriture est en attente. */
+    public int getQueueDepth() {
+        return pending.size();
+    }
+
+    /** Demandes absorbées par une demande plus récente sur le même fichier. */
+    public long getCoalescedCount() {
+        return submitted.get() - written.get() - failures.get() - pending.size();
+    }
+
+    public long getWriteCount() {
+        return written.get();
+    }
+
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    private void runOnWriter(Runnable task) {
+        if (executor.isShutdown() || Thread.currentThread().getName().equals("mock-write-behind")) {
+            task.run(); // writer fermé, ou appel depuis un callback d'écriture
+            return;
+        }
+        try {
+            executor.submit(task).get();
+        } catch (RejectedExecutionException e) {
+            task.run(); // fermé entre-temps
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Erreur lors du vidage des écritures différées: " + e.getCause());
+        }
+    }
+
+    /** Écriture de {@code target} dans {@code delay} ms, ou aussitôt si le writer est fermé. */
+    private void schedule(Path target, long delay) {
+        try {
+            executor.schedule(() -> writePending(target), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            writePending(target);
+        }
+    }
+
+    private void writePending(Path target) {
+        Pending job = pending.remove(target);
+        if (job != null) {
+            write(target, job);
+        }
+    }
+
+    private void write(Path target, Pending job) {
+        Path tmp = null;
+        try {
+            Files.createDirectories(target.getParent());
+            tmp = Files.createTempFile(target.getParent(), target.getFileName() + ".", ".tmp");
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(ch), 64 * 1024);
+                job.payload().writeTo(new FilterOutputStream(out) {
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        out.write(b, off, len);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        flush(); // le canal reste ouvert pour le fsync
+                    }
+                });
+                out.flush();
+                ch.force(true);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            written.incrementAndGet();
+            if (job.onWritten() != null) {
+                job.onWritten().accept(target);
+            }
+        } catch (IOException | RuntimeException e) {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // déjà en erreur
+                }
+            }
+            System.err.println("Erreur lors de l'écriture de " + target.getFileName()
+                    + " (essai " + job.attempt() + "/" + MAX_ATTEMPTS + "): " + e.getMessage());
+            if (job.attempt() >= MAX_ATTEMPTS) {
+                giveUp(target, job, e);
+            } else if (pending.putIfAbsent(target, job.retry()) == null) {
+                // Sinon une demande plus récente portera le contenu à jour
+                schedule(target, retryDelayMillis << (job.attempt() - 1));
+            }
+        }
+    }
+
+    private void giveUp(Path target, Pending job, Exception cause) {
+        failures.incrementAndGet();
+        if (job.onFailed() != null) {
+            job.onFailed().accept(cause);
+        }
+    }
+}
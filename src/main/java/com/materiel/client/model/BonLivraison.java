@@ -1,8 +1,11 @@
 package com.materiel.client.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 /**
  * Modèle pour les bons de livraison
@@ -35,7 +38,8 @@ public class BonLivraison {
     private LocalDateTime heureDepart;
     private LocalDateTime heureArrivee;
     private Client client;
-    private Commande commandeOrigine; // Référence à la commande source
+    private Long commandeOrigineId; // Référence à la commande source (seule persistée)
+    private Commande commandeOrigine; // Commande résolue par le service, non persistée
     private StatutBonLivraison statut;
     private String adresseLivraison;
     private String chauffeur;
@@ -57,7 +61,7 @@ public class BonLivraison {
     
     public BonLivraison(Commande commandeSource) {
         this();
-        this.commandeOrigine = commandeSource;
+        setCommandeOrigine(commandeSource);
         this.client = commandeSource.getClient();
         this.adresseLivraison = commandeSource.getAdresseLivraison();
         this.dateLivraison = commandeSource.getDateLivraisonPrevue().atStartOfDay();
@@ -85,8 +89,25 @@ public class BonLivraison {
     public Client getClient() { return client; }
     public void setClient(Client client) { this.client = client; }
     
+    public Long getCommandeOrigineId() { return commandeOrigineId; }
+    public void setCommandeOrigineId(Long commandeOrigineId) {
+        if (commandeOrigine != null && !Objects.equals(commandeOrigine.getId(), commandeOrigineId)) {
+            commandeOrigine = null;
+        }
+        this.commandeOrigineId = commandeOrigineId;
+    }
+    
+    /**
+     * Commande source si elle a déjà été résolue ; sinon passer par
+     * {@code BonLivraisonService.getCommandeOrigine(BonLivraison)}.
+     */
+    @JsonIgnore
     public Commande getCommandeOrigine() { return commandeOrigine; }
-    public void setCommandeOrigine(Commande commandeOrigine) { this.commandeOrigine = commandeOrigine; }
+    @JsonIgnore
+    public void setCommandeOrigine(Commande commandeOrigine) {
+        this.commandeOrigine = commandeOrigine;
+        this.commandeOrigineId = commandeOrigine != null ? commandeOrigine.getId() : null;
+    }
     
     public StatutBonLivraison getStatut() { return statut; }
     public void setStatut(StatutBonLivraison statut) { this.statut = statut; }
@@ -124,6 +145,7 @@ public class BonLivraison {
     /**
      * Calculer la durée du transport en minutes
      */
+    @JsonIgnore
     public long getDureeTransport() {
         if (heureDepart == null || heureArrivee == null) {
             return -1;
@@ -134,6 +156,7 @@ public class BonLivraison {
     /**
      * Vérifier si la livraison est en retard
      */
+    @JsonIgnore
     public boolean isEnRetard() {
         if (dateLivraison == null) return false;
         
@@ -169,6 +192,7 @@ public class BonLivraison {
     /**
      * Obtenir un résumé du transport
      */
+    @JsonIgnore
     public String getResumeTransport() {
         StringBuilder resume = new StringBuilder();
         
@@ -43,4 +43,17 @@ public class Client {
     public String toString() {
         return nom;
     }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof Client)) return false;
+        Client other = (Client) obj;
+        return id != null && id.equals(other.id);
+    }
+    
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : 0;
+    }
 } 
@@ -1,7 +1,10 @@
 package com.materiel.client.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Objects;
 
 /**
  * Modèle pour les bons de commande
@@ -34,7 +37,8 @@ public class Commande {
     private LocalDate dateLivraisonPrevue;
     private LocalDate dateLivraisonEffective;
     private Client client;
-    private Devis devisOrigine; // Référence au devis source
+    private Long devisOrigineId; // Référence au devis source (seule persistée)
+    private Devis devisOrigine; // Devis résolu par le service, non persisté
     private StatutCommande statut;
     private BigDecimal montantHT;
     private BigDecimal montantTVA;
@@ -54,7 +58,7 @@ public class Commande {
     
     public Commande(Devis devisSource) {
         this();
-        this.devisOrigine = devisSource;
+        setDevisOrigine(devisSource);
         this.client = devisSource.getClient();
         this.montantHT = devisSource.getMontantHT();
         this.montantTVA = devisSource.getMontantTVA();
@@ -81,8 +85,25 @@ public class Commande {
     public Client getClient() { return client; }
     public void setClient(Client client) { this.client = client; }
     
+    public Long getDevisOrigineId() { return devisOrigineId; }
+    public void setDevisOrigineId(Long devisOrigineId) {
+        if (devisOrigine != null && !Objects.equals(devisOrigine.getId(), devisOrigineId)) {
+            devisOrigine = null;
+        }
+        this.devisOrigineId = devisOrigineId;
+    }
+    
+    /**
+     * Devis source s'il a déjà été résolu ; sinon passer par
+     * {@code CommandeService.getDevisOrigine(Commande)}.
+     */
+    @JsonIgnore
     public Devis getDevisOrigine() { return devisOrigine; }
-    public void setDevisOrigine(Devis devisOrigine) { this.devisOrigine = devisOrigine; }
+    @JsonIgnore
+    public void setDevisOrigine(Devis devisOrigine) {
+        this.devisOrigine = devisOrigine;
+        this.devisOrigineId = devisOrigine != null ? devisOrigine.getId() : null;
+    }
     
     public StatutCommande getStatut() { return statut; }
     public void setStatut(StatutCommande statut) { this.statut = statut; }
@@ -108,6 +129,7 @@ public class Commande {
     /**
      * Vérifier si la commande est en retard
      */
+    @JsonIgnore
     public boolean isEnRetard() {
         return dateLivraisonPrevue != null && 
                dateLivraisonEffective == null && 
@@ -119,6 +141,7 @@ public class Commande {
     /**
      * Calculer le délai de livraison en jours
      */
+    @JsonIgnore
     public long getDelaiLivraison() {
         if (dateCreation == null || dateLivraisonEffective == null) {
             return -1;
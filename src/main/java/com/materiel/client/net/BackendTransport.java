@@ -1,51 +1,155 @@
 package com.materiel.client.net;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.materiel.client.backend.invoker.ApiClient;
 import com.materiel.client.config.AppConfig;
-import okhttp3.Interceptor;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
 
-import java.io.IOException;
+import java.net.http.HttpClient;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Configure le transport HTTP pour le SDK backend.
+ * Transport HTTP unique du mode backend, partagé par les services Api* et
+ * par le SDK généré (bibliothèque {@code native}, java.net.http).
+ * <p>
+ * Un seul {@link HttpClient} : un seul pool de connexions (HTTP/2 multiplexé
+ * quand le serveur le propose, keep-alive sinon), un seul pool de threads,
+ * les en-têtes d'authentification et la décompression gzip appliqués à
+ * toutes les requêtes. Limites configurables : {@code http.pool.max.connections},
+ * {@code http.pool.keepalive.sec}, {@code http.dispatcher.threads} et
+ * {@code http.max.requests} (appels asynchrones simultanés). Les GET sont
+ * revalidés par un {@link HttpDiskCache} ({@code http.cache.max.bytes},
+ * 0 = désactivé).
  */
 public class BackendTransport {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static BackendTransport instance;
+
+    private final ExecutorService executor;
+    private final HttpDiskCache cache;
+    private final TransportHttpClient httpClient;
+    private final ObjectMapper objectMapper;
     private final ApiClient apiClient;
 
     public BackendTransport(AppConfig config) {
-        this.apiClient = new ApiClient();
-        this.apiClient.setBasePath(config.getApiBaseUrl());
+        configurePool(config);
+        this.executor = Executors.newFixedThreadPool(config.getHttpDispatcherThreads(), new DaemonThreads());
+
+        HttpClient shared = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+        this.cache = config.getHttpCacheMaxBytes() > 0
+                ? new HttpDiskCache(Paths.get(System.getProperty("user.home"), ".gestion-materiel", "http-cache"),
+                        config.getHttpCacheMaxBytes())
+                : null;
+        this.httpClient = new TransportHttpClient(shared, defaultHeaders(config), REQUEST_TIMEOUT,
+                config.getHttpMaxRequests(), cache);
+
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        // Les entités du backend portent des champs que le modèle du client ignore
+        this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        // Le SDK généré construit un HttpClient à chaque appel de getHttpClient() : on lui impose le nôtre
+        this.apiClient = new ApiClient() {
+            @Override
+            public HttpClient getHttpClient() {
+                return httpClient;
+            }
+        };
+        this.apiClient.updateBaseUri(config.getApiBaseUrl());
+        this.apiClient.setReadTimeout(REQUEST_TIMEOUT);
+    }
 
-        OkHttpClient.Builder builder = apiClient.getHttpClient().newBuilder()
-                .readTimeout(Duration.ofSeconds(30))
-                .callTimeout(Duration.ofSeconds(30));
+    public static synchronized BackendTransport getInstance() {
+        if (instance == null) {
+            instance = new BackendTransport(AppConfig.getInstance());
+        }
+        return instance;
+    }
 
-        final String token = config.getApiToken();
-        final String user = config.getApiBasicUser();
-        final String pass = config.getApiBasicPass();
+    /** Libère le transport courant (changement de configuration, tests) ; les appels en cours se terminent. */
+    public static synchronized void reset() {
+        if (instance != null) {
+            instance.executor.shutdown();
+            instance = null;
+        }
+    }
 
+    /**
+     * Le pool de connexions de java.net.http se règle par propriétés système,
+     * lues à la création du premier client : une valeur déjà fixée en ligne
+     * de commande est conservée.
+     */
+    private static void configurePool(AppConfig config) {
+        if (System.getProperty("jdk.httpclient.connectionPoolSize") == null) {
+            System.setProperty("jdk.httpclient.connectionPoolSize", String.valueOf(config.getHttpMaxConnections()));
+        }
+        if (System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+            System.setProperty("jdk.httpclient.keepalive.timeout", String.valueOf(config.getHttpKeepAliveSeconds()));
+        }
+    }
+
+    private static Map<String, String> defaultHeaders(AppConfig config) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Accept-Encoding", "gzip");
+
+        String token = config.getApiToken();
+        String user = config.getApiBasicUser();
+        String pass = config.getApiBasicPass();
         if (token != null && !token.isEmpty()) {
-            builder.addInterceptor(chain -> addHeader(chain, "Authorization", "Bearer " + token));
+            headers.put("Authorization", "Bearer " + token);
         } else if (user != null && pass != null) {
             String basic = Base64.getEncoder().encodeToString((user + ":" + pass).getBytes(StandardCharsets.UTF_8));
-            builder.addInterceptor(chain -> addHeader(chain, "Authorization", "Basic " + basic));
+            headers.put("Authorization", "Basic " + basic);
         }
+        return headers;
+    }
 
-        this.apiClient.setHttpClient(builder.build());
+    /** Client HTTP partagé, avec en-têtes communs et décompression. */
+    public HttpClient getHttpClient() {
+        return httpClient;
     }
 
-    private Response addHeader(Interceptor.Chain chain, String name, String value) throws IOException {
-        Request request = chain.request().newBuilder().addHeader(name, value).build();
-        return chain.proceed(request);
+    /** Cache disque des GET et ses compteurs, ou null s'il est désactivé. */
+    public HttpDiskCache getCache() {
+        return cache;
     }
 
+    /** Mapper JSON des services Api* (modèle du client). */
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /** Client du SDK généré, branché sur le même transport. */
     public ApiClient getApiClient() {
         return apiClient;
     }
+
+    private static final class DaemonThreads implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "http-transport-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
 }
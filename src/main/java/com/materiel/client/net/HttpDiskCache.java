@@ -0,0 +1,490 @@
+package com.materiel.client.net;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.ResponseInfo;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import javax.net.ssl.SSLSession;
+
+/**
+ * Cache HTTP sur disque des GET du backend, par revalidation conditionnelle.
+ * <p>
+ * Une réponse 200 portant un {@code ETag} ou un {@code Last-Modified} est
+ * enregistrée telle que reçue (encore compressée le cas échéant) ; la requête
+ * suivante vers la même URL part avec {@code If-None-Match} /
+ * {@code If-Modified-Since}. Si le serveur répond 304, le corps est relu
+ * depuis le disque et l'appelant reçoit une réponse 200 ordinaire : un
+ * rafraîchissement sans changement ne transfère que les en-têtes.
+ * <p>
+ * Une entrée par URL et par identité (en-tête {@code Authorization}), dans un
+ * fichier unique (métadonnées JSON sur la première ligne, puis le corps)
+ * remplacé atomiquement. Au-delà de {@code maxBytes}, les entrées les moins
+ * récemment servies sont supprimées. {@code Cache-Control: no-store} est
+ * respecté.
+ */
+public final class HttpDiskCache {
+
+    private static final String SUFFIX = ".cache";
+    private static final List<String> KEPT_HEADERS =
+            List.of("content-type", "content-encoding", "etag", "last-modified");
+
+    /** Métadonnées d'une entrée : validateurs et en-têtes rejoués avec le corps. */
+    record Meta(String uri, Map<String, List<String>> headers) {}
+
+    /** Entrée trouvée pour une requête ; le corps n'est lu que sur un 304. */
+    record Entry(Path file, Meta meta, long bodyOffset) {
+        Optional<String> header(String name) {
+            List<String> values = meta.headers().get(name);
+            return values == null || values.isEmpty() ? Optional.empty() : Optional.of(values.get(0));
+        }
+    }
+
+    private final Path directory;
+    private final long maxBytes;
+    private final ObjectMapper json = new ObjectMapper();
+    private final AtomicLong tempCount = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    public HttpDiskCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /** Réponses 304 servies depuis le disque. */
+    public long getHits() { return hits.get(); }
+    /** Requêtes sans entrée en cache (téléchargement complet). */
+    public long getMisses() { return misses.get(); }
+    /** Requêtes conditionnelles envoyées (304 ou contenu modifié). */
+    public long getRevalidations() { return revalidations.get(); }
+    /** Octets de corps que les 304 ont évité de transférer. */
+    public long getBytesSaved() { return bytesSaved.get(); }
+
+    public void resetStatistics() {
+        hits.set(0);
+        misses.set(0);
+        revalidations.set(0);
+        bytesSaved.set(0);
+    }
+
+    /** Vide le cache disque (changement de serveur ou d'utilisateur). */
+    public void clear() {
+        try (Stream<Path> files = list()) {
+            files.forEach(HttpDiskCache::deleteQuietly);
+        }
+    }
+
+    boolean isCacheable(HttpRequest request) {
+        return request.method().equals("GET")
+                && request.headers().firstValue("If-None-Match").isEmpty()
+                && request.headers().firstValue("If-Modified-Since").isEmpty()
+                && !hasNoStore(request.headers());
+    }
+
+    Entry lookup(HttpRequest request) {
+        Path file = directory.resolve(key(request) + SUFFIX);
+        if (!Files.isRegularFile(file)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1 && b != '\n') {
+                line.write(b);
+            }
+            Meta meta = json.readValue(line.toByteArray(), Meta.class);
+            if (b == -1 || !request.uri().toString().equals(meta.uri())) {
+                misses.incrementAndGet();
+                return null;
+            }
+            revalidations.incrementAndGet();
+            return new Entry(file, meta, line.size() + 1L);
+        } catch (IOException e) {
+            deleteQuietly(file);
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /** Ajoute les validateurs de l'entrée à la requête. */
+    HttpRequest conditional(HttpRequest request, Entry entry) {
+        if (entry == null) {
+            return request;
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request, (name, value) -> true);
+        entry.header("etag").ifPresent(etag -> builder.header("If-None-Match", etag));
+        entry.header("last-modified").ifPresent(date -> builder.header("If-Modified-Since", date));
+        return builder.build();
+    }
+
+    /**
+     * Enveloppe le handler de l'appelant : un 304 rejoue le corps en cache,
+     * un 200 revalidable est enregistré au fil de la réception.
+     */
+    <T> BodyHandler<T> handler(HttpRequest request, Entry entry, BodyHandler<T> downstream) {
+        return info -> {
+            if (info.statusCode() == 304 && entry != null) {
+                return replaying(entry, downstream);
+            }
+            if (info.statusCode() == 200 && isStorable(info.headers())) {
+                return new Storing<>(request, info.headers(), downstream.apply(info));
+            }
+            if (entry != null && (info.statusCode() == 200 || info.statusCode() == 404 || info.statusCode() == 410)) {
+                deleteQuietly(entry.file()); // plus revalidable ou disparu
+            }
+            return downstream.apply(info);
+        };
+    }
+
+    /** Présente un 304 servi depuis le cache comme la réponse 200 d'origine. */
+    <T> HttpResponse<T> revalidated(HttpResponse<T> response, Entry entry) {
+        if (response.statusCode() != 304 || entry == null) {
+            return response;
+        }
+        return new CachedResponse<>(response, headersOf(entry));
+    }
+
+    private <T> BodySubscriber<T> replaying(Entry entry, BodyHandler<T> downstream) {
+        byte[] body;
+        try {
+            body = readBody(entry);
+        } catch (IOException e) {
+            deleteQuietly(entry.file()); // la prochaine requête sera complète
+            throw new UncheckedIOException(e);
+        }
+        hits.incrementAndGet();
+        bytesSaved.addAndGet(body.length);
+        touch(entry.file());
+        BodySubscriber<T> target = downstream.apply(new CachedInfo(headersOf(entry)));
+        return new BodySubscriber<>() {
+            private final CompletableFuture<T> result = new CompletableFuture<>();
+
+            @Override
+            public CompletionStage<T> getBody() {
+                return result;
+            }
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE); // un 304 n'a pas de corps
+            }
+
+            @Override
+            public void onNext(List<ByteBuffer> item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                try {
+                    result.complete(TransportHttpClient.replay(body, target));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+        };
+    }
+
+    private byte[] readBody(Entry entry) throws IOException {
+        try (InputStream in = Files.newInputStream(entry.file())) {
+            in.skipNBytes(entry.bodyOffset());
+            return in.readAllBytes();
+        }
+    }
+
+    private static HttpHeaders headersOf(Entry entry) {
+        return HttpHeaders.of(entry.meta().headers(), (name, value) -> true);
+    }
+
+    private static boolean isStorable(HttpHeaders headers) {
+        return (headers.firstValue("ETag").isPresent() || headers.firstValue("Last-Modified").isPresent())
+                && !hasNoStore(headers);
+    }
+
+    private static boolean hasNoStore(HttpHeaders headers) {
+        return headers.allValues("Cache-Control").stream()
+                .anyMatch(v -> v.toLowerCase(Locale.ROOT).contains("no-store"));
+    }
+
+    private static String key(HttpRequest request) {
+        String identity = request.uri() + "\n" + request.headers().firstValue("Authorization").orElse("");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(identity.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Supprime les entrées les moins récemment servies tant que le cache dépasse sa taille. */
+    private synchronized void trim() {
+        record Sized(Path file, long size, FileTime used) {}
+        List<Sized> entries;
+        try (Stream<Path> files = list()) {
+            entries = files.map(f -> {
+                try {
+                    return new Sized(f, Files.size(f), Files.getLastModifiedTime(f));
+                } catch (IOException e) {
+                    return new Sized(f, 0, FileTime.fromMillis(0));
+                }
+            }).sorted(Comparator.comparing(Sized::used)).toList();
+        }
+        long total = entries.stream().mapToLong(Sized::size).sum();
+        for (Sized entry : entries) {
+            if (total <= maxBytes) {
+                break;
+            }
+            deleteQuietly(entry.file());
+            total -= entry.size();
+        }
+    }
+
+    private Stream<Path> list() {
+        try {
+            return Files.isDirectory(directory)
+                    ? Files.list(directory).filter(f -> f.getFileName().toString().endsWith(SUFFIX))
+                    : Stream.empty();
+        } catch (IOException e) {
+            return Stream.empty();
+        }
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // sans importance : l'entrée sera seulement évincée plus tôt
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la suppression de " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recopie le corps reçu dans un fichier temporaire en le passant à
+     * l'appelant ; l'entrée n'est publiée qu'une fois le corps complet.
+     */
+    private final class Storing<T> implements BodySubscriber<T> {
+        private final HttpRequest request;
+        private final HttpHeaders headers;
+        private final BodySubscriber<T> downstream;
+        private Path temp;
+        private FileChannel channel;
+        private long written;
+
+        Storing(HttpRequest request, HttpHeaders headers, BodySubscriber<T> downstream) {
+            this.request = request;
+            this.headers = headers;
+            this.downstream = downstream;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return downstream.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            open();
+            downstream.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    subscription.request(n);
+                }
+
+                @Override
+                public void cancel() {
+                    abandon(); // corps incomplet : rien à publier
+                    subscription.cancel();
+                }
+            });
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            write(item);
+            downstream.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            abandon();
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            publish();
+            downstream.onComplete();
+        }
+
+        private synchronized void open() {
+            Map<String, List<String>> kept = new TreeMap<>();
+            headers.map().forEach((name, values) -> {
+                if (KEPT_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    kept.put(name.toLowerCase(Locale.ROOT), values);
+                }
+            });
+            try {
+                Files.createDirectories(directory);
+                temp = directory.resolve(key(request) + "." + tempCount.incrementAndGet() + ".tmp");
+                channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+                byte[] meta = json.writeValueAsBytes(new Meta(request.uri().toString(), kept));
+                channel.write(ByteBuffer.wrap(meta));
+                channel.write(ByteBuffer.wrap(new byte[] {'\n'}));
+            } catch (IOException e) {
+                System.err.println("Cache HTTP indisponible: " + e.getMessage());
+                abandon();
+            }
+        }
+
+        private synchronized void write(List<ByteBuffer> item) {
+            if (channel == null) {
+                return;
+            }
+            try {
+                for (ByteBuffer buffer : item) {
+                    ByteBuffer copy = buffer.duplicate();
+                    written += copy.remaining();
+                    while (copy.hasRemaining()) {
+                        channel.write(copy);
+                    }
+                }
+                if (written > maxBytes) {
+                    abandon(); // plus grand que tout le cache
+                }
+            } catch (IOException e) {
+                abandon();
+            }
+        }
+
+        private synchronized void publish() {
+            if (channel == null) {
+                return;
+            }
+            try {
+                channel.close();
+                channel = null;
+                Files.move(temp, directory.resolve(key(request) + SUFFIX),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                abandon();
+                return;
+            }
+            trim();
+        }
+
+        private synchronized void abandon() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    // fichier temporaire supprimé juste après
+                }
+                channel = null;
+            }
+            if (temp != null) {
+                deleteQuietly(temp);
+                temp = null;
+            }
+        }
+    }
+
+    /** En-têtes de la réponse d'origine, présentés au handler de l'appelant sur un 304. */
+    private record CachedInfo(HttpHeaders headers) implements ResponseInfo {
+        @Override
+        public int statusCode() {
+            return 200;
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+
+    /** Réponse 304 présentée comme la réponse 200 mise en cache. */
+    private record CachedResponse<T>(HttpResponse<T> revalidation, HttpHeaders headers) implements HttpResponse<T> {
+        @Override
+        public int statusCode() {
+            return 200;
+        }
+
+        @Override
+        public HttpRequest request() {
+            return revalidation.request();
+        }
+
+        @Override
+        public Optional<HttpResponse<T>> previousResponse() {
+            return revalidation.previousResponse();
+        }
+
+        @Override
+        public T body() {
+            return revalidation.body();
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return revalidation.sslSession();
+        }
+
+        @Override
+        public URI uri() {
+            return revalidation.uri();
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return revalidation.version();
+        }
+    }
+}
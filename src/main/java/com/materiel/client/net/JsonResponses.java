@@ -0,0 +1,102 @@
+package com.materiel.client.net;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Lecture en flux des réponses JSON du backend.
+ * <p>
+ * Le corps n'est jamais rassemblé en {@code String} : Jackson le décode au
+ * fur et à mesure que les octets arrivent (un {@link MappingIterator} pour
+ * les tableaux), la mémoire utilisée se limite aux objets produits. Avec le
+ * client du {@link BackendTransport}, une réponse gzip est décompressée
+ * pendant la lecture.
+ */
+public final class JsonResponses {
+
+    private static final Streaming STREAMING = new Streaming();
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private JsonResponses() {
+    }
+
+    /** Handler du corps sous forme de flux, à fermer par l'appelant (ce que font les méthodes de lecture). */
+    public static BodyHandler<InputStream> streaming() {
+        return STREAMING;
+    }
+
+    /** Décode un tableau JSON élément par élément, puis ferme le flux. */
+    public static <T> List<T> readList(InputStream body, ObjectReader reader) {
+        try (InputStream in = body; MappingIterator<T> items = reader.readValues(in)) {
+            List<T> result = new ArrayList<>();
+            while (items.hasNextValue()) {
+                result.add(items.nextValue());
+            }
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Décode une valeur JSON, puis ferme le flux. */
+    public static <T> T readValue(InputStream body, ObjectReader reader) {
+        try (InputStream in = body) {
+            return reader.readValue(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Corps d'une réponse en erreur, tronqué, pour le message d'exception. */
+    public static String errorBody(HttpResponse<InputStream> response) {
+        try (InputStream in = response.body()) {
+            return new String(in.readNBytes(MAX_ERROR_LENGTH), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Ferme le corps reçu par {@code sent} si {@code decoded}, le décodage qui
+     * en dépend, est annulé : sans lecteur, le flux garderait la connexion
+     * occupée. Couvre une réponse arrivée après l'annulation comme un décodage
+     * annulé alors qu'il attendait son tour sur l'exécuteur.
+     */
+    public static <T> CompletableFuture<T> closeOnCancel(CompletableFuture<HttpResponse<InputStream>> sent,
+                                                         CompletableFuture<T> decoded) {
+        decoded.whenComplete((value, error) -> {
+            if (decoded.isCancelled()) {
+                sent.thenAccept(response -> close(response.body()));
+            }
+        });
+        return decoded;
+    }
+
+    private static void close(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException e) {
+            // connexion déjà rompue : rien à libérer
+        }
+    }
+
+    /** Reconnu par {@link TransportHttpClient} pour décompresser sans lire tout le corps. */
+    static final class Streaming implements BodyHandler<InputStream> {
+        @Override
+        public BodySubscriber<InputStream> apply(HttpResponse.ResponseInfo info) {
+            return BodySubscribers.ofInputStream();
+        }
+    }
+}
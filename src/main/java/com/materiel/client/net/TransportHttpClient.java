@@ -0,0 +1,295 @@
+package com.materiel.client.net;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Client HTTP partagé : délègue au client java.net.http unique du
+ * {@link BackendTransport} en ajoutant à chaque requête les en-têtes communs
+ * (authentification, {@code Accept-Encoding: gzip}) et le délai par défaut.
+ * <p>
+ * Les réponses gzip sont décompressées de façon transparente, quel que soit
+ * le {@link BodyHandler} de l'appelant : au fil de la lecture pour
+ * {@link JsonResponses#streaming()}, après réception complète sinon. Comme le Dispatcher d'OkHttp, le
+ * nombre d'appels asynchrones simultanés est borné : au-delà, ils attendent
+ * dans une file sans bloquer de thread. Les GET passent par le
+ * {@link HttpDiskCache} s'il est configuré.
+ */
+final class TransportHttpClient extends HttpClient {
+
+    private final HttpClient delegate;
+    private final Map<String, String> headers;
+    private final Duration requestTimeout;
+    private final Semaphore permits;
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+    private final HttpDiskCache cache;
+
+    TransportHttpClient(HttpClient delegate, Map<String, String> headers, Duration requestTimeout, int maxRequests) {
+        this(delegate, headers, requestTimeout, maxRequests, null);
+    }
+
+    /** @param cache cache des GET revalidables, ou null */
+    TransportHttpClient(HttpClient delegate, Map<String, String> headers, Duration requestTimeout, int maxRequests,
+                        HttpDiskCache cache) {
+        this.delegate = delegate;
+        this.headers = Map.copyOf(headers);
+        this.requestTimeout = requestTimeout;
+        this.permits = new Semaphore(Math.max(1, maxRequests));
+        this.cache = cache;
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, BodyHandler<T> handler) throws IOException, InterruptedException {
+        HttpRequest decorated = decorate(request);
+        if (cache == null || !cache.isCacheable(decorated)) {
+            return delegate.send(decorated, decompressing(handler));
+        }
+        HttpDiskCache.Entry entry = cache.lookup(decorated);
+        HttpResponse<T> response = delegate.send(cache.conditional(decorated, entry),
+                cache.handler(decorated, entry, decompressing(handler)));
+        return cache.revalidated(response, entry);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, BodyHandler<T> handler) {
+        return sendAsync(request, handler, null);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, BodyHandler<T> handler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        HttpRequest decorated = decorate(request);
+        CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+        // Appelé avec une place acquise : elle est rendue quoi qu'il arrive
+        Runnable start = () -> {
+            CompletableFuture<HttpResponse<T>> sending;
+            HttpDiskCache.Entry cached = null;
+            try {
+                HttpRequest sent = decorated;
+                BodyHandler<T> body = decompressing(handler);
+                if (cache != null && cache.isCacheable(decorated)) {
+                    cached = cache.lookup(decorated);
+                    sent = cache.conditional(decorated, cached);
+                    body = cache.handler(decorated, cached, body);
+                }
+                sending = delegate.sendAsync(sent, body, pushPromiseHandler);
+            } catch (RuntimeException e) {
+                permits.release();
+                result.completeExceptionally(e);
+                drain();
+                return;
+            }
+            HttpDiskCache.Entry entry = cached;
+            sending.whenComplete((response, error) -> {
+                permits.release();
+                drain();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                    return;
+                }
+                try {
+                    result.complete(cache != null ? cache.revalidated(response, entry) : response);
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        };
+        if (permits.tryAcquire()) {
+            start.run();
+        } else {
+            waiting.add(start);
+            drain();
+        }
+        return result;
+    }
+
+    /** Nombre d'appels asynchrones en attente d'une place. */
+    int getQueuedCount() {
+        return waiting.size();
+    }
+
+    /** Démarre les appels en attente tant qu'il reste des places. */
+    private void drain() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            Runnable next = waiting.poll();
+            if (next == null) {
+                permits.release();
+                return;
+            }
+            next.run();
+        }
+    }
+
+    private HttpRequest decorate(HttpRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request, (name, value) -> true);
+        headers.forEach((name, value) -> {
+            if (request.headers().firstValue(name).isEmpty()) {
+                builder.header(name, value);
+            }
+        });
+        if (request.timeout().isEmpty() && requestTimeout != null) {
+            builder.timeout(requestTimeout);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Décompresse les réponses {@code Content-Encoding: gzip} avant de les
+     * passer au handler de l'appelant (le corps compressé est lu en entier).
+     */
+    static <T> BodyHandler<T> decompressing(BodyHandler<T> handler) {
+        return info -> {
+            boolean gzip = info.headers().firstValue("Content-Encoding")
+                    .map(v -> v.trim().equalsIgnoreCase("gzip"))
+                    .orElse(false);
+            if (!gzip) {
+                return handler.apply(info);
+            }
+            if (handler instanceof JsonResponses.Streaming) {
+                @SuppressWarnings("unchecked")
+                BodySubscriber<T> streaming = (BodySubscriber<T>) BodySubscribers.mapping(
+                        BodySubscribers.ofInputStream(), GunzipOnRead::new);
+                return streaming;
+            }
+            return BodySubscribers.mapping(BodySubscribers.ofByteArray(),
+                    compressed -> replay(gunzip(compressed), handler.apply(info)));
+        };
+    }
+
+    private static byte[] gunzip(byte[] compressed) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flux décompressé ouvert à la première lecture : le constructeur de
+     * {@link GZIPInputStream} lit l'en-tête, ce qui bloquerait le thread du
+     * client HTTP qui crée le flux.
+     */
+    private static final class GunzipOnRead extends InputStream {
+        private final InputStream compressed;
+        private GZIPInputStream gzip;
+
+        GunzipOnRead(InputStream compressed) {
+            this.compressed = compressed;
+        }
+
+        private InputStream gzip() throws IOException {
+            if (gzip == null) {
+                gzip = new GZIPInputStream(compressed);
+            }
+            return gzip;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return gzip().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return gzip().read(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            compressed.close();
+        }
+    }
+
+    /** Rejoue un corps déjà reçu dans le subscriber de l'appelant. */
+    static <T> T replay(byte[] body, BodySubscriber<T> downstream) {
+        downstream.onSubscribe(new Flow.Subscription() {
+            private boolean done;
+
+            @Override
+            public synchronized void request(long n) {
+                if (done || n <= 0) {
+                    return;
+                }
+                done = true;
+                downstream.onNext(List.of(ByteBuffer.wrap(body)));
+                downstream.onComplete();
+            }
+
+            @Override
+            public synchronized void cancel() {
+                done = true;
+            }
+        });
+        return downstream.getBody().toCompletableFuture().join();
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return delegate.cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return delegate.connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return delegate.followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return delegate.proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return delegate.sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return delegate.sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return delegate.authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return delegate.version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return delegate.executor();
+    }
+}
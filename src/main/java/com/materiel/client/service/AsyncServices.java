@@ -0,0 +1,90 @@
+package com.materiel.client.service;
+
+import com.materiel.client.model.Client;
+import com.materiel.client.model.Intervention;
+import com.materiel.client.model.Resource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Appels de service asynchrones.
+ * <p>
+ * Les variantes {@code *Async} par défaut des interfaces exécutent l'appel
+ * bloquant sur un petit pool de threads démons ; les implémentations API les
+ * redéfinissent avec {@code HttpClient.sendAsync}. {@link #loadPlanning}
+ * lance en parallèle les chargements du planning : l'attente est celle de
+ * l'appel le plus long, non leur somme. L'annuler annule aussi les appels
+ * qui le composent : ceux encore en file ne prennent pas de place dans le pool.
+ */
+public final class AsyncServices {
+
+    private static final int THREADS = 4;
+    private static final AtomicInteger COUNT = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(THREADS, r -> {
+        Thread t = new Thread(r, "service-async-" + COUNT.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Données nécessaires à l'affichage d'une période du planning. */
+    public record PlanningData(List<Resource> resources, List<Intervention> interventions, List<Client> clients) {}
+
+    private AsyncServices() {
+    }
+
+    public static Executor executor() {
+        return EXECUTOR;
+    }
+
+    /** Exécute un appel bloquant sur le pool des services. */
+    public static <T> CompletableFuture<T> supply(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, EXECUTOR);
+    }
+
+    /**
+     * Charge ressources, interventions de la période et clients en parallèle.
+     * À appeler depuis l'EDT (les services sont créés paresseusement par la
+     * {@link ServiceFactory}) ; le résultat arrive sur un thread d'arrière-plan.
+     */
+    public static CompletableFuture<PlanningData> loadPlanning(LocalDate startDate, LocalDate endDate) {
+        return loadPlanning(startDate, endDate, null);
+    }
+
+    /**
+     * Comme {@link #loadPlanning(LocalDate, LocalDate)}, sans redemander les
+     * clients s'ils sont déjà connus (ils ne dépendent pas de la période).
+     *
+     * @param knownClients clients déjà chargés, ou null
+     */
+    public static CompletableFuture<PlanningData> loadPlanning(LocalDate startDate, LocalDate endDate,
+                                                               List<Client> knownClients) {
+        return combine(
+                ServiceFactory.getResourceService().getAllResourcesAsync(),
+                ServiceFactory.getInterventionService().getInterventionsByDateRangeAsync(startDate, endDate),
+                knownClients != null
+                        ? CompletableFuture.completedFuture(knownClients)
+                        : ServiceFactory.getClientService().getAllClientsAsync());
+    }
+
+    static CompletableFuture<PlanningData> combine(CompletableFuture<List<Resource>> resources,
+                                                   CompletableFuture<List<Intervention>> interventions,
+                                                   CompletableFuture<List<Client>> clients) {
+        CompletableFuture<PlanningData> load = CompletableFuture.allOf(resources, interventions, clients)
+                .thenApply(v -> new PlanningData(resources.join(), interventions.join(), clients.join()));
+        load.whenComplete((data, error) -> {
+            if (load.isCancelled()) {
+                resources.cancel(false);
+                interventions.cancel(false);
+                clients.cancel(false);
+            }
+        });
+        return load;
+    }
+}
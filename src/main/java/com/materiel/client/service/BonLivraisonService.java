@@ -23,6 +23,11 @@ public interface BonLivraisonService {
     List<BonLivraison> getBonsLivraisonByTransporteur(String chauffeur);
     
     BonLivraison creerDepuisCommande(Commande commande);
+    
+    /** Commande source du bon, résolue à la demande à partir de son id. */
+    default Commande getCommandeOrigine(BonLivraison bonLivraison) {
+        return bonLivraison.getCommandeOrigine();
+    }
     void demarrerTransport(Long bonLivraisonId);
     void confirmerLivraison(Long bonLivraisonId, String personneReceptionnee, String commentaires);
     void marquerRetourne(Long bonLivraisonId, String raison);
@@ -3,6 +3,7 @@ package com.materiel.client.service;
 
 import com.materiel.client.model.Client;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface pour les services de gestion des clients
@@ -16,4 +17,9 @@ public interface ClientService {
     
     List<Client> searchClients(String searchTerm);
     boolean isClientUsed(Long clientId);
+    
+    // Variante asynchrone (chargements en parallèle, voir AsyncServices)
+    default CompletableFuture<List<Client>> getAllClientsAsync() {
+        return AsyncServices.supply(this::getAllClients);
+    }
 }
\ No newline at end of file
@@ -22,6 +22,11 @@ public interface CommandeService {
     List<Commande> getCommandesEnRetard();
     
     Commande creerDepuisDevis(Devis devis);
+    
+    /** Devis source de la commande, résolu à la demande à partir de son id. */
+    default Devis getDevisOrigine(Commande commande) {
+        return commande.getDevisOrigine();
+    }
     void changerStatut(Long commandeId, Commande.StatutCommande nouveauStatut);
     void marquerLivree(Long commandeId, LocalDate dateLivraison);
     
@@ -3,6 +3,7 @@ package com.materiel.client.service;
 import com.materiel.client.model.Intervention;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface pour les services de gestion des interventions
@@ -18,4 +19,13 @@ public interface InterventionService {
     List<Intervention> getInterventionsByClient(Long clientId);
     List<Intervention> getInterventionsByResource(Long resourceId);
     boolean hasConflict(Intervention intervention);
+    
+    // Variantes asynchrones (chargements en parallèle, voir AsyncServices)
+    default CompletableFuture<List<Intervention>> getAllInterventionsAsync() {
+        return AsyncServices.supply(this::getAllInterventions);
+    }
+    
+    default CompletableFuture<List<Intervention>> getInterventionsByDateRangeAsync(LocalDate startDate, LocalDate endDate) {
+        return AsyncServices.supply(() -> getInterventionsByDateRange(startDate, endDate));
+    }
 } 
@@ -0,0 +1,16 @@
+package com.materiel.client.service;
+
+import java.util.List;
+
+/**
+ * Page d'une liste paginée par curseur.
+ *
+ * @param items      éléments de la page
+ * @param nextCursor curseur opaque de la page suivante, null sur la dernière
+ */
+public record Page<T>(List<T> items, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.materiel.client.service;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Parcours paresseux d'une liste paginée par curseur.
+ * <p>
+ * La première page est demandée dès la création ; à la réception d'une page,
+ * la suivante est aussitôt chargée sur le pool des services pendant que
+ * l'appelant consomme la courante. Une seule page est chargée d'avance :
+ * abandonner le parcours ne coûte qu'une requête.
+ * <p>
+ * {@link #hasNext()} et {@link #next()} attendent la page en cours de
+ * chargement : à ne pas appeler depuis l'EDT.
+ */
+public final class PageIterator<T> implements Iterator<T> {
+
+    private final Function<String, Page<T>> fetch;
+    private Iterator<T> current = Collections.emptyIterator();
+    private CompletableFuture<Page<T>> next;
+
+    /** @param fetch charge la page du curseur donné (null = première page) */
+    public PageIterator(Function<String, Page<T>> fetch) {
+        this.fetch = fetch;
+        this.next = AsyncServices.supply(() -> fetch.apply(null));
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (next == null) {
+                return false;
+            }
+            Page<T> page = await(next);
+            next = page.hasNext() ? AsyncServices.supply(() -> fetch.apply(page.nextCursor())) : null;
+            current = page.items().iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    private static <T> Page<T> await(CompletableFuture<Page<T>> page) {
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
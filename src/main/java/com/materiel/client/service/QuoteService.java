@@ -2,16 +2,55 @@ package com.materiel.client.service;
 
 import com.materiel.client.backend.model.Quote;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service de gestion des devis (quotes).
  */
 public interface QuoteService {
+    /** Nombre de devis par page de {@link #iterate()}. */
+    int DEFAULT_PAGE_SIZE = 100;
+
+    /** Tous les devis (toutes les pages). */
     List<Quote> list();
+
+    /**
+     * Une page de devis.
+     *
+     * @param cursor curseur de la page précédente, null pour la première
+     * @param limit  nombre maximal de devis dans la page
+     */
+    Page<Quote> listPage(String cursor, int limit);
     Quote get(UUID id);
     Quote create(Quote quote);
     Quote update(Quote quote);
     void delete(UUID id);
+
+    default CompletableFuture<List<Quote>> listAsync() {
+        return AsyncServices.supply(this::list);
+    }
+
+    /**
+     * Parcours paresseux de tous les devis, page par page : les premiers sont
+     * disponibles dès la première page reçue, la suivante étant chargée
+     * pendant leur traitement.
+     * <p>
+     * {@code hasNext()} et {@code next()} bloquent jusqu'à réception de la page
+     * attendue : l'itérateur se consomme sur un thread de fond, jamais sur
+     * l'EDT.
+     */
+    default Iterator<Quote> iterate(int pageSize) {
+        return new PageIterator<>(cursor -> listPage(cursor, pageSize));
+    }
+
+    default Iterator<Quote> iterate() {
+        return iterate(DEFAULT_PAGE_SIZE);
+    }
+
+    default CompletableFuture<Quote> getAsync(UUID id) {
+        return AsyncServices.supply(() -> get(id));
+    }
 }
@@ -3,6 +3,7 @@ package com.materiel.client.service;
 import com.materiel.client.model.Resource;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface pour les services de gestion des ressources
@@ -17,4 +18,9 @@ public interface ResourceService {
     
     List<Resource> getResourcesByType(Resource.ResourceType type);
     boolean isResourceAvailable(Long resourceId, LocalDate startDate, LocalDate endDate);
+    
+    // Variante asynchrone (chargements en parallèle, voir AsyncServices)
+    default CompletableFuture<List<Resource>> getAllResourcesAsync() {
+        return AsyncServices.supply(this::getAllResources);
+    }
 } 
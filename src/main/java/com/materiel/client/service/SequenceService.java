@@ -3,10 +3,18 @@ package com.materiel.client.service;
 import com.materiel.client.model.DocumentType;
 
 import java.time.LocalDate;
+import java.util.Collection;
 
 /**
  * Service de numérotation des documents.
  */
 public interface SequenceService {
     String nextNumber(DocumentType type, LocalDate date);
+
+    /**
+     * Recale la séquence d'un type sur les numéros réellement présents
+     * (reprise après un arrêt brutal). Par défaut, ne fait rien.
+     */
+    default void reconcile(DocumentType type, Collection<String> numbers) {
+    }
 }
@@ -1,6 +1,8 @@
 package com.materiel.client.service;
 
 import com.materiel.client.config.AppConfig;
+import com.materiel.client.controller.EventBus;
+import com.materiel.client.controller.events.DataRestoredEvent;
 import com.materiel.client.service.impl.ApiClientService;
 import com.materiel.client.service.impl.ApiDevisService;
 import com.materiel.client.service.impl.ApiInterventionService;
@@ -39,6 +41,11 @@ public class ServiceFactory {
     private static SequenceService sequenceService;
     private static QuoteService quoteService;
     
+    static {
+        // Les services qui gardent leurs documents en mémoire relisent les fichiers restaurés
+        EventBus.getInstance().subscribe(DataRestoredEvent.class, event -> reloadMockDocuments());
+    }
+    
     public static ResourceService getResourceService() {
         if (resourceService == null) {
             AppConfig config = AppConfig.getInstance();
@@ -91,8 +98,7 @@ public class ServiceFactory {
         if (quoteService == null) {
             AppConfig config = AppConfig.getInstance();
             if (config.isBackendMode()) {
-                BackendTransport transport = new BackendTransport(config);
-                quoteService = new QuoteServiceBackend(transport.getApiClient());
+                quoteService = new QuoteServiceBackend(BackendTransport.getInstance().getApiClient());
             } else {
                 quoteService = new QuoteServiceMock(dataDir());
             }
@@ -132,7 +138,10 @@ public class ServiceFactory {
 
     public static SequenceService getSequenceService() {
         if (sequenceService == null) {
-            sequenceService = new SequenceServiceMock(dataDir());
+            SequenceServiceMock sequences = new SequenceServiceMock(dataDir());
+            // écrit les derniers numéros exacts à la fermeture (sinon reprise via reconcile)
+            Runtime.getRuntime().addShutdownHook(new Thread(sequences::close, "sequence-close"));
+            sequenceService = sequences;
         }
         return sequenceService;
     }
@@ -174,6 +183,28 @@ public class ServiceFactory {
         return invoiceService;
     }
     
+    /**
+     * Recharge les services mock de documents depuis le disque, séquences
+     * d'abord : les documents les réconcilient.
+     */
+    public static void reloadMockDocuments() {
+        if (sequenceService instanceof SequenceServiceMock sequences) {
+            sequences.reload();
+        }
+        if (orderService instanceof OrderServiceMock orders) {
+            orders.reload();
+        }
+        if (deliveryNoteService instanceof DeliveryNoteServiceMock notes) {
+            notes.reload();
+        }
+        if (invoiceService instanceof InvoiceServiceMock invoices) {
+            invoices.reload();
+        }
+        if (quoteService instanceof QuoteServiceMock quotes) {
+            quotes.reload();
+        }
+    }
+    
     /**
      * Force la recréation des services (utile lors du changement de mode)
      */
@@ -189,5 +220,6 @@ public class ServiceFactory {
         invoiceService = null;
         sequenceService = null;
         quoteService = null;
+        BackendTransport.reset();
     }
 }
\ No newline at end of file
@@ -4,14 +4,19 @@ import com.materiel.client.model.Client;
 import com.materiel.client.service.ClientService;
 import com.materiel.client.config.AppConfig;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.materiel.client.net.BackendTransport;
+import com.materiel.client.net.JsonResponses;
+import com.materiel.client.service.AsyncServices;
 
+import java.io.InputStream;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.URI;
 import java.util.List;
-import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * Implémentation API du service Client
@@ -20,32 +25,35 @@ public class ApiClientService implements ClientService {
     
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final ObjectReader clientReader;
     private final String baseUrl;
     
     public ApiClientService() {
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
+        BackendTransport transport = BackendTransport.getInstance();
+        this.httpClient = transport.getHttpClient();
+        this.objectMapper = transport.getObjectMapper();
+        this.clientReader = objectMapper.readerFor(Client.class);
         this.baseUrl = AppConfig.getInstance().getApiBaseUrl() + "/api";
     }
     
     @Override
     public List<Client> getAllClients() {
         try {
-            String json = makeApiCall("/clients");
-            // TODO: Parser et mapper les clients du backend
-            return new ArrayList<>(); // Temporaire
+            return JsonResponses.readList(makeApiCall("/clients"), clientReader);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la récupération des clients", e);
         }
     }
     
+    @Override
+    public CompletableFuture<List<Client>> getAllClientsAsync() {
+        return makeApiCallAsync("/clients", body -> JsonResponses.readList(body, clientReader));
+    }
+    
     @Override
     public Client getClientById(Long id) {
         try {
-            String json = makeApiCall("/clients/" + id);
-            // TODO: Parser et mapper
-            return null; // Temporaire
+            return JsonResponses.readValue(makeApiCall("/clients/" + id), clientReader);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la récupération du client", e);
         }
@@ -63,8 +71,7 @@ public class ApiClientService implements ClientService {
                 response = makeApiPut("/clients/" + client.getId(), json);
             }
             
-            // TODO: Parser la réponse
-            return client; // Temporaire
+            return response == null || response.isBlank() ? client : clientReader.readValue(response);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la sauvegarde du client", e);
         }
@@ -83,9 +90,7 @@ public class ApiClientService implements ClientService {
     public List<Client> searchClients(String searchTerm) {
         try {
             String endpoint = "/clients/search?q=" + java.net.URLEncoder.encode(searchTerm, "UTF-8");
-            String json = makeApiCall(endpoint);
-            // TODO: Parser et mapper
-            return new ArrayList<>(); // Temporaire
+            return JsonResponses.readList(makeApiCall(endpoint), clientReader);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la recherche de clients", e);
         }
@@ -94,30 +99,53 @@ public class ApiClientService implements ClientService {
     @Override
     public boolean isClientUsed(Long clientId) {
         try {
-            String response = makeApiCall("/clients/" + clientId + "/usage");
-            return Boolean.parseBoolean(response);
+            return Boolean.TRUE.equals(JsonResponses.readValue(makeApiCall("/clients/" + clientId + "/usage"),
+                    objectMapper.readerFor(Boolean.class)));
         } catch (Exception e) {
             return false; // En cas d'erreur, considérer que non utilisé
         }
     }
     
-    private String makeApiCall(String endpoint) throws Exception {
+    /** Corps de la réponse en flux, décodé par {@link JsonResponses} sans passer par une chaîne. */
+    private InputStream makeApiCall(String endpoint) throws Exception {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(baseUrl + endpoint))
                 .header("Accept", "application/json")
                 .GET()
                 .build();
         
-        HttpResponse<String> response = httpClient.send(request, 
-                HttpResponse.BodyHandlers.ofString());
+        HttpResponse<InputStream> response = httpClient.send(request, JsonResponses.streaming());
         
         if (response.statusCode() != 200) {
-            throw new RuntimeException("Erreur API: " + response.statusCode());
+            throw new RuntimeException("Erreur API: " + response.statusCode() + " - " + JsonResponses.errorBody(response));
         }
         
         return response.body();
     }
     
+    /**
+     * Variante asynchrone de {@link #makeApiCall} : aucun thread bloqué pendant
+     * l'échange. Le corps arrive en flux dès les en-têtes reçus ; {@code read}
+     * le décode sur le pool des services, pas sur celui du client HTTP.
+     * Annuler le résultat ferme le corps resté sans lecteur.
+     */
+    private <T> CompletableFuture<T> makeApiCallAsync(String endpoint, Function<InputStream, T> read) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + endpoint))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        
+        CompletableFuture<HttpResponse<InputStream>> sent = httpClient.sendAsync(request, JsonResponses.streaming());
+        return JsonResponses.closeOnCancel(sent, sent.thenApplyAsync(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new RuntimeException("Erreur API: " + response.statusCode()
+                                + " - " + JsonResponses.errorBody(response));
+                    }
+                    return read.apply(response.body());
+                }, AsyncServices.executor()));
+    }
+    
     private String makeApiPost(String endpoint, String json) throws Exception {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(baseUrl + endpoint))
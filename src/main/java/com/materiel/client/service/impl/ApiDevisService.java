@@ -4,8 +4,11 @@ import com.materiel.client.model.Devis;
 import com.materiel.client.service.DevisService;
 import com.materiel.client.config.AppConfig;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.materiel.client.net.BackendTransport;
+import com.materiel.client.net.JsonResponses;
 
+import java.io.InputStream;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
@@ -13,7 +16,6 @@ import java.net.URI;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.ArrayList;
 
 /**
  * Implémentation API du service Devis
@@ -22,21 +24,21 @@ public class ApiDevisService implements DevisService {
     
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final ObjectReader devisReader;
     private final String baseUrl;
     
     public ApiDevisService() {
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
+        BackendTransport transport = BackendTransport.getInstance();
+        this.httpClient = transport.getHttpClient();
+        this.objectMapper = transport.getObjectMapper();
+        this.devisReader = objectMapper.readerFor(Devis.class);
         this.baseUrl = AppConfig.getInstance().getApiBaseUrl() + "/api";
     }
     
     @Override
     public List<Devis> getAllDevis() {
         try {
-            String json = makeApiCall("/devis");
-            // TODO: Parser et mapper les devis du backend
-            return new ArrayList<>(); // Temporaire
+            return JsonResponses.readList(makeApiCall("/devis"), devisReader);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la récupération des devis", e);
         }
@@ -45,9 +47,7 @@ public class ApiDevisService implements DevisService {
     @Override
     public Devis getDevisById(Long id) {
         try {
-            String json = makeApiCall("/devis/" + id);
-            // TODO: Parser et mapper
-            return null; // Temporaire
+            return JsonResponses.readValue(makeApiCall("/devis/" + id), devisReader);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la récupération du devis", e);
         }
@@ -56,9 +56,7 @@ public class ApiDevisService implements DevisService {
     @Override
     public Devis getDevisByNumero(String numero) {
         try {
-            String json = makeApiCall("/devis/numero/" + numero);
-            // TODO: Parser et mapper
-            return null; // Temporaire
+            return JsonResponses.readValue(makeApiCall("/devis/numero/" + numero), devisReader);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la récupération du devis par numéro", e);
         }
@@ -76,8 +74,7 @@ public class ApiDevisService implements DevisService {
                 response = makeApiPut("/devis/" + devis.getId(), json);
             }
             
-            // TODO: Parser la réponse
-            return devis; // Temporaire
+            return response == null || response.isBlank() ? devis : devisReader.readValue(response);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la sauvegarde du devis", e);
         }
@@ -95,9 +92,7 @@ public class ApiDevisService implements DevisService {
     @Override
     public List<Devis> getDevisByClient(Long clientId) {
         try {
-            String json = makeApiCall("/devis/client/" + clientId);
-            // TODO: Parser et mapper
-            return new ArrayList<>(); // Temporaire
+            return JsonResponses.readList(makeApiCall("/devis/client/" + clientId), devisReader);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la récupération des devis client", e);
         }
@@ -106,9 +101,7 @@ public class ApiDevisService implements DevisService {
     @Override
     public List<Devis> getDevisByStatut(Devis.StatutDevis statut) {
         try {
-            String json = makeApiCall("/devis/statut/" + statut.name());
-            // TODO: Parser et mapper
-            return new ArrayList<>(); // Temporaire
+            return JsonResponses.readList(makeApiCall("/devis/statut/" + statut.name()), devisReader);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la récupération des devis par statut", e);
         }
@@ -121,9 +114,7 @@ public class ApiDevisService implements DevisService {
             String endpoint = String.format("/devis/dates?debut=%s&fin=%s", 
                                           startDate.format(formatter), 
                                           endDate.format(formatter));
-            String json = makeApiCall(endpoint);
-            // TODO: Parser et mapper
-            return new ArrayList<>(); // Temporaire
+            return JsonResponses.readList(makeApiCall(endpoint), devisReader);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la récupération des devis par date", e);
         }
@@ -133,8 +124,7 @@ public class ApiDevisService implements DevisService {
     public Devis reviserDevis(Long devisId) {
         try {
             String response = makeApiPost("/devis/" + devisId + "/reviser", "");
-            // TODO: Parser la réponse
-            return null; // Temporaire
+            return response == null || response.isBlank() ? null : devisReader.readValue(response);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la révision du devis", e);
         }
@@ -162,27 +152,24 @@ public class ApiDevisService implements DevisService {
     public List<Devis> searchDevis(String searchTerm) {
         try {
             String endpoint = "/devis/search?q=" + java.net.URLEncoder.encode(searchTerm, "UTF-8");
-            String json = makeApiCall(endpoint);
-            // TODO: Parser et mapper
-            return new ArrayList<>(); // Temporaire
+            return JsonResponses.readList(makeApiCall(endpoint), devisReader);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la recherche de devis", e);
         }
     }
     
-    private String makeApiCall(String endpoint) throws Exception {
+    /** Corps de la réponse en flux, décodé par {@link JsonResponses} sans passer par une chaîne. */
+    private InputStream makeApiCall(String endpoint) throws Exception {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(baseUrl + endpoint))
                 .header("Accept", "application/json")
-                // TODO: Ajouter l'authentification JWT
                 .GET()
                 .build();
         
-        HttpResponse<String> response = httpClient.send(request, 
-                HttpResponse.BodyHandlers.ofString());
+        HttpResponse<InputStream> response = httpClient.send(request, JsonResponses.streaming());
         
         if (response.statusCode() != 200) {
-            throw new RuntimeException("Erreur API: " + response.statusCode());
+            throw new RuntimeException("Erreur API: " + response.statusCode() + " - " + JsonResponses.errorBody(response));
         }
         
         return response.body();
@@ -193,7 +180,6 @@ public class ApiDevisService implements DevisService {
                 .uri(URI.create(baseUrl + endpoint))
                 .header("Content-Type", "application/json")
                 .header("Accept", "application/json")
-                // TODO: Ajouter l'authentification JWT
                 .POST(HttpRequest.BodyPublishers.ofString(json))
                 .build();
         
@@ -212,7 +198,6 @@ public class ApiDevisService implements DevisService {
                 .uri(URI.create(baseUrl + endpoint))
                 .header("Content-Type", "application/json")
                 .header("Accept", "application/json")
-                // TODO: Ajouter l'authentification JWT
                 .PUT(HttpRequest.BodyPublishers.ofString(json))
                 .build();
         
@@ -230,7 +215,6 @@ public class ApiDevisService implements DevisService {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(baseUrl + endpoint))
                 .header("Accept", "application/json")
-                // TODO: Ajouter l'authentification JWT
                 .DELETE()
                 .build();
         
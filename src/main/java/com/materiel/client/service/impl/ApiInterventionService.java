@@ -4,8 +4,12 @@ import com.materiel.client.model.Intervention;
 import com.materiel.client.service.InterventionService;
 import com.materiel.client.config.AppConfig;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.materiel.client.net.BackendTransport;
+import com.materiel.client.net.JsonResponses;
+import com.materiel.client.service.AsyncServices;
 
+import java.io.InputStream;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
@@ -13,7 +17,8 @@ import java.net.URI;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * Implémentation API du service Intervention
@@ -22,21 +27,22 @@ public class ApiInterventionService implements InterventionService {
     
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final ObjectReader interventionReader;
     private final String baseUrl;
     
     public ApiInterventionService() {
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
+        BackendTransport transport = BackendTransport.getInstance();
+        this.httpClient = transport.getHttpClient();
+        this.objectMapper = transport.getObjectMapper();
+        this.interventionReader = objectMapper.readerFor(Intervention.class);
         this.baseUrl = AppConfig.getInstance().getApiBaseUrl() + "/api";
     }
     
     @Override
     public List<Intervention> getAllInterventions() {
         try {
-            String json = makeApiCall("/reservations");
-            // TODO: Mapper les réservations backend vers les interventions client
-            return new ArrayList<>(); // Temporaire
+            // Les réservations peuvent être nombreuses : décodées une à une depuis le flux
+            return JsonResponses.readList(makeApiCall("/reservations"), interventionReader);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la récupération des interventions", e);
         }
@@ -49,20 +55,30 @@ public class ApiInterventionService implements InterventionService {
             String endpoint = String.format("/reservations?dateDebut=%s&dateFin=%s", 
                                           startDate.format(formatter), 
                                           endDate.format(formatter));
-            String json = makeApiCall(endpoint);
-            // TODO: Parser et mapper
-            return new ArrayList<>(); // Temporaire
+            return JsonResponses.readList(makeApiCall(endpoint), interventionReader);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la récupération des interventions par date", e);
         }
     }
     
+    @Override
+    public CompletableFuture<List<Intervention>> getAllInterventionsAsync() {
+        return makeApiCallAsync("/reservations", body -> JsonResponses.readList(body, interventionReader));
+    }
+    
+    @Override
+    public CompletableFuture<List<Intervention>> getInterventionsByDateRangeAsync(LocalDate startDate, LocalDate endDate) {
+        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE;
+        String endpoint = String.format("/reservations?dateDebut=%s&dateFin=%s", 
+                                      startDate.format(formatter), 
+                                      endDate.format(formatter));
+        return makeApiCallAsync(endpoint, body -> JsonResponses.readList(body, interventionReader));
+    }
+    
     @Override
     public Intervention getInterventionById(Long id) {
         try {
-            String json = makeApiCall("/reservations/" + id);
-            // TODO: Parser et mapper
-            return null; // Temporaire
+            return JsonResponses.readValue(makeApiCall("/reservations/" + id), interventionReader);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la récupération de l'intervention", e);
         }
@@ -80,8 +96,7 @@ public class ApiInterventionService implements InterventionService {
                 response = makeApiPut("/reservations/" + intervention.getId(), json);
             }
             
-            // TODO: Parser la réponse
-            return intervention; // Temporaire
+            return response == null || response.isBlank() ? intervention : interventionReader.readValue(response);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la sauvegarde de l'intervention", e);
         }
@@ -99,9 +114,7 @@ public class ApiInterventionService implements InterventionService {
     @Override
     public List<Intervention> getInterventionsByClient(Long clientId) {
         try {
-            String json = makeApiCall("/reservations/client/" + clientId);
-            // TODO: Parser et mapper
-            return new ArrayList<>(); // Temporaire
+            return JsonResponses.readList(makeApiCall("/reservations/client/" + clientId), interventionReader);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la récupération des interventions client", e);
         }
@@ -110,9 +123,7 @@ public class ApiInterventionService implements InterventionService {
     @Override
     public List<Intervention> getInterventionsByResource(Long resourceId) {
         try {
-            String json = makeApiCall("/reservations/resource/" + resourceId);
-            // TODO: Parser et mapper  
-            return new ArrayList<>(); // Temporaire
+            return JsonResponses.readList(makeApiCall("/reservations/resource/" + resourceId), interventionReader);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la récupération des interventions par ressource", e);
         }
@@ -131,31 +142,52 @@ public class ApiInterventionService implements InterventionService {
         }
     }
     
-    private String makeApiCall(String endpoint) throws Exception {
+    /** Corps de la réponse en flux, décodé par {@link JsonResponses} sans passer par une chaîne. */
+    private InputStream makeApiCall(String endpoint) throws Exception {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(baseUrl + endpoint))
                 .header("Accept", "application/json")
                 .header("Content-Type", "application/json")
-                // TODO: Ajouter l'authentification JWT
                 .GET()
                 .build();
         
-        HttpResponse<String> response = httpClient.send(request, 
-                HttpResponse.BodyHandlers.ofString());
+        HttpResponse<InputStream> response = httpClient.send(request, JsonResponses.streaming());
         
         if (response.statusCode() != 200) {
-            throw new RuntimeException("Erreur API: " + response.statusCode() + " - " + response.body());
+            throw new RuntimeException("Erreur API: " + response.statusCode() + " - " + JsonResponses.errorBody(response));
         }
         
         return response.body();
     }
     
+    /**
+     * Variante asynchrone de {@link #makeApiCall} : aucun thread bloqué pendant
+     * l'échange. Le corps arrive en flux dès les en-têtes reçus ; {@code read}
+     * le décode sur le pool des services, pas sur celui du client HTTP.
+     * Annuler le résultat ferme le corps resté sans lecteur.
+     */
+    private <T> CompletableFuture<T> makeApiCallAsync(String endpoint, Function<InputStream, T> read) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + endpoint))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        
+        CompletableFuture<HttpResponse<InputStream>> sent = httpClient.sendAsync(request, JsonResponses.streaming());
+        return JsonResponses.closeOnCancel(sent, sent.thenApplyAsync(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new RuntimeException("Erreur API: " + response.statusCode()
+                                + " - " + JsonResponses.errorBody(response));
+                    }
+                    return read.apply(response.body());
+                }, AsyncServices.executor()));
+    }
+    
     private String makeApiPost(String endpoint, String json) throws Exception {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(baseUrl + endpoint))
                 .header("Content-Type", "application/json")
                 .header("Accept", "application/json")
-                // TODO: Ajouter l'authentification JWT
                 .POST(HttpRequest.BodyPublishers.ofString(json))
                 .build();
         
@@ -177,7 +209,6 @@ public class ApiInterventionService implements InterventionService {
                 .uri(URI.create(baseUrl + endpoint))
                 .header("Content-Type", "application/json")
                 .header("Accept", "application/json")
-                // TODO: Ajouter l'authentification JWT
                 .PUT(HttpRequest.BodyPublishers.ofString(json))
                 .build();
         
@@ -198,7 +229,6 @@ public class ApiInterventionService implements InterventionService {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(baseUrl + endpoint))
                 .header("Accept", "application/json")
-                // TODO: Ajouter l'authentification JWT
                 .DELETE()
                 .build();
         
@@ -4,8 +4,12 @@ import com.materiel.client.model.Resource;
 import com.materiel.client.service.ResourceService;
 import com.materiel.client.config.AppConfig;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.materiel.client.net.BackendTransport;
+import com.materiel.client.net.JsonResponses;
+import com.materiel.client.service.AsyncServices;
 
+import java.io.InputStream;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
@@ -14,6 +18,8 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * Implémentation API du service Resource
@@ -22,12 +28,14 @@ public class ApiResourceService implements ResourceService {
     
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final ObjectReader resourceReader;
     private final String baseUrl;
     
     public ApiResourceService() {
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
+        BackendTransport transport = BackendTransport.getInstance();
+        this.httpClient = transport.getHttpClient();
+        this.objectMapper = transport.getObjectMapper();
+        this.resourceReader = objectMapper.readerFor(Resource.class);
         this.baseUrl = AppConfig.getInstance().getApiBaseUrl() + "/api";
     }
     
@@ -38,16 +46,13 @@ public class ApiResourceService implements ResourceService {
             List<Resource> allResources = new ArrayList<>();
             
             // Grues
-            String gruesJson = makeApiCall("/grues");
-            // TODO: Mapper les entités backend vers les DTOs client
+            allResources.addAll(readTyped(makeApiCall("/grues"), Resource.ResourceType.GRUE));
             
             // Camions
-            String camionsJson = makeApiCall("/camions");
-            // TODO: Mapper les entités backend vers les DTOs client
+            allResources.addAll(readTyped(makeApiCall("/camions"), Resource.ResourceType.CAMION));
             
             // Chauffeurs
-            String chauffeursJson = makeApiCall("/chauffeurs");
-            // TODO: Mapper les entités backend vers les DTOs client
+            allResources.addAll(readTyped(makeApiCall("/chauffeurs"), Resource.ResourceType.CHAUFFEUR));
             
             return allResources;
         } catch (Exception e) {
@@ -55,14 +60,30 @@ public class ApiResourceService implements ResourceService {
         }
     }
     
+    /** Les trois catalogues sont demandés en parallèle. */
+    @Override
+    public CompletableFuture<List<Resource>> getAllResourcesAsync() {
+        CompletableFuture<List<Resource>> grues =
+                makeApiCallAsync("/grues", body -> readTyped(body, Resource.ResourceType.GRUE));
+        CompletableFuture<List<Resource>> camions =
+                makeApiCallAsync("/camions", body -> readTyped(body, Resource.ResourceType.CAMION));
+        CompletableFuture<List<Resource>> chauffeurs =
+                makeApiCallAsync("/chauffeurs", body -> readTyped(body, Resource.ResourceType.CHAUFFEUR));
+        return CompletableFuture.allOf(grues, camions, chauffeurs)
+                .thenApply(v -> {
+                    List<Resource> allResources = new ArrayList<>(grues.join());
+                    allResources.addAll(camions.join());
+                    allResources.addAll(chauffeurs.join());
+                    return allResources;
+                });
+    }
+    
     @Override
     public List<Resource> getAvailableResources(LocalDate startDate, LocalDate endDate) {
         try {
             String endpoint = String.format("/ressources/disponibles?dateDebut=%sT00:00:00&dateFin=%sT23:59:59", 
                                           startDate, endDate);
-            String json = makeApiCall(endpoint);
-            // TODO: Parser la réponse JSON et mapper vers Resource
-            return getAllResources(); // Temporaire
+            return JsonResponses.readList(makeApiCall(endpoint), resourceReader);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la récupération des ressources disponibles", e);
         }
@@ -71,9 +92,7 @@ public class ApiResourceService implements ResourceService {
     @Override
     public Resource getResourceById(Long id) {
         try {
-            String json = makeApiCall("/ressources/" + id);
-            // TODO: Parser la réponse JSON
-            return null; // Temporaire
+            return JsonResponses.readValue(makeApiCall("/ressources/" + id), resourceReader);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la récupération de la ressource", e);
         }
@@ -91,8 +110,7 @@ public class ApiResourceService implements ResourceService {
                 response = makeApiPut("/ressources/" + resource.getId(), json);
             }
             
-            // TODO: Parser la réponse
-            return resource; // Temporaire
+            return response == null || response.isBlank() ? resource : resourceReader.readValue(response);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la sauvegarde de la ressource", e);
         }
@@ -120,37 +138,69 @@ public class ApiResourceService implements ResourceService {
         try {
             String endpoint = String.format("/ressources/%d/disponible?dateDebut=%sT00:00:00&dateFin=%sT23:59:59", 
                                           resourceId, startDate, endDate);
-            String response = makeApiCall(endpoint);
-            return Boolean.parseBoolean(response);
+            return Boolean.TRUE.equals(JsonResponses.readValue(makeApiCall(endpoint),
+                    objectMapper.readerFor(Boolean.class)));
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la vérification de disponibilité", e);
         }
     }
     
-    private String makeApiCall(String endpoint) throws Exception {
+    /** Corps de la réponse en flux, décodé par {@link JsonResponses} sans passer par une chaîne. */
+    private InputStream makeApiCall(String endpoint) throws Exception {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(baseUrl + endpoint))
                 .header("Accept", "application/json")
-                // TODO: Ajouter l'authentification JWT
                 .GET()
                 .build();
         
-        HttpResponse<String> response = httpClient.send(request, 
-                HttpResponse.BodyHandlers.ofString());
+        HttpResponse<InputStream> response = httpClient.send(request, JsonResponses.streaming());
         
         if (response.statusCode() != 200) {
-            throw new RuntimeException("Erreur API: " + response.statusCode());
+            throw new RuntimeException("Erreur API: " + response.statusCode() + " - " + JsonResponses.errorBody(response));
         }
         
         return response.body();
     }
     
+    /** Les catalogues par type (/grues, /camions, /chauffeurs) ne portent pas toujours le type. */
+    private List<Resource> readTyped(InputStream body, Resource.ResourceType type) {
+        List<Resource> resources = JsonResponses.readList(body, resourceReader);
+        for (Resource resource : resources) {
+            if (resource.getType() == null) {
+                resource.setType(type);
+            }
+        }
+        return resources;
+    }
+    
+    /**
+     * Variante asynchrone de {@link #makeApiCall} : aucun thread bloqué pendant
+     * l'échange. Le corps arrive en flux dès les en-têtes reçus ; {@code read}
+     * le décode sur le pool des services, pas sur celui du client HTTP.
+     * Annuler le résultat ferme le corps resté sans lecteur.
+     */
+    private <T> CompletableFuture<T> makeApiCallAsync(String endpoint, Function<InputStream, T> read) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + endpoint))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        
+        CompletableFuture<HttpResponse<InputStream>> sent = httpClient.sendAsync(request, JsonResponses.streaming());
+        return JsonResponses.closeOnCancel(sent, sent.thenApplyAsync(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new RuntimeException("Erreur API: " + response.statusCode()
+                                + " - " + JsonResponses.errorBody(response));
+                    }
+                    return read.apply(response.body());
+                }, AsyncServices.executor()));
+    }
+    
     private String makeApiPost(String endpoint, String json) throws Exception {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(baseUrl + endpoint))
                 .header("Content-Type", "application/json")
                 .header("Accept", "application/json")
-                // TODO: Ajouter l'authentification JWT
                 .POST(HttpRequest.BodyPublishers.ofString(json))
                 .build();
         
@@ -169,7 +219,6 @@ public class ApiResourceService implements ResourceService {
                 .uri(URI.create(baseUrl + endpoint))
                 .header("Content-Type", "application/json")
                 .header("Accept", "application/json")
-                // TODO: Ajouter l'authentification JWT
                 .PUT(HttpRequest.BodyPublishers.ofString(json))
                 .build();
         
@@ -187,7 +236,6 @@ public class ApiResourceService implements ResourceService {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(baseUrl + endpoint))
                 .header("Accept", "application/json")
-                // TODO: Ajouter l'authentification JWT
                 .DELETE()
                 .build();
         
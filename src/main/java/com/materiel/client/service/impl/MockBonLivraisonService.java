@@ -11,6 +11,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.stream.Collectors;
 import java.math.BigDecimal;
 
@@ -20,11 +21,12 @@ import java.math.BigDecimal;
 public class MockBonLivraisonService implements BonLivraisonService {
     
     private final MockDataManager mockDataManager;
-    private final List<BonLivraison> bonsLivraison;
+    /** Instantané immuable, remplacé en bloc à chaque écriture. */
+    private volatile List<BonLivraison> bonsLivraison;
     
     public MockBonLivraisonService() {
         this.mockDataManager = MockDataManager.getInstance();
-        this.bonsLivraison = new ArrayList<>();
+        this.bonsLivraison = Collections.unmodifiableList(mockDataManager.getBonsLivraison());
         initializeDefaultBonsLivraison();
     }
     
@@ -38,6 +40,7 @@ public class MockBonLivraisonService implements BonLivraisonService {
     }
     
     private void createSampleBonsLivraison(List<Client> clients) {
+        List<BonLivraison> samples = new ArrayList<>();
         // BL 1 - En transport
         BonLivraison bl1 = new BonLivraison();
         bl1.setId(1L);
@@ -52,7 +55,7 @@ public class MockBonLivraisonService implements BonLivraisonService {
         bl1.setVehicule("Camion Mercedes Actros");
         bl1.setNumeroImmatriculation("AB-123-CD");
         bl1.setPoidsTotal(new BigDecimal("15.5"));
-        bonsLivraison.add(bl1);
+        samples.add(bl1);
         
         // BL 2 - Préparé
         BonLivraison bl2 = new BonLivraison();
@@ -67,7 +70,7 @@ public class MockBonLivraisonService implements BonLivraisonService {
         bl2.setVehicule("Camion Volvo FH");
         bl2.setNumeroImmatriculation("EF-456-GH");
         bl2.setPoidsTotal(new BigDecimal("22.8"));
-        bonsLivraison.add(bl2);
+        samples.add(bl2);
         
         // BL 3 - Livré
         BonLivraison bl3 = new BonLivraison();
@@ -87,7 +90,7 @@ public class MockBonLivraisonService implements BonLivraisonService {
         bl3.setPersonneReceptionnee("Marie Durand");
         bl3.setSignatureClient("Signature_MD_20241207");
         bl3.setCommentairesLivraison("Livraison conforme, client satisfait");
-        bonsLivraison.add(bl3);
+        samples.add(bl3);
         
         // BL 4 - En retard
         BonLivraison bl4 = new BonLivraison();
@@ -104,7 +107,7 @@ public class MockBonLivraisonService implements BonLivraisonService {
         bl4.setNumeroImmatriculation("MN-012-OP");
         bl4.setPoidsTotal(new BigDecimal("25.7"));
         bl4.setCommentairesLivraison("Retard dû aux embouteillages sur l'A7");
-        bonsLivraison.add(bl4);
+        samples.add(bl4);
         
         // BL 5 - Retourné
         BonLivraison bl5 = new BonLivraison();
@@ -123,7 +126,8 @@ public class MockBonLivraisonService implements BonLivraisonService {
         bl5.setPoidsTotal(new BigDecimal("12.4"));
         bl5.setRaisonRetour("Client absent, refus de livraison par le gardien");
         bl5.setCommentairesLivraison("Tentative de livraison, client non joignable");
-        bonsLivraison.add(bl5);
+        samples.add(bl5);
+        publish(samples);
     }
     
     @Override
@@ -133,10 +137,10 @@ public class MockBonLivraisonService implements BonLivraisonService {
     
     @Override
     public BonLivraison getBonLivraisonById(Long id) {
-        return bonsLivraison.stream()
+        return mockDataManager.copyOf(bonsLivraison.stream()
                 .filter(bl -> bl.getId().equals(id))
                 .findFirst()
-                .orElse(null);
+                .orElse(null));
     }
     
     @Override
@@ -148,10 +152,11 @@ public class MockBonLivraisonService implements BonLivraisonService {
     }
     
     @Override
-    public BonLivraison saveBonLivraison(BonLivraison bonLivraison) {
+    public synchronized BonLivraison saveBonLivraison(BonLivraison bonLivraison) {
+        List<BonLivraison> next = new ArrayList<>(bonsLivraison);
         if (bonLivraison.getId() == null) {
             // Nouveau bon de livraison
-            Long maxId = bonsLivraison.stream()
+            Long maxId = next.stream()
                     .mapToLong(BonLivraison::getId)
                     .max()
                     .orElse(0L);
@@ -162,23 +167,27 @@ public class MockBonLivraisonService implements BonLivraisonService {
                 bonLivraison.setNumero(genererNumeroBonLivraison());
             }
             
-            bonsLivraison.add(bonLivraison);
+            next.add(bonLivraison);
         } else {
             // Mise à jour
-            for (int i = 0; i < bonsLivraison.size(); i++) {
-                if (bonsLivraison.get(i).getId().equals(bonLivraison.getId())) {
-                    bonsLivraison.set(i, bonLivraison);
+            for (int i = 0; i < next.size(); i++) {
+                if (next.get(i).getId().equals(bonLivraison.getId())) {
+                    next.set(i, bonLivraison);
                     break;
                 }
             }
         }
+        publish(next);
         
         return bonLivraison;
     }
     
     @Override
-    public void deleteBonLivraison(Long id) {
-        bonsLivraison.removeIf(bl -> bl.getId().equals(id));
+    public synchronized void deleteBonLivraison(Long id) {
+        List<BonLivraison> next = new ArrayList<>(bonsLivraison);
+        if (next.removeIf(bl -> bl.getId().equals(id))) {
+            publish(next);
+        }
     }
     
     @Override
@@ -231,7 +240,19 @@ public class MockBonLivraisonService implements BonLivraisonService {
     }
     
     @Override
-    public void demarrerTransport(Long bonLivraisonId) {
+    public Commande getCommandeOrigine(BonLivraison bonLivraison) {
+        Long commandeId = bonLivraison.getCommandeOrigineId();
+        if (bonLivraison.getCommandeOrigine() == null && commandeId != null) {
+            mockDataManager.getCommandes().stream()
+                    .filter(c -> commandeId.equals(c.getId()))
+                    .findFirst()
+                    .ifPresent(bonLivraison::setCommandeOrigine);
+        }
+        return bonLivraison.getCommandeOrigine();
+    }
+    
+    @Override
+    public synchronized void demarrerTransport(Long bonLivraisonId) {
         BonLivraison bonLivraison = getBonLivraisonById(bonLivraisonId);
         if (bonLivraison != null && bonLivraison.peutDemarrerTransport()) {
             bonLivraison.setStatut(BonLivraison.StatutBonLivraison.EN_TRANSPORT);
@@ -241,7 +262,7 @@ public class MockBonLivraisonService implements BonLivraisonService {
     }
     
     @Override
-    public void confirmerLivraison(Long bonLivraisonId, String personneReceptionnee, String commentaires) {
+    public synchronized void confirmerLivraison(Long bonLivraisonId, String personneReceptionnee, String commentaires) {
         BonLivraison bonLivraison = getBonLivraisonById(bonLivraisonId);
         if (bonLivraison != null && bonLivraison.peutConfirmerLivraison()) {
             bonLivraison.setStatut(BonLivraison.StatutBonLivraison.LIVRE);
@@ -255,7 +276,7 @@ public class MockBonLivraisonService implements BonLivraisonService {
     }
     
     @Override
-    public void marquerRetourne(Long bonLivraisonId, String raison) {
+    public synchronized void marquerRetourne(Long bonLivraisonId, String raison) {
         BonLivraison bonLivraison = getBonLivraisonById(bonLivraisonId);
         if (bonLivraison != null) {
             bonLivraison.setStatut(BonLivraison.StatutBonLivraison.RETOURNE);
@@ -286,6 +307,16 @@ public class MockBonLivraisonService implements BonLivraisonService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Publie le nouvel instantané puis le persiste. Les bons d'un instantané
+     * publié ne sont plus modifiés : une mise à jour porte sur la copie
+     * rendue par {@link #getBonLivraisonById}.
+     */
+    private void publish(List<BonLivraison> next) {
+        bonsLivraison = Collections.unmodifiableList(next);
+        mockDataManager.saveBonsLivraison(next);
+    }
+    
     private String genererNumeroBonLivraison() {
         LocalDate aujourd = LocalDate.now();
         String dateStr = aujourd.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
@@ -24,16 +24,17 @@ public class MockClientService implements ClientService {
         return mockDataManager.getClients();
     }
     
+    /** Copie du client, modifiable : ceux de {@link #getAllClients()} sont partagés. */
     @Override
     public Client getClientById(Long id) {
-        return getAllClients().stream()
+        return mockDataManager.copyOf(getAllClients().stream()
                 .filter(c -> c.getId().equals(id))
                 .findFirst()
-                .orElse(null);
+                .orElse(null));
     }
     
     @Override
-    public Client saveClient(Client client) {
+    public synchronized Client saveClient(Client client) {
         List<Client> clients = new ArrayList<>(getAllClients());
         
         if (client.getId() == null) {
@@ -59,7 +60,7 @@ public class MockClientService implements ClientService {
     }
     
     @Override
-    public void deleteClient(Long id) {
+    public synchronized void deleteClient(Long id) {
         List<Client> clients = getAllClients().stream()
                 .filter(c -> !c.getId().equals(id))
                 .collect(Collectors.toList());
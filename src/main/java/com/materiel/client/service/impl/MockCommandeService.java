@@ -10,6 +10,7 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.stream.Collectors;
 import java.math.BigDecimal;
 
@@ -19,11 +20,12 @@ import java.math.BigDecimal;
 public class MockCommandeService implements CommandeService {
     
     private final MockDataManager mockDataManager;
-    private final List<Commande> commandes;
+    /** Instantané immuable, remplacé en bloc à chaque écriture. */
+    private volatile List<Commande> commandes;
     
     public MockCommandeService() {
         this.mockDataManager = MockDataManager.getInstance();
-        this.commandes = new ArrayList<>();
+        this.commandes = Collections.unmodifiableList(mockDataManager.getCommandes());
         initializeDefaultCommandes();
     }
     
@@ -38,6 +40,7 @@ public class MockCommandeService implements CommandeService {
     }
     
     private void createSampleCommandes(List<Client> clients) {
+        List<Commande> samples = new ArrayList<>();
         // Commande 1 - Confirmée
         Commande cmd1 = new Commande();
         cmd1.setId(1L);
@@ -51,7 +54,7 @@ public class MockCommandeService implements CommandeService {
         cmd1.setMontantTVA(new BigDecimal("500.00"));
         cmd1.setMontantTTC(new BigDecimal("3000.00"));
         cmd1.setResponsablePreparation("Pierre Martin");
-        commandes.add(cmd1);
+        samples.add(cmd1);
         
         // Commande 2 - En préparation
         Commande cmd2 = new Commande();
@@ -66,7 +69,7 @@ public class MockCommandeService implements CommandeService {
         cmd2.setMontantTVA(new BigDecimal("840.00"));
         cmd2.setMontantTTC(new BigDecimal("5040.00"));
         cmd2.setResponsablePreparation("Marie Dubois");
-        commandes.add(cmd2);
+        samples.add(cmd2);
         
         // Commande 3 - Prête
         Commande cmd3 = new Commande();
@@ -81,7 +84,7 @@ public class MockCommandeService implements CommandeService {
         cmd3.setMontantTVA(new BigDecimal("360.00"));
         cmd3.setMontantTTC(new BigDecimal("2160.00"));
         cmd3.setResponsablePreparation("Jean Dupont");
-        commandes.add(cmd3);
+        samples.add(cmd3);
         
         // Commande 4 - En retard
         Commande cmd4 = new Commande();
@@ -97,7 +100,7 @@ public class MockCommandeService implements CommandeService {
         cmd4.setMontantTTC(new BigDecimal("4200.00"));
         cmd4.setResponsablePreparation("Sophie Laurent");
         cmd4.setCommentaires("Retard dû à un problème d'approvisionnement");
-        commandes.add(cmd4);
+        samples.add(cmd4);
         
         // Commande 5 - Livrée
         Commande cmd5 = new Commande();
@@ -113,7 +116,8 @@ public class MockCommandeService implements CommandeService {
         cmd5.setMontantTVA(new BigDecimal("560.00"));
         cmd5.setMontantTTC(new BigDecimal("3360.00"));
         cmd5.setResponsablePreparation("Michel Bernard");
-        commandes.add(cmd5);
+        samples.add(cmd5);
+        publish(samples);
     }
     
     @Override
@@ -121,12 +125,13 @@ public class MockCommandeService implements CommandeService {
         return new ArrayList<>(commandes);
     }
     
+    /** Copie modifiable de la commande : l'instantané publié n'est jamais modifié. */
     @Override
     public Commande getCommandeById(Long id) {
-        return commandes.stream()
+        return mockDataManager.copyOf(commandes.stream()
                 .filter(c -> c.getId().equals(id))
                 .findFirst()
-                .orElse(null);
+                .orElse(null));
     }
     
     @Override
@@ -138,10 +143,11 @@ public class MockCommandeService implements CommandeService {
     }
     
     @Override
-    public Commande saveCommande(Commande commande) {
+    public synchronized Commande saveCommande(Commande commande) {
+        List<Commande> next = new ArrayList<>(commandes);
         if (commande.getId() == null) {
             // Nouvelle commande
-            Long maxId = commandes.stream()
+            Long maxId = next.stream()
                     .mapToLong(Commande::getId)
                     .max()
                     .orElse(0L);
@@ -152,23 +158,27 @@ public class MockCommandeService implements CommandeService {
                 commande.setNumero(genererNumeroCommande());
             }
             
-            commandes.add(commande);
+            next.add(commande);
         } else {
             // Mise à jour
-            for (int i = 0; i < commandes.size(); i++) {
-                if (commandes.get(i).getId().equals(commande.getId())) {
-                    commandes.set(i, commande);
+            for (int i = 0; i < next.size(); i++) {
+                if (next.get(i).getId().equals(commande.getId())) {
+                    next.set(i, commande);
                     break;
                 }
             }
         }
+        publish(next);
         
         return commande;
     }
     
     @Override
-    public void deleteCommande(Long id) {
-        commandes.removeIf(c -> c.getId().equals(id));
+    public synchronized void deleteCommande(Long id) {
+        List<Commande> next = new ArrayList<>(commandes);
+        if (next.removeIf(c -> c.getId().equals(id))) {
+            publish(next);
+        }
     }
     
     @Override
@@ -215,7 +225,19 @@ public class MockCommandeService implements CommandeService {
     }
     
     @Override
-    public void changerStatut(Long commandeId, Commande.StatutCommande nouveauStatut) {
+    public Devis getDevisOrigine(Commande commande) {
+        Long devisId = commande.getDevisOrigineId();
+        if (commande.getDevisOrigine() == null && devisId != null) {
+            mockDataManager.getDevis().stream()
+                    .filter(d -> devisId.equals(d.getId()))
+                    .findFirst()
+                    .ifPresent(commande::setDevisOrigine);
+        }
+        return commande.getDevisOrigine();
+    }
+    
+    @Override
+    public synchronized void changerStatut(Long commandeId, Commande.StatutCommande nouveauStatut) {
         Commande commande = getCommandeById(commandeId);
         if (commande != null) {
             commande.setStatut(nouveauStatut);
@@ -224,7 +246,7 @@ public class MockCommandeService implements CommandeService {
     }
     
     @Override
-    public void marquerLivree(Long commandeId, LocalDate dateLivraison) {
+    public synchronized void marquerLivree(Long commandeId, LocalDate dateLivraison) {
         Commande commande = getCommandeById(commandeId);
         if (commande != null) {
             commande.setStatut(Commande.StatutCommande.LIVREE);
@@ -251,6 +273,16 @@ public class MockCommandeService implements CommandeService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Publie le nouvel instantané puis le persiste. Les commandes d'un
+     * instantané publié ne sont plus modifiées : une mise à jour porte sur une
+     * copie ({@link #getCommandeById}).
+     */
+    private void publish(List<Commande> next) {
+        commandes = Collections.unmodifiableList(next);
+        mockDataManager.saveCommandes(next);
+    }
+    
     private String genererNumeroCommande() {
         LocalDate aujourd = LocalDate.now();
         String dateStr = aujourd.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
@@ -36,12 +36,13 @@ public class MockDevisService implements DevisService {
         return devisList;
     }
     
+    /** Seul le devis trouvé est copié, pour être modifié sans toucher au cache. */
     @Override
     public Devis getDevisById(Long id) {
-        return getAllDevis().stream()
+        return mockDataManager.copyOf(getAllDevis().stream()
                 .filter(d -> d.getId().equals(id))
                 .findFirst()
-                .orElse(null);
+                .orElse(null));
     }
     
     @Override
@@ -53,7 +54,7 @@ public class MockDevisService implements DevisService {
     }
     
     @Override
-    public Devis saveDevis(Devis devis) {
+    public synchronized Devis saveDevis(Devis devis) {
         List<Devis> devisList = new ArrayList<>(getAllDevis());
         
         if (devis.getId() == null) {
@@ -85,7 +86,7 @@ public class MockDevisService implements DevisService {
     }
     
     @Override
-    public void deleteDevis(Long id) {
+    public synchronized void deleteDevis(Long id) {
         List<Devis> devisList = getAllDevis().stream()
                 .filter(d -> !d.getId().equals(id))
                 .collect(Collectors.toList());
@@ -119,7 +120,7 @@ public class MockDevisService implements DevisService {
     }
     
     @Override
-    public Devis reviserDevis(Long devisId) {
+    public synchronized Devis reviserDevis(Long devisId) {
         Devis devisOriginal = getDevisById(devisId);
         if (devisOriginal == null) {
             throw new RuntimeException("Devis non trouvé");
@@ -139,7 +140,7 @@ public class MockDevisService implements DevisService {
     }
     
     @Override
-    public void transformerEnBonCommande(Long devisId) {
+    public synchronized void transformerEnBonCommande(Long devisId) {
         Devis devis = getDevisById(devisId);
         if (devis == null) {
             throw new RuntimeException("Devis non trouvé");
@@ -156,14 +157,14 @@ public class MockDevisService implements DevisService {
     }
     
     @Override
-    public void marquerExpires() {
+    public synchronized void marquerExpires() {
         List<Devis> devisExpires = getAllDevis().stream()
                 .filter(d -> d.getDateValidite() != null && 
                            d.getDateValidite().isBefore(LocalDate.now()) && 
                            d.getStatut() == Devis.StatutDevis.ENVOYE)
                 .collect(Collectors.toList());
         
-        devisExpires.forEach(devis -> {
+        devisExpires.stream().map(mockDataManager::copyOf).forEach(devis -> {
             devis.setStatut(Devis.StatutDevis.EXPIRE);
             saveDevis(devis);
         });
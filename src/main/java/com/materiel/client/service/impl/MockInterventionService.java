@@ -2,139 +2,136 @@ package com.materiel.client.service.impl;
 
 import com.materiel.client.model.Intervention;
 import com.materiel.client.service.InterventionService;
+import com.materiel.client.mock.InterventionIndex;
 import com.materiel.client.mock.MockDataManager;
+import com.materiel.client.util.ConflictEngine;
 
 import java.time.LocalDate;
-import java.util.List;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
- * Implémentation Mock du service Intervention
+ * Implémentation Mock du service Intervention.
+ * <p>
+ * Les index (par jour, par ressource, conflits) sont construits partition
+ * mensuelle par partition mensuelle, à la demande, et reconstruits quand la
+ * révision de la partition change. Une requête par période ou une
+ * vérification de conflit ne lit que les mois concernés ; seuls les
+ * {@link #INDEXED_PARTITIONS} index les plus récemment utilisés restent en
+ * mémoire. Les écritures ne réécrivent que la partition concernée.
  */
 public class MockInterventionService implements InterventionService {
     
+    /** Nombre d'index de partitions gardés en mémoire. */
+    private static final int INDEXED_PARTITIONS = 6;
+    
+    /** Index d'une partition, valable tant que sa révision n'a pas changé. */
+    private record PartitionIndex(long revision, InterventionIndex interventions, ConflictEngine conflicts) {}
+    
     private final MockDataManager mockDataManager;
+    private final Map<String, PartitionIndex> indexes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PartitionIndex> eldest) {
+            return size() > INDEXED_PARTITIONS;
+        }
+    };
     
     public MockInterventionService() {
         this.mockDataManager = MockDataManager.getInstance();
     }
     
+    /** Index de la partition, reconstruit si elle a changé depuis. */
+    private PartitionIndex indexOf(String partition) {
+        // Révision lue avant le chargement : une écriture concurrente rendra l'index périmé
+        long revision = mockDataManager.getInterventionPartitionRevision(partition);
+        synchronized (indexes) {
+            PartitionIndex current = indexes.get(partition);
+            if (current != null && current.revision() == revision) {
+                return current;
+            }
+        }
+        List<Intervention> items = mockDataManager.getInterventionPartition(partition);
+        // L'index garde ses copies : un déplacement annulé dans le planning ne le modifie pas
+        InterventionIndex interventions = new InterventionIndex(mockDataManager::copyOf);
+        interventions.rebuild(items);
+        ConflictEngine conflicts = new ConflictEngine();
+        conflicts.rebuild(items);
+        PartitionIndex built = new PartitionIndex(revision, interventions, conflicts);
+        synchronized (indexes) {
+            indexes.put(partition, built);
+        }
+        return built;
+    }
+    
     @Override
     public List<Intervention> getAllInterventions() {
-        return mockDataManager.getInterventions();
+        return mockDataManager.getInterventions().stream()
+                .map(mockDataManager::copyOf)
+                .collect(Collectors.toList());
     }
     
     @Override
     public List<Intervention> getInterventionsByDateRange(LocalDate startDate, LocalDate endDate) {
-        return getAllInterventions().stream()
-                .filter(intervention -> {
-                    if (intervention.getDateDebut() == null) return false;
-                    LocalDate interventionDate = intervention.getDateDebut().toLocalDate();
-                    return !interventionDate.isBefore(startDate) && !interventionDate.isAfter(endDate);
-                })
-                .collect(Collectors.toList());
+        List<Intervention> result = new ArrayList<>();
+        for (String partition : mockDataManager.getInterventionPartitions(startDate, endDate)) {
+            result.addAll(indexOf(partition).interventions().findByDateRange(startDate, endDate));
+        }
+        return result;
     }
     
     @Override
     public Intervention getInterventionById(Long id) {
-        return getAllInterventions().stream()
-                .filter(i -> i.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return mockDataManager.copyOf(mockDataManager.getIntervention(id));
     }
     
     @Override
     public Intervention saveIntervention(Intervention intervention) {
-        List<Intervention> interventions = new ArrayList<>(getAllInterventions());
-        
-        if (intervention.getId() == null) {
-            // Nouvelle intervention
-            Long maxId = interventions.stream()
-                    .mapToLong(Intervention::getId)
-                    .max()
-                    .orElse(0L);
-            intervention.setId(maxId + 1);
-            interventions.add(intervention);
-        } else {
-            // Mise à jour
-            for (int i = 0; i < interventions.size(); i++) {
-                if (interventions.get(i).getId().equals(intervention.getId())) {
-                    interventions.set(i, intervention);
-                    break;
-                }
-            }
-        }
-        
-        mockDataManager.saveInterventions(interventions);
+        mockDataManager.saveIntervention(intervention);
         return intervention;
     }
     
     @Override
     public void deleteIntervention(Long id) {
-        List<Intervention> interventions = getAllInterventions().stream()
-                .filter(i -> !i.getId().equals(id))
-                .collect(Collectors.toList());
-        mockDataManager.saveInterventions(interventions);
+        mockDataManager.deleteIntervention(id);
     }
     
     @Override
     public List<Intervention> getInterventionsByClient(Long clientId) {
-        return getAllInterventions().stream()
+        return mockDataManager.getInterventions().stream()
                 .filter(i -> i.getClient() != null && i.getClient().getId().equals(clientId))
+                .map(mockDataManager::copyOf)
                 .collect(Collectors.toList());
     }
     
+    /** Parcourt les partitions une à une : seuls les derniers index restent en mémoire. */
     @Override
     public List<Intervention> getInterventionsByResource(Long resourceId) {
-        return getAllInterventions().stream()
-                .filter(i -> i.getRessources() != null && 
-                           i.getRessources().stream().anyMatch(r -> r.getId().equals(resourceId)))
-                .collect(Collectors.toList());
+        List<Intervention> result = new ArrayList<>();
+        for (String partition : mockDataManager.getInterventionPartitions()) {
+            result.addAll(indexOf(partition).interventions().findByResource(resourceId));
+        }
+        return result;
     }
     
+    /**
+     * Ne consulte que les mois couverts par l'intervention, plus le mois
+     * précédent pour les interventions commencées avant et encore en cours.
+     */
     @Override
     public boolean hasConflict(Intervention intervention) {
-        if (intervention.getRessources() == null || intervention.getRessources().isEmpty()) {
+        if (intervention.getDateDebut() == null || intervention.getDateFin() == null) {
             return false;
         }
-        
-        // Vérifier les conflits pour chaque ressource
-        List<Intervention> existingInterventions = getInterventionsByDateRange(
-            intervention.getDateDebut().toLocalDate(),
-            intervention.getDateFin().toLocalDate()
-        );
-        
-        for (Intervention existing : existingInterventions) {
-            // Ignorer l'intervention elle-même si c'est une mise à jour
-            if (intervention.getId() != null && intervention.getId().equals(existing.getId())) {
-                continue;
-            }
-            
-            // Vérifier le chevauchement temporel
-            if (hasTimeOverlap(intervention, existing)) {
-                // Vérifier si les ressources se chevauchent
-                if (hasResourceOverlap(intervention, existing)) {
-                    return true;
-                }
+        LocalDate from = intervention.getDateDebut().toLocalDate().minusMonths(1);
+        LocalDate to = intervention.getDateFin().toLocalDate();
+        for (String partition : mockDataManager.getInterventionPartitions(from, to)) {
+            if (indexOf(partition).conflicts().hasConflict(intervention)) {
+                return true;
             }
         }
-        
         return false;
     }
-    
-    private boolean hasTimeOverlap(Intervention intervention1, Intervention intervention2) {
-        return intervention1.getDateDebut().isBefore(intervention2.getDateFin()) &&
-               intervention1.getDateFin().isAfter(intervention2.getDateDebut());
-    }
-    
-    private boolean hasResourceOverlap(Intervention intervention1, Intervention intervention2) {
-        if (intervention1.getRessources() == null || intervention2.getRessources() == null) {
-            return false;
-        }
-        
-        return intervention1.getRessources().stream()
-                .anyMatch(r1 -> intervention2.getRessources().stream()
-                        .anyMatch(r2 -> r1.getId().equals(r2.getId())));
-    }
-} 
+}
@@ -33,16 +33,17 @@ public class MockResourceService implements ResourceService {
                 .collect(Collectors.toList());
     }
     
+    /** Copie modifiable ; les ressources des listes sont partagées avec le cache. */
     @Override
     public Resource getResourceById(Long id) {
-        return getAllResources().stream()
+        return mockDataManager.copyOf(getAllResources().stream()
                 .filter(r -> r.getId().equals(id))
                 .findFirst()
-                .orElse(null);
+                .orElse(null));
     }
     
     @Override
-    public Resource saveResource(Resource resource) {
+    public synchronized Resource saveResource(Resource resource) {
         List<Resource> resources = new ArrayList<>(getAllResources());
         
         if (resource.getId() == null) {
@@ -68,7 +69,7 @@ public class MockResourceService implements ResourceService {
     }
     
     @Override
-    public void deleteResource(Long id) {
+    public synchronized void deleteResource(Long id) {
         List<Resource> resources = getAllResources().stream()
                 .filter(r -> !r.getId().equals(id))
                 .collect(Collectors.toList());
@@ -85,7 +86,7 @@ public class MockResourceService implements ResourceService {
     @Override
     public boolean isResourceAvailable(Long resourceId, LocalDate startDate, LocalDate endDate) {
         // Pour le mock, on simule une vérification simple
-        Resource resource = getResourceById(resourceId);
-        return resource != null && resource.isDisponible();
+        return getAllResources().stream()
+                .anyMatch(r -> r.getId().equals(resourceId) && r.isDisponible());
     }
 } 
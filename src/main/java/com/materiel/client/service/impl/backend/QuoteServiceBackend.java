@@ -1,11 +1,14 @@
 package com.materiel.client.service.impl.backend;
 
-import com.materiel.client.backend.api.QuotesApi;
+import com.materiel.client.backend.api.DefaultApi;
 import com.materiel.client.backend.invoker.ApiClient;
 import com.materiel.client.backend.invoker.ApiException;
+import com.materiel.client.backend.invoker.ApiResponse;
 import com.materiel.client.backend.model.Quote;
+import com.materiel.client.service.Page;
 import com.materiel.client.service.QuoteService;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -13,21 +16,50 @@ import java.util.UUID;
  * Implémentation backend du service de devis.
  */
 public class QuoteServiceBackend implements QuoteService {
-    private final QuotesApi api;
+    /** En-tête de réponse portant le curseur de la page suivante. */
+    static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    private final DefaultApi api;
 
     public QuoteServiceBackend(ApiClient client) {
-        this.api = new QuotesApi(client);
+        this.api = new DefaultApi(client);
     }
 
+    /** Suit les curseurs si le serveur pagine de lui-même. */
     @Override
     public List<Quote> list() {
         try {
-            return api.listQuotes();
+            Page<Quote> page = page(api.listQuotesWithHttpInfo(null, null));
+            List<Quote> quotes = new ArrayList<>(page.items());
+            while (page.hasNext()) {
+                page = page(api.listQuotesWithHttpInfo(page.nextCursor(), null));
+                quotes.addAll(page.items());
+            }
+            return quotes;
         } catch (ApiException e) {
             throw new RuntimeException("API error", e);
         }
     }
 
+    @Override
+    public Page<Quote> listPage(String cursor, int limit) {
+        try {
+            return page(api.listQuotesWithHttpInfo(cursor, limit));
+        } catch (ApiException e) {
+            throw new RuntimeException("API error", e);
+        }
+    }
+
+    private static Page<Quote> page(ApiResponse<List<Quote>> response) {
+        List<Quote> items = response.getData() != null ? response.getData() : List.of();
+        String next = null;
+        List<String> values = response.getHeaders() != null ? response.getHeaders().get(NEXT_CURSOR) : null;
+        if (values != null && !values.isEmpty() && !values.get(0).isBlank()) {
+            next = values.get(0);
+        }
+        return new Page<>(items, next);
+    }
+
     @Override
     public Quote get(UUID id) {
         try {
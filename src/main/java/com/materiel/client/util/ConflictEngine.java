@@ -0,0 +1,186 @@
+package com.materiel.client.util;
+
+import com.materiel.client.model.Intervention;
+import com.materiel.client.model.Resource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Détection des conflits de ressources entre interventions.
+ * <p>
+ * Deux interventions sont en conflit si elles partagent une ressource et que
+ * leurs créneaux se chevauchent strictement. L'instance maintient, par
+ * ressource, les créneaux triés par date de début : une vérification ne
+ * parcourt que les créneaux voisins au lieu de tout l'historique, et l'index
+ * est mis à jour incrémentalement via {@link #index} et {@link #remove}.
+ * Les méthodes statiques calculent tous les conflits d'une fenêtre en un seul
+ * balayage.
+ */
+public final class ConflictEngine {
+
+    /** Paire d'interventions en conflit sur une ressource. */
+    public record Conflict(Intervention first, Intervention second, Long resourceId) {}
+
+    /** Créneau indexé : les dates sont figées au moment de l'indexation. */
+    private record Slot(Intervention intervention, LocalDateTime start, LocalDateTime end, List<Long> resourceIds) {}
+
+    /** Créneaux d'une ressource triés par début. */
+    private static final class Timeline {
+        final NavigableMap<LocalDateTime, List<Slot>> byStart = new TreeMap<>();
+        // Durée maximale observée : borne la recherche vers le passé
+        Duration maxDuration = Duration.ZERO;
+    }
+
+    private final Map<Long, Timeline> timelines = new HashMap<>();
+    private final Map<Long, Slot> indexed = new HashMap<>();
+
+    /** Reconstruit entièrement l'index. */
+    public synchronized void rebuild(Collection<Intervention> interventions) {
+        timelines.clear();
+        indexed.clear();
+        for (Intervention i : interventions) {
+            index(i);
+        }
+    }
+
+    /** Ajoute ou remplace une intervention dans l'index. */
+    public synchronized void index(Intervention intervention) {
+        if (intervention.getId() != null) {
+            remove(intervention.getId());
+        }
+        if (!isSchedulable(intervention)) {
+            return;
+        }
+        List<Long> resourceIds = new ArrayList<>();
+        for (Resource r : intervention.getRessources()) {
+            if (r != null && r.getId() != null && !resourceIds.contains(r.getId())) {
+                resourceIds.add(r.getId());
+            }
+        }
+        Slot slot = new Slot(intervention, intervention.getDateDebut(), intervention.getDateFin(), resourceIds);
+        if (intervention.getId() != null) {
+            indexed.put(intervention.getId(), slot);
+        }
+        Duration duration = Duration.between(slot.start(), slot.end());
+        for (Long resourceId : resourceIds) {
+            Timeline t = timelines.computeIfAbsent(resourceId, k -> new Timeline());
+            t.byStart.computeIfAbsent(slot.start(), k -> new ArrayList<>(1)).add(slot);
+            if (duration.compareTo(t.maxDuration) > 0) {
+                t.maxDuration = duration;
+            }
+        }
+    }
+
+    /** Retire une intervention de l'index. */
+    public synchronized void remove(Long interventionId) {
+        Slot previous = indexed.remove(interventionId);
+        if (previous == null) {
+            return;
+        }
+        for (Long resourceId : previous.resourceIds()) {
+            Timeline t = timelines.get(resourceId);
+            if (t == null) continue;
+            List<Slot> sameStart = t.byStart.get(previous.start());
+            if (sameStart == null) continue;
+            sameStart.remove(previous);
+            if (sameStart.isEmpty()) {
+                t.byStart.remove(previous.start());
+            }
+        }
+    }
+
+    /**
+     * Indique si l'intervention chevauche une intervention indexée sur l'une
+     * de ses ressources (l'intervention elle-même est ignorée).
+     */
+    public synchronized boolean hasConflict(Intervention intervention) {
+        if (!isSchedulable(intervention)) {
+            return false;
+        }
+        LocalDateTime start = intervention.getDateDebut();
+        LocalDateTime end = intervention.getDateFin();
+        for (Resource r : intervention.getRessources()) {
+            if (r == null || r.getId() == null) continue;
+            Timeline t = timelines.get(r.getId());
+            if (t == null) continue;
+            for (List<Slot> candidates : t.byStart.subMap(start.minus(t.maxDuration), true, end, false).values()) {
+                for (Slot other : candidates) {
+                    if (isSameIntervention(intervention, other.intervention())) continue;
+                    if (other.end().isAfter(start)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calcule toutes les paires en conflit d'un ensemble d'interventions en
+     * un balayage par ressource (tri par début, file des créneaux ouverts
+     * ordonnée par fin).
+     */
+    public static List<Conflict> findConflicts(Collection<Intervention> interventions) {
+        Map<Long, List<Intervention>> byResource = new HashMap<>();
+        for (Intervention i : interventions) {
+            if (!isSchedulable(i)) continue;
+            for (Resource r : i.getRessources()) {
+                if (r == null || r.getId() == null) continue;
+                byResource.computeIfAbsent(r.getId(), k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        List<Conflict> conflicts = new ArrayList<>();
+        Comparator<Intervention> byEnd = Comparator.comparing(Intervention::getDateFin);
+        for (Map.Entry<Long, List<Intervention>> e : byResource.entrySet()) {
+            List<Intervention> list = e.getValue();
+            if (list.size() < 2) continue;
+            list.sort(Comparator.comparing(Intervention::getDateDebut));
+            PriorityQueue<Intervention> open = new PriorityQueue<>(byEnd);
+            for (Intervention current : list) {
+                while (!open.isEmpty() && !open.peek().getDateFin().isAfter(current.getDateDebut())) {
+                    open.poll();
+                }
+                for (Intervention other : open) {
+                    if (!isSameIntervention(current, other)) {
+                        conflicts.add(new Conflict(other, current, e.getKey()));
+                    }
+                }
+                open.add(current);
+            }
+        }
+        return conflicts;
+    }
+
+    /** Interventions impliquées dans au moins un conflit. */
+    public static Set<Intervention> findConflicting(Collection<Intervention> interventions) {
+        Set<Intervention> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Conflict c : findConflicts(interventions)) {
+            result.add(c.first());
+            result.add(c.second());
+        }
+        return result;
+    }
+
+    private static boolean isSchedulable(Intervention i) {
+        return i != null && i.getDateDebut() != null && i.getDateFin() != null
+                && i.getRessources() != null && !i.getRessources().isEmpty();
+    }
+
+    private static boolean isSameIntervention(Intervention a, Intervention b) {
+        return a == b || (a.getId() != null && a.getId().equals(b.getId()));
+    }
+}
@@ -11,6 +11,8 @@ import java.awt.RenderingHints;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
 
 import javax.swing.JFrame;
 import javax.swing.JMenu;
@@ -21,6 +23,9 @@ import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
 
 import com.materiel.client.config.AppConfig;
+import com.materiel.client.mock.MockDataManager;
+import com.materiel.client.service.AsyncServices;
+import com.materiel.client.service.AsyncServices.PlanningData;
 import com.materiel.client.controller.EventBus;
 import com.materiel.client.controller.events.MenuSelectionEvent;
 import com.materiel.client.view.commande.OrdersPanel;
@@ -58,8 +63,8 @@ public class MainFrame extends JFrame {
         setupFrame();
         setupEventListeners();
 
-        // Afficher le planning par défaut
-        showPlanningPanel();
+        // Afficher le planning par défaut (son chargement est déjà lancé)
+        ((CardLayout) contentPanel.getLayout()).show(contentPanel, "PLANNING");
     }
     
     private void initComponents() {
@@ -96,10 +101,14 @@ public class MainFrame extends JFrame {
     }
     
     private void initContentPanels() {
-        planningPanel = new PlanningPanel();
+        // Un seul chargement parallèle au démarrage, partagé par le planning
+        // et les listes de clients et de ressources
+        LocalDate weekStart = PlanningPanel.getStartOfWeek(LocalDate.now());
+        CompletableFuture<PlanningData> startup = AsyncServices.loadPlanning(weekStart, weekStart.plusDays(6));
+        planningPanel = new PlanningPanel(startup);
         devisListPanel = new DevisListPanel();
-        clientListPanel = new ClientListPanel();
-        resourceListPanel = new ResourceListPanel();
+        clientListPanel = new ClientListPanel(startup.thenApply(PlanningData::clients));
+        resourceListPanel = new ResourceListPanel(startup.thenApply(PlanningData::resources));
         ordersPanel = new OrdersPanel();
         deliveryNotesPanel = new DeliveryNotesPanel();
         invoicesPanel = new InvoicesPanel();
@@ -250,6 +259,11 @@ public class MainFrame extends JFrame {
             // Sauvegarder la configuration
             AppConfig.getInstance().saveConfiguration();
             
+            // Attendre la fin des écritures différées du mode Mock
+            if (AppConfig.getInstance().isMockMode()) {
+                MockDataManager.getInstance().flushPendingWrites();
+            }
+            
             // Nettoyer les ressources
             EventBus.getInstance().clear();
             dispose();
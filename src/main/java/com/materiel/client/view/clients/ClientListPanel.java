@@ -11,6 +11,8 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Panel de liste des clients avec fonctionnalités CRUD
@@ -27,9 +29,18 @@ public class ClientListPanel extends JPanel {
     private List<Client> clientsList;
     
     public ClientListPanel() {
+        this(null);
+    }
+    
+    /** @param initialLoad clients déjà demandés au démarrage, ou null pour les charger ici */
+    public ClientListPanel(CompletableFuture<List<Client>> initialLoad) {
         clientsList = new ArrayList<>();
         initComponents();
-        loadData();
+        if (initialLoad != null) {
+            showLoad(initialLoad);
+        } else {
+            loadData();
+        }
     }
     
     private void initComponents() {
@@ -192,18 +203,25 @@ public class ClientListPanel extends JPanel {
     }
     
     private void loadData() {
-        SwingUtilities.invokeLater(() -> {
-            try {
-                ClientService clientService = ServiceFactory.getClientService();
-                clientsList = clientService.getAllClients();
-                
-                tableModel.fireTableDataChanged();
-            } catch (Exception e) {
+        // Chargement hors de l'EDT : les autres écrans se chargent en parallèle
+        ClientService clientService = ServiceFactory.getClientService();
+        showLoad(clientService.getAllClientsAsync());
+    }
+    
+    private void showLoad(CompletableFuture<List<Client>> load) {
+        load.whenComplete((list, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
                 JOptionPane.showMessageDialog(this,
-                    "Erreur lors du chargement des clients: " + e.getMessage(),
+                    "Erreur lors du chargement des clients: " + cause.getMessage(),
                     "Erreur", JOptionPane.ERROR_MESSAGE);
+                return;
             }
-        });
+            clientsList = list;
+            
+            tableModel.fireTableDataChanged();
+        }));
     }
     
     public void refreshData() {
@@ -253,7 +271,12 @@ public class ClientListPanel extends JPanel {
     private void editSelectedClient() {
         int selectedRow = clientTable.getSelectedRow();
         if (selectedRow >= 0) {
-            Client client = clientsList.get(selectedRow);
+            // Le dialogue modifie le client en place : on édite une copie
+            Client client = ServiceFactory.getClientService().getClientById(clientsList.get(selectedRow).getId());
+            if (client == null) {
+                refreshData();
+                return;
+            }
             
             ClientEditDialog dialog = new ClientEditDialog((Frame) SwingUtilities.getWindowAncestor(this), client);
             dialog.setVisible(true);
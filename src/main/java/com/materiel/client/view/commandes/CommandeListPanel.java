@@ -324,7 +324,12 @@ public class CommandeListPanel extends JPanel {
     private void editSelectedCommande() {
         int selectedRow = commandeTable.getSelectedRow();
         if (selectedRow >= 0) {
-            Commande commande = filteredCommandesList.get(selectedRow);
+            // Le dialogue modifie la commande en place : on édite une copie
+            Commande commande = ServiceFactory.getCommandeService().getCommandeById(filteredCommandesList.get(selectedRow).getId());
+            if (commande == null) {
+                refreshData();
+                return;
+            }
             
             if (!commande.peutEtreModifiee()) {
                 JOptionPane.showMessageDialog(this,
@@ -1,11 +1,16 @@
 package com.materiel.client.view.components;
 
 import com.materiel.client.config.AppConfig;
+import com.materiel.client.controller.EventBus;
+import com.materiel.client.controller.events.LoadingEvent;
+import com.materiel.client.controller.events.StorageErrorEvent;
 
 import javax.swing.*;
 import java.awt.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Barre de statut en bas de l'application
@@ -15,12 +20,24 @@ public class StatusBarPanel extends JPanel {
     private JLabel modeLabel;
     private JLabel connectionLabel;
     private JLabel timeLabel;
+    private JLabel loadingLabel;
+    private JProgressBar loadingBar;
     private Timer timeTimer;
+    private final Map<String, String> activeLoads = new LinkedHashMap<>();
     
     public StatusBarPanel() {
         initComponents();
         setupPanel();
         startTimeUpdater();
+        EventBus.getInstance().subscribe(LoadingEvent.class, event -> {
+            if (SwingUtilities.isEventDispatchThread()) {
+                onLoadingEvent(event);
+            } else {
+                SwingUtilities.invokeLater(() -> onLoadingEvent(event));
+            }
+        });
+        EventBus.getInstance().subscribe(StorageErrorEvent.class,
+            event -> SwingUtilities.invokeLater(() -> onStorageError(event)));
     }
     
     private void initComponents() {
@@ -43,11 +60,20 @@ public class StatusBarPanel extends JPanel {
         leftPanel.add(new JSeparator(SwingConstants.VERTICAL));
         leftPanel.add(connectionLabel);
         
-        // Panel droite - Heure
+        // Panel droite - Chargement en cours et heure
         JPanel rightPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 3));
         rightPanel.setOpaque(false);
         
+        loadingLabel = new JLabel();
+        loadingBar = new JProgressBar();
+        loadingBar.setIndeterminate(true);
+        loadingBar.setPreferredSize(new Dimension(100, 12));
+        loadingLabel.setVisible(false);
+        loadingBar.setVisible(false);
+        
         timeLabel = new JLabel();
+        rightPanel.add(loadingLabel);
+        rightPanel.add(loadingBar);
         rightPanel.add(timeLabel);
         
         add(leftPanel, BorderLayout.WEST);
@@ -92,6 +118,27 @@ public class StatusBarPanel extends JPanel {
         timeLabel.setText(timeText);
     }
     
+    private void onLoadingEvent(LoadingEvent event) {
+        if (event.getType() == LoadingEvent.Type.STARTED) {
+            activeLoads.put(event.getSource(), event.getMessage());
+        } else {
+            activeLoads.remove(event.getSource());
+        }
+        
+        boolean loading = !activeLoads.isEmpty();
+        loadingLabel.setText(loading ? activeLoads.values().iterator().next() : "");
+        loadingLabel.setVisible(loading);
+        loadingBar.setVisible(loading);
+        revalidate();
+        repaint();
+    }
+    
+    private void onStorageError(StorageErrorEvent event) {
+        connectionLabel.setText("🔴 Échec d'enregistrement : " + event.getFile());
+        connectionLabel.setToolTipText(event.getMessage());
+        connectionLabel.setForeground(Color.decode("#EF4444"));
+    }
+    
     public void updateStatus() {
         updateModeLabel();
         updateConnectionStatus();
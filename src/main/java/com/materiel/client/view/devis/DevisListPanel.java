@@ -272,7 +272,12 @@ public class DevisListPanel extends JPanel {
     private void editSelectedDevis() {
         int selectedRow = devisTable.getSelectedRow();
         if (selectedRow >= 0) {
-            Devis devis = devisList.get(selectedRow);
+            // Le dialogue modifie le devis en place : on édite une copie
+            Devis devis = ServiceFactory.getDevisService().getDevisById(devisList.get(selectedRow).getId());
+            if (devis == null) {
+                refreshData();
+                return;
+            }
             
             DevisEditDialog dialog = new DevisEditDialog((Frame) SwingUtilities.getWindowAncestor(this), devis);
             dialog.setVisible(true);
@@ -337,7 +337,12 @@ public class BonLivraisonListPanel extends JPanel {
     private void editSelectedBonLivraison() {
         int selectedRow = bonLivraisonTable.getSelectedRow();
         if (selectedRow >= 0) {
-            BonLivraison bonLivraison = filteredBonLivraisonList.get(selectedRow);
+            // Le dialogue modifie le bon en place : on édite une copie
+            BonLivraison bonLivraison = ServiceFactory.getBonLivraisonService().getBonLivraisonById(filteredBonLivraisonList.get(selectedRow).getId());
+            if (bonLivraison == null) {
+                refreshData();
+                return;
+            }
             
             if (!bonLivraison.peutEtreModifie()) {
                 JOptionPane.showMessageDialog(this,
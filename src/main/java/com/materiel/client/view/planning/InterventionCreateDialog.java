@@ -44,6 +44,7 @@ public class InterventionCreateDialog extends JDialog {
     private Intervention intervention;
     private boolean confirmed = false;
     private boolean hasConflict;
+    private final List<Client> clients; // déjà chargés par l'appelant, sinon null
     
     // Composants UI
     private JTextField titreField;
@@ -59,8 +60,19 @@ public class InterventionCreateDialog extends JDialog {
     public InterventionCreateDialog(Frame parent, Resource resource, 
                                    LocalDateTime dateDebut, LocalDateTime dateFin, 
                                    boolean hasConflict) {
+        this(parent, resource, dateDebut, dateFin, hasConflict, null);
+    }
+    
+    /**
+     * @param clients liste des clients déjà chargée (par exemple avec le planning),
+     *                ou null pour la lire à l'ouverture du dialogue
+     */
+    public InterventionCreateDialog(Frame parent, Resource resource, 
+                                   LocalDateTime dateDebut, LocalDateTime dateFin, 
+                                   boolean hasConflict, List<Client> clients) {
         super(parent, "Nouvelle Intervention", true);
         this.hasConflict = hasConflict;
+        this.clients = clients;
         
         // Créer l'intervention avec la ressource
         this.intervention = new Intervention();
@@ -228,8 +240,8 @@ public class InterventionCreateDialog extends JDialog {
     
     private void loadClients() {
         try {
-            List<Client> clients = MockDataManager.getInstance().getClients();
-            for (Client client : clients) {
+            List<Client> list = clients != null ? clients : MockDataManager.getInstance().getClients();
+            for (Client client : list) {
                 clientComboBox.addItem(client);
             }
         } catch (Exception e) {
@@ -4,7 +4,6 @@ import static com.materiel.client.util.UIConstants.*;
 
 import java.awt.Rectangle;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
@@ -12,6 +11,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
+import com.materiel.client.view.planning.layout.LaneAllocator;
+
 /**
  * Outils de calcul des "lanes" : colonnes et pistes verticales pour
  * l'agencement des tuiles de planning.
@@ -45,36 +46,59 @@ public final class LaneLayout {
         }, rowUsableWidth);
     }
 
+    /**
+     * Colonnes issues du balayage d'une ligne. Elles ne dépendent que des
+     * horaires : un changement de zoom peut les réutiliser via
+     * {@link #toLanes(Columns, int)}.
+     */
+    public static final class Columns<T> {
+        private final List<T> items;   // triés par début
+        private final int[] col;
+        public final int maxCols;
+
+        private Columns(List<T> items, int[] col, int maxCols) {
+            this.items = items; this.col = col; this.maxCols = maxCols;
+        }
+
+        public boolean isEmpty() { return items.isEmpty(); }
+    }
+
     /** Calcule colonnes + tracks à partir d'une liste d'items chevauchants. */
     public static <T> Map<T, Lane> computeLanes(List<T> items, StartEnd<T> se, int rowUsableWidth) {
         if (items == null || items.isEmpty()) return Collections.emptyMap();
+        return toLanes(assignColumns(items, se), rowUsableWidth);
+    }
+
+    /** Sweep-line : affecte à chaque item la 1ère colonne libre (trie {@code items} par début). */
+    public static <T> Columns<T> assignColumns(List<T> items, StartEnd<T> se) {
+        if (items == null || items.isEmpty()) return new Columns<>(Collections.emptyList(), new int[0], 0);
         items.sort(Comparator.comparing(se::start));
 
-        // Sweep-line : 1ère colonne libre
-        List<T> open = new ArrayList<>();
-        Map<T,Integer> col = new LinkedHashMap<>();
-        int maxCols = 0;
-        for (T it : items) {
-            LocalDateTime s = se.start(it);
-            open.removeIf(o -> !se.end(o).isAfter(s));
-            boolean[] used = new boolean[open.size()+1];
-            for (T o : open) used[col.get(o)] = true;
-            int idx = 0; while (idx < used.length && used[idx]) idx++;
-            col.put(it, idx);
-            open.add(it);
-            maxCols = Math.max(maxCols, idx+1);
+        int n = items.size();
+        int[] col = new int[n];
+        LaneAllocator lanes = new LaneAllocator(n);
+        for (int i = 0; i < n; i++) {
+            T it = items.get(i);
+            lanes.release(LaneAllocator.key(se.start(it)));
+            col[i] = lanes.acquire(LaneAllocator.key(se.end(it)));
         }
+        return new Columns<>(items, col, lanes.columnCount());
+    }
 
+    /** Répartit des colonnes déjà calculées en tracks pour la largeur donnée. */
+    public static <T> Map<T, Lane> toLanes(Columns<T> columns, int rowUsableWidth) {
+        if (columns.isEmpty()) return Collections.emptyMap();
+        int maxCols = columns.maxCols;
         int tracks = Math.max(1,
                 (int) Math.ceil((maxCols * 1.0 * MIN_TILE_WIDTH) / Math.max(1, rowUsableWidth)));
         int colsPerTrack = (int) Math.ceil(maxCols * 1.0 / tracks);
 
         Map<T, Lane> out = new LinkedHashMap<>();
-        for (T it : items) {
-            int k = col.get(it);
+        for (int i = 0; i < columns.col.length; i++) {
+            int k = columns.col[i];
             int track = k % tracks;
             int indexWithinTrack = k / tracks;
-            out.put(it, new Lane(indexWithinTrack, colsPerTrack, track, tracks));
+            out.put(columns.items.get(i), new Lane(indexWithinTrack, colsPerTrack, track, tracks));
         }
         return out;
     }
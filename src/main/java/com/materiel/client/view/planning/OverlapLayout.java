@@ -1,14 +1,13 @@
 package com.materiel.client.view.planning;
 
 import com.materiel.client.model.Intervention;
+import com.materiel.client.view.planning.layout.LaneAllocator;
 
 import java.awt.Rectangle;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Utility to assign overlapping interventions to columns (lanes).
@@ -62,9 +61,9 @@ public final class OverlapLayout {
         sorted.sort(Comparator.comparing(Intervention::getDateDebut,
                 Comparator.nullsFirst(Comparator.naturalOrder())));
 
-        List<Lane> active = new ArrayList<>();
-        List<Lane> group = new ArrayList<>();
-        int maxCol = 0;
+        // colonnes allouées par tas (fins ouvertes + colonnes libres), groupe = bloc de chevauchements
+        LaneAllocator lanes = new LaneAllocator(sorted.size());
+        int groupStart = 0;
 
         for (Intervention i : sorted) {
             LocalDateTime start = i.getDateDebut();
@@ -76,46 +75,35 @@ public final class OverlapLayout {
                 continue;
             }
 
-            active.removeIf(l -> !l.getIntervention().getDateFin().isAfter(start));
+            lanes.release(LaneAllocator.key(start));
 
-            if (active.isEmpty() && !group.isEmpty()) {
-                int cols = maxCol + 1;
-                for (Lane l : group) {
-                    l.setColCount(cols);
-                }
-                group.clear();
-                maxCol = 0;
+            if (lanes.openCount() == 0 && lanes.columnCount() > 0) {
+                closeGroup(result, groupStart, lanes.columnCount());
+                lanes.reset();
+                groupStart = result.size();
             }
 
-            Set<Integer> used = new HashSet<>();
-            for (Lane l : active) {
-                used.add(l.getCol());
-            }
-
-            int col = 0;
-            while (used.contains(col)) {
-                col++;
-            }
-
-            Lane lane = new Lane(i, col);
-            active.add(lane);
-            group.add(lane);
+            Lane lane = new Lane(i, lanes.acquire(LaneAllocator.key(end)));
             result.add(lane);
-            if (col > maxCol) {
-                maxCol = col;
-            }
         }
 
-        if (!group.isEmpty()) {
-            int cols = maxCol + 1;
-            for (Lane l : group) {
-                l.setColCount(cols);
-            }
+        if (lanes.columnCount() > 0) {
+            closeGroup(result, groupStart, lanes.columnCount());
         }
 
         return result;
     }
 
+    /** Fixe le nombre de colonnes des lanes du groupe (les lanes sans horaires sont déjà à 1). */
+    private static void closeGroup(List<Lane> result, int from, int cols) {
+        for (int k = from; k < result.size(); k++) {
+            Lane l = result.get(k);
+            if (l.getColCount() == 0) {
+                l.setColCount(cols);
+            }
+        }
+    }
+
     /**
      * Compute tile bounds in cell units using the provided scale for vertical metrics.
      * @param i intervention
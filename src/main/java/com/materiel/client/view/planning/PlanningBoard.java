@@ -16,12 +16,15 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.swing.JComponent;
@@ -30,6 +33,8 @@ import javax.swing.SwingConstants;
 
 import com.materiel.client.model.Intervention;
 import com.materiel.client.util.UIConstants;
+import com.materiel.client.view.ui.ColorUtils;
+import com.materiel.client.view.ui.TextUtils;
 
 import com.materiel.client.view.planning.DefaultTimeGridModel;
 import com.materiel.client.view.planning.LaneLayout;
@@ -44,8 +49,8 @@ public final class PlanningBoard extends JComponent implements Scrollable {
     private final DefaultTimeGridModel gridModel;
     private LocalDate currentWeek;
     public TimeGridModel getTimeGridModel() { return gridModel; }
-    public void setWeek(LocalDate week) { this.currentWeek = week.with(DayOfWeek.MONDAY); gridModel.setWeek(currentWeek); relayoutAll(); }
-    public void setPxPerHour(int v) { gridModel.setPxPerHour(v); relayoutAll(); }
+    public void setWeek(LocalDate week) { this.currentWeek = week.with(DayOfWeek.MONDAY); gridModel.setWeek(currentWeek); relayoutGeometry(); }
+    public void setPxPerHour(int v) { gridModel.setPxPerHour(v); relayoutGeometry(); }
 
     // ----------------- Données d'affichage -----------------
     /** Ligne "ressource" affichée à gauche (nom + couleur). */
@@ -62,20 +67,84 @@ public final class PlanningBoard extends JComponent implements Scrollable {
     private final Map<UUID, List<Intervention>> byResource = new LinkedHashMap<>();
 
     // layout calculé
+    /** Horaires d'une tuile au moment de sa mise en page (détection des modifications en place). */
+    private record TileKey(Intervention it, LocalDateTime start, LocalDateTime end) {}
+
     private static final class RowLayout {
         int y;
         int height;
+        List<TileKey> keys = List.of();
+        LaneLayout.Columns<Intervention> columns;
         Map<Intervention, Rectangle> bounds = new LinkedHashMap<>();
         List<Intervention> z = new ArrayList<>();
+        // index spatial de la ligne : tuiles en ordre z, et leurs indices triés par x
+        Intervention[] tiles = new Intervention[0];
+        Rectangle[] rects = new Rectangle[0];
+        Integer[] byX = new Integer[0];
+        int maxTileWidth;
+
+        void buildIndex() {
+            tiles = z.toArray(new Intervention[0]);
+            rects = new Rectangle[tiles.length];
+            byX = new Integer[tiles.length];
+            maxTileWidth = 0;
+            for (int i = 0; i < tiles.length; i++) {
+                rects[i] = bounds.get(tiles[i]);
+                byX[i] = i;
+                maxTileWidth = Math.max(maxTileWidth, rects[i].width);
+            }
+            Arrays.sort(byX, Comparator.comparingInt(i -> rects[i].x));
+        }
+
+        /**
+         * Indices (ordre z croissant) des tuiles intersectant {@code area},
+         * écrits dans {@code out} ; renvoie leur nombre.
+         */
+        int visibleTiles(Rectangle area, int[] out) {
+            // 1ère tuile dont le x peut encore atteindre la zone
+            int minX = area.x - maxTileWidth;
+            int lo = 0, hi = byX.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (rects[byX[mid]].x < minX) lo = mid + 1; else hi = mid;
+            }
+            int n = 0;
+            int maxX = area.x + area.width;
+            for (int k = lo; k < byX.length; k++) {
+                int i = byX[k];
+                if (rects[i].x >= maxX) break;
+                if (rects[i].intersects(area)) out[n++] = i;
+            }
+            Arrays.sort(out, 0, n);
+            return n;
+        }
     }
     private final Map<UUID, RowLayout> rowLayouts = new LinkedHashMap<>();
-    private final Map<Intervention, Rectangle> tileBounds = new LinkedHashMap<>();
-    private final List<Intervention> zOrder = new ArrayList<>();
+    // lignes dans l'ordre d'affichage (y croissants) pour la recherche par bande
+    private RessourceRow[] rowOrder = new RessourceRow[0];
+    private RowLayout[] layoutOrder = new RowLayout[0];
+    private int[] visibleScratch = new int[0];
+    /** Lignes dont les colonnes doivent être recalculées au prochain relayout. */
+    private final Set<UUID> dirtyRows = new HashSet<>();
     private int totalHeight = 400;
 
     // interaction
     private Intervention active = null;
 
+    // rendu : palettes dérivées une seule fois, libellés mis en cache par tuile
+    private static final Color BASE_TILE_COLOR = new Color(0x88AACC);
+    private static final ColorUtils.TileColors TILE_COLORS = tileColors(BASE_TILE_COLOR, false);
+    private static final ColorUtils.TileColors SELECTED_COLORS = tileColors(BASE_TILE_COLOR, true);
+    private static final Color HANDLE_COLOR = new Color(0,0,0,30);
+    private static final Color GUTTER_BG = new Color(0xF7F7F9);
+    private static final Color GUTTER_BORDER = new Color(0xDDDDDD);
+    private static final Color GUTTER_TEXT = new Color(0x333333);
+    private static final Color ROW_SEPARATOR = new Color(0xE0E0E0);
+    private static final Color DAY_LINE = new Color(0xECEFF1);
+    private static final BasicStroke TILE_STROKE = new BasicStroke(UIConstants.TILE_BORDER);
+    private final TileRenderCache tileCache = new TileRenderCache();
+    private Font boldBase, boldFont;
+
     public PlanningBoard(LocalDate weekStart) {
         setOpaque(true);
         setBackground(Color.white);
@@ -95,54 +164,125 @@ public final class PlanningBoard extends JComponent implements Scrollable {
     }
 
     // ----------------- API de données -----------------
+    /**
+     * Remplace les données affichées. Seules les lignes dont le contenu ou les
+     * horaires ont changé sont recalculées ; les autres sont simplement décalées.
+     */
     public void setDonnees(List<RessourceRow> rows, Map<UUID, List<Intervention>> map) {
         this.ressources = rows != null ? new ArrayList<>(rows) : new ArrayList<>();
         this.byResource.clear();
         if (map != null) map.forEach((k,v) -> this.byResource.put(k, new ArrayList<>(v)));
-        relayoutAll();
+        for (RessourceRow r : ressources) {
+            RowLayout rl = rowLayouts.get(r.id);
+            if (rl == null || !rl.keys.equals(keysOf(byResource.get(r.id)))) dirtyRows.add(r.id);
+        }
+        relayout(false);
     }
 
-    // ----------------- Layout global -----------------
-    private void relayoutAll() {
-        tileBounds.clear(); zOrder.clear(); rowLayouts.clear();
+    /** Remplace les interventions d'une seule ligne et ne recalcule que celle-ci. */
+    public void updateRow(UUID rowId, List<Intervention> items) {
+        byResource.put(rowId, items != null ? new ArrayList<>(items) : new ArrayList<>());
+        dirtyRows.add(rowId);
+        relayout(false);
+    }
 
-        int y = 0;
+    /** À appeler après une modification en place (déplacement, redimensionnement) d'une intervention. */
+    public void invalidateIntervention(Intervention it) {
+        byResource.forEach((rowId, list) -> {
+            if (list.contains(it)) dirtyRows.add(rowId);
+        });
+        relayout(false);
+    }
+
+    // ----------------- Layout -----------------
+    void relayoutAll() {
+        for (RessourceRow r : ressources) dirtyRows.add(r.id);
+        relayout(false);
+    }
+
+    /** Zoom ou semaine : les colonnes en cache restent valides, seules les coordonnées changent. */
+    private void relayoutGeometry() {
+        relayout(true);
+    }
+
+    /**
+     * Parcourt les lignes dans l'ordre : les lignes sales sont recalculées,
+     * les autres réutilisent leurs colonnes (geometry) ou sont juste translatées.
+     */
+    private void relayout(boolean geometry) {
         // NB: pour un wrap "fort" dès 2 overlaps, mesure le wrap à l'échelle d'une ligne complète.
         // Si tu préfères le wrap par jour, adapte rowUsableWidth à 24h*pxPerHour.
         int rowUsableWidth = gridModel.getContentWidth();
 
+        Map<UUID, RowLayout> next = new LinkedHashMap<>();
+        int y = 0;
         for (RessourceRow r : ressources) {
-            List<Intervention> list = byResource.getOrDefault(r.id, Collections.emptyList());
-            RowLayout rl = layoutOneRowWithWrap(list, rowUsableWidth, y);
-            rowLayouts.put(r.id, rl);
+            RowLayout rl = rowLayouts.get(r.id);
+            if (rl == null || dirtyRows.contains(r.id)) {
+                rl = computeColumns(byResource.getOrDefault(r.id, Collections.emptyList()));
+                placeTiles(rl, rowUsableWidth, y);
+            } else if (geometry) {
+                placeTiles(rl, rowUsableWidth, y);
+            } else if (rl.y != y) {
+                int dy = y - rl.y;
+                for (Rectangle b : rl.bounds.values()) b.translate(0, dy);
+                rl.y = y;
+            }
+            next.put(r.id, rl);
             y += rl.height + 1;
-            tileBounds.putAll(rl.bounds);
-            zOrder.addAll(rl.z);
         }
+        rowLayouts.clear();
+        rowLayouts.putAll(next);
+        dirtyRows.clear();
+        rowOrder = ressources.toArray(new RessourceRow[0]);
+        layoutOrder = new RowLayout[rowOrder.length];
+        int maxTiles = 0;
+        for (int i = 0; i < rowOrder.length; i++) {
+            layoutOrder[i] = next.get(rowOrder[i].id);
+            maxTiles = Math.max(maxTiles, layoutOrder[i].tiles.length);
+        }
+        if (visibleScratch.length < maxTiles) visibleScratch = new int[maxTiles];
         totalHeight = Math.max(400, y);
         revalidate(); repaint();
     }
 
-    /** Mise en page d'une ligne : colonnes (overlaps) + wrap vertical (tracks). */
-    private RowLayout layoutOneRowWithWrap(List<Intervention> items, int rowUsableWidth, int rowY) {
+    private static List<TileKey> keysOf(List<Intervention> items) {
+        if (items == null || items.isEmpty()) return List.of();
+        List<TileKey> keys = new ArrayList<>(items.size());
+        for (Intervention it : items) keys.add(new TileKey(it, it.getDateDebut(), it.getDateFin()));
+        return keys;
+    }
+
+    /** Balayage des colonnes d'une ligne (indépendant du zoom). */
+    private static RowLayout computeColumns(List<Intervention> items) {
         RowLayout out = new RowLayout();
+        out.keys = keysOf(items);
+        // copie triée pour un z-order stable
+        List<Intervention> sorted = new ArrayList<>(items);
+        out.columns = LaneLayout.assignColumns(sorted, new LaneLayout.StartEnd<>() {
+            @Override public LocalDateTime start(Intervention t) { return t.getDateDebut(); }
+            @Override public LocalDateTime end(Intervention t) { return t.getDateFin(); }
+        });
+        out.z = sorted;
+        return out;
+    }
+
+    /** Mise en page d'une ligne : colonnes (overlaps) + wrap vertical (tracks). */
+    private void placeTiles(RowLayout out, int rowUsableWidth, int rowY) {
         out.y = rowY;
-        if (items == null || items.isEmpty()) {
+        out.bounds = new LinkedHashMap<>();
+        if (out.z.isEmpty()) {
             out.height = UIConstants.ROW_BASE_HEIGHT;
-            return out;
+            out.buildIndex();
+            return;
         }
 
-        // copie triée pour un z-order stable
-        List<Intervention> sorted = new ArrayList<>(items);
-        sorted.sort(Comparator.comparing(Intervention::getDateDebut));
-
-        Map<Intervention, LaneLayout.Lane> lanes = LaneLayout.computeLanes(
-                sorted, Intervention::getDateDebut, Intervention::getDateFin, rowUsableWidth);
+        Map<Intervention, LaneLayout.Lane> lanes = LaneLayout.toLanes(out.columns, rowUsableWidth);
 
-        int laneCount = lanes.values().stream().mapToInt(l -> l.index + 1).max().orElse(1);
-        out.height = LaneLayout.computeRowHeight(laneCount, rowUsableWidth);
+        // hauteur selon le nombre total de colonnes, pour englober toutes les tracks
+        out.height = LaneLayout.computeRowHeight(out.columns.maxCols, rowUsableWidth);
 
-        for (Intervention it : sorted) {
+        for (Intervention it : out.z) {
             LaneLayout.Lane lane = lanes.get(it);
 
             int totalGutter = (lane.count - 1) * 2;
@@ -157,9 +297,19 @@ public final class PlanningBoard extends JComponent implements Scrollable {
             Rectangle rr = new Rectangle(x, r.y, Math.max(1, w), r.height);
 
             out.bounds.put(it, rr);
-            out.z.add(it);
         }
-        return out;
+        out.buildIndex();
+    }
+
+    /** Index de la 1ère ligne dont la bande (séparateur inclus) atteint {@code y}. */
+    private int firstRowAt(int y) {
+        int lo = 0, hi = layoutOrder.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            RowLayout rl = layoutOrder[mid];
+            if (rl.y + rl.height < y) lo = mid + 1; else hi = mid;
+        }
+        return lo;
     }
 
     // ----------------- Peinture -----------------
@@ -168,111 +318,124 @@ public final class PlanningBoard extends JComponent implements Scrollable {
         Graphics2D g = (Graphics2D) g0.create();
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
+        // seules les lignes coupant la zone à repeindre sont parcourues
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        int first = firstRowAt(clip.y);
+        int clipBottom = clip.y + clip.height;
+
         // fond
         g.setColor(Color.white);
-        g.fillRect(0,0,getWidth(),getHeight());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        if (boldFont == null || boldBase != getFont()) { boldBase = getFont(); boldFont = boldBase.deriveFont(Font.BOLD, 12f); }
+        g.setFont(boldFont);
 
         // gouttière gauche
-        paintLeftGutter(g);
+        if (clip.x < UIConstants.LEFT_GUTTER_WIDTH) paintLeftGutter(g, first, clipBottom);
 
         // colonnes (mêmes X que le header)
         paintDayGrid(g);
 
         // séparateurs de lignes
-        g.setColor(new Color(0xE0E0E0));
-        for (RessourceRow r : ressources) {
-            RowLayout rl = rowLayouts.get(r.id);
-            if (rl == null) continue;
+        g.setColor(ROW_SEPARATOR);
+        for (int i = first; i < layoutOrder.length && layoutOrder[i].y <= clipBottom; i++) {
+            RowLayout rl = layoutOrder[i];
             int y = rl.y + rl.height;
-            g.drawLine(0, y, getWidth(), y);
+            g.drawLine(clip.x, y, clip.x + clip.width, y);
         }
 
         // tuiles
-        for (Intervention it : zOrder) {
-            Rectangle r = tileBounds.get(it);
-            if (r == null) continue;
-            paintTile(g, it, r, it == active);
+        int[] visible = visibleScratch;
+        for (int i = first; i < layoutOrder.length && layoutOrder[i].y <= clipBottom; i++) {
+            RowLayout rl = layoutOrder[i];
+            int n = rl.visibleTiles(clip, visible);
+            for (int k = 0; k < n; k++) {
+                Intervention it = rl.tiles[visible[k]];
+                paintTile(g, it, rl.rects[visible[k]], it == active);
+            }
         }
         g.dispose();
     }
 
-    private void paintLeftGutter(Graphics2D g) {
-        g.setColor(new Color(0xF7F7F9));
+    private void paintLeftGutter(Graphics2D g, int first, int clipBottom) {
+        g.setColor(GUTTER_BG);
         g.fillRect(0,0,UIConstants.LEFT_GUTTER_WIDTH,getHeight());
-        g.setColor(new Color(0xDDDDDD));
+        g.setColor(GUTTER_BORDER);
         g.drawLine(UIConstants.LEFT_GUTTER_WIDTH-1, 0, UIConstants.LEFT_GUTTER_WIDTH-1, getHeight());
 
-        Font bold = getFont().deriveFont(Font.BOLD, 12f);
-        g.setFont(bold);
-        g.setColor(new Color(0x333333));
+        g.setColor(GUTTER_TEXT);
 
-        for (RessourceRow row : ressources) {
-            RowLayout rl = rowLayouts.get(row.id);
-            if (rl == null) continue;
+        for (int i = first; i < layoutOrder.length && layoutOrder[i].y <= clipBottom; i++) {
+            RowLayout rl = layoutOrder[i];
+            RessourceRow row = rowOrder[i];
             // puce couleur + nom
             g.setColor(row.color);
             g.fillOval(12, rl.y + 10, 10,10);
-            g.setColor(new Color(0x333333));
+            g.setColor(GUTTER_TEXT);
             drawElided(g, row.displayName, 30, rl.y + 20, UIConstants.LEFT_GUTTER_WIDTH - 40);
         }
     }
 
     private void paintDayGrid(Graphics2D g) {
         int[] xs = gridModel.getDayColumnXs(currentWeek);
-        g.setColor(new Color(0xECEFF1));
+        g.setColor(DAY_LINE);
         for (int x : xs) g.drawLine(x, 0, x, getHeight());
     }
 
     private void paintTile(Graphics2D g, Intervention it, Rectangle r, boolean selected) {
-        Color base = new Color(0x88AACC);
-        Color bg   = lighten(base, 0.55f);
-        Color brd  = darken(base, 0.25f);
-        Color txt  = luminance(bg) > 140 ? Color.BLACK : Color.WHITE;
-        if (selected) bg = new Color(bg.getRed(), bg.getGreen(), bg.getBlue(), 220);
+        ColorUtils.TileColors c = selected ? SELECTED_COLORS : TILE_COLORS;
 
-        g.setColor(bg);
+        g.setColor(c.background());
         g.fillRoundRect(r.x, r.y, r.width, r.height, 8, 8);
-        g.setStroke(new BasicStroke(UIConstants.TILE_BORDER));
-        g.setColor(brd);
+        g.setStroke(TILE_STROKE);
+        g.setColor(c.border());
         g.drawRoundRect(r.x, r.y, r.width, r.height, 8, 8);
 
         // handles
-        g.setColor(new Color(0,0,0,30));
+        g.setColor(HANDLE_COLOR);
         g.fillRect(r.x+2, r.y, r.width-4, 4);
         g.fillRect(r.x+2, r.y+r.height-4, r.width-4, 4);
 
-        // texte (heure seule par défaut)
-        g.setColor(txt);
-        String s = fmt(it.getDateDebut()) + " - " + fmt(it.getDateFin());
-        drawElided(g, s, r.x + UIConstants.TILE_PADDING, r.y + UIConstants.TILE_PADDING + g.getFontMetrics().getAscent(), r.width - 2*UIConstants.TILE_PADDING);
+        // texte (heure seule par défaut), tronqué une fois par taille
+        g.setColor(c.text());
+        FontMetrics fm = g.getFontMetrics();
+        String s = tileCache.label(it, r.width - 2*UIConstants.TILE_PADDING, fm);
+        g.drawString(s, r.x + UIConstants.TILE_PADDING, r.y + UIConstants.TILE_PADDING + fm.getAscent());
     }
 
     // ----------------- Utils -----------------
-    private Optional<Intervention> pickAt(Point p) {
-        for (int i=zOrder.size()-1; i>=0; i--) {
-            Intervention it = zOrder.get(i);
-            Rectangle r = tileBounds.get(it);
-            if (r != null && r.contains(p)) return Optional.of(it);
+    Rectangle getTileBounds(UUID rowId, Intervention it) {
+        RowLayout rl = rowLayouts.get(rowId);
+        return rl != null ? rl.bounds.get(it) : null;
+    }
+
+    Optional<Intervention> pickAt(Point p) {
+        Rectangle probe = new Rectangle(p.x, p.y, 1, 1);
+        int[] hits = visibleScratch;
+        for (int i = firstRowAt(p.y); i < layoutOrder.length && layoutOrder[i].y <= p.y; i++) {
+            RowLayout rl = layoutOrder[i];
+            int n = rl.visibleTiles(probe, hits);
+            // dernière en ordre z = tuile du dessus
+            for (int k = n - 1; k >= 0; k--) {
+                if (rl.rects[hits[k]].contains(p)) return Optional.of(rl.tiles[hits[k]]);
+            }
         }
         return Optional.empty();
     }
 
     private static void drawElided(Graphics2D g, String text, int x, int baselineY, int maxWidth) {
         if (text == null) return;
-        FontMetrics fm = g.getFontMetrics();
-        if (fm.stringWidth(text) <= maxWidth) { g.drawString(text, x, baselineY); return; }
-        String ell = "...";
-        int ellW = fm.stringWidth(ell);
-        StringBuilder b = new StringBuilder();
-        for (int i=0; i<text.length(); i++) {
-            String sub = text.substring(0, i+1);
-            if (fm.stringWidth(sub)+ellW > maxWidth) break;
-            b.append(text.charAt(i));
-        }
-        g.drawString(b.append(ell).toString(), x, baselineY);
+        g.drawString(TextUtils.elide(g.getFontMetrics(), text, maxWidth), x, baselineY);
     }
 
-    private static String fmt(LocalDateTime t) { return String.format("%02d:%02d", t.getHour(), t.getMinute()); }
+    private static ColorUtils.TileColors tileColors(Color base, boolean selected) {
+        Color bg   = lighten(base, 0.55f);
+        Color brd  = darken(base, 0.25f);
+        Color txt  = luminance(bg) > 140 ? Color.BLACK : Color.WHITE;
+        if (selected) bg = new Color(bg.getRed(), bg.getGreen(), bg.getBlue(), 220);
+        return new ColorUtils.TileColors(bg, brd, txt);
+    }
     private static int luminance(Color c) { return (int)(0.2126*c.getRed()+0.7152*c.getGreen()+0.0722*c.getBlue()); }
     private static Color lighten(Color c, float f){ float[] h=Color.RGBtoHSB(c.getRed(),c.getGreen(),c.getBlue(),null);
         return Color.getHSBColor(h[0], Math.max(0,h[1]*0.35f), Math.min(1,h[2]*(0.8f+f*0.2f))); }
@@ -1,11 +1,17 @@
 // PlanningPanel.java - Version corrigée pour le drop
 package com.materiel.client.view.planning;
 
+import com.materiel.client.controller.EventBus;
+import com.materiel.client.controller.events.LoadingEvent;
 import com.materiel.client.model.Resource;
 import com.materiel.client.model.Intervention;
+import com.materiel.client.model.Client;
+import com.materiel.client.service.AsyncServices;
+import com.materiel.client.service.AsyncServices.PlanningData;
 import com.materiel.client.service.ServiceFactory;
 import com.materiel.client.service.ResourceService;
 import com.materiel.client.service.InterventionService;
+import com.materiel.client.util.ConflictEngine;
 import com.materiel.client.view.components.ResourceCard;
 import com.materiel.client.view.components.InterventionCard;
 import com.materiel.client.view.planning.InterventionCreateDialog;
@@ -27,6 +33,8 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,19 +65,37 @@ public class PlanningPanel extends JPanel {
     private List<Resource> allResources; // liste complète pour filtrage
     private List<Resource> resources;
     private List<Intervention> interventions;
+    private List<Client> clients; // pour le dialogue de création
     private Map<String, DayCell> dayCells; // "resourceId-dayIndex" -> DayCell
     private JComboBox<Object> typeFilterCombo;
+    private CompletableFuture<PlanningData> pendingLoad;
+    
+    private static final String LOADING_SOURCE = "planning";
     
     public PlanningPanel() {
+        this(null);
+    }
+    
+    /**
+     * @param initialLoad chargement de la semaine courante déjà lancé (démarrage
+     *                    de l'application), ou null pour le lancer ici
+     */
+    public PlanningPanel(CompletableFuture<PlanningData> initialLoad) {
         currentWeekStart = getStartOfWeek(LocalDate.now());
         allResources = new ArrayList<>();
         resources = new ArrayList<>();
         interventions = new ArrayList<>();
+        clients = null;
         dayCells = new HashMap<>();
         
         initComponents();
         setupDragAndDrop();
-        loadData();
+        if (initialLoad != null) {
+            // Copie : l'abandonner n'annule pas le chargement partagé avec les autres écrans
+            showLoad(initialLoad.copy());
+        } else {
+            loadData();
+        }
     }
     
     private void initComponents() {
@@ -331,25 +357,47 @@ public class PlanningPanel extends JPanel {
     }
     
     private void loadData() {
-        SwingUtilities.invokeLater(() -> {
+        final LocalDate weekStart = currentWeekStart;
+        log.debug("Chargement des données pour la semaine du {}", weekStart);
+        // Ressources, interventions et clients sont demandés en parallèle ;
+        // les clients ne dépendent pas de la semaine et ne sont demandés qu'une fois
+        showLoad(AsyncServices.loadPlanning(weekStart, weekStart.plusDays(6), clients));
+    }
+    
+    private void showLoad(CompletableFuture<PlanningData> load) {
+        // Une seule requête utile à la fois : la précédente est abandonnée,
+        // avec ses appels qui n'ont pas encore commencé
+        if (pendingLoad != null && !pendingLoad.isDone()) {
+            pendingLoad.cancel(false);
+        }
+        EventBus.getInstance().publish(LoadingEvent.started(LOADING_SOURCE, "Chargement du planning…"));
+        pendingLoad = load;
+        load.whenComplete((data, error) -> SwingUtilities.invokeLater(() -> {
+            // Résultat d'une requête dépassée : ignoré
+            if (pendingLoad != load || load.isCancelled()) {
+                return;
+            }
             try {
-                log.debug("Chargement des données");
-                ResourceService resourceService = ServiceFactory.getResourceService();
-                InterventionService interventionService = ServiceFactory.getInterventionService();
-
-                allResources = resourceService.getAllResources();
-                interventions = interventionService.getInterventionsByDateRange(currentWeekStart, currentWeekStart.plusDays(6));
-
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                    log.error("Erreur lors du chargement", cause);
+                    JOptionPane.showMessageDialog(PlanningPanel.this,
+                        "Erreur lors du chargement des données: " + cause.getMessage(),
+                        "Erreur", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                allResources = data.resources();
+                interventions = data.interventions();
+                clients = data.clients();
+                
                 log.debug("{} ressources chargées", allResources.size());
                 log.debug("{} interventions chargées", interventions.size());
                 applyResourceFilter();
-            } catch (Exception e) {
-                log.error("Erreur lors du chargement", e);
-                JOptionPane.showMessageDialog(this,
-                    "Erreur lors du chargement des données: " + e.getMessage(),
-                    "Erreur", JOptionPane.ERROR_MESSAGE);
+            } finally {
+                EventBus.getInstance().publish(LoadingEvent.finished(LOADING_SOURCE));
             }
-        });
+        }));
     }
 
     private void applyResourceFilter() {
@@ -456,14 +504,10 @@ public class PlanningPanel extends JPanel {
             cell.setConflict(false);
         }
         
-        // Détecter les conflits
+        // Détecter les conflits de la semaine en un seul balayage
         try {
-            InterventionService interventionService = ServiceFactory.getInterventionService();
-
-            for (Intervention intervention : interventions) {
-                if (interventionService.hasConflict(intervention)) {
-                    markInterventionAsConflicted(intervention);
-                }
+            for (Intervention intervention : ConflictEngine.findConflicting(interventions)) {
+                markInterventionAsConflicted(intervention);
             }
         } catch (Exception e) {
             log.error("Erreur détection conflits", e);
@@ -495,7 +539,9 @@ public class PlanningPanel extends JPanel {
         }
     }
     
+    /** Recharge la semaine affichée, clients compris (ils ont pu changer ailleurs). */
     public void refreshPlanning() {
+        clients = null;
         loadData();
     }
     
@@ -561,7 +607,7 @@ public class PlanningPanel extends JPanel {
         }
     }
     
-    private LocalDate getStartOfWeek(LocalDate date) {
+    public static LocalDate getStartOfWeek(LocalDate date) {
         return date.minusDays(date.getDayOfWeek().getValue() - 1);
     }
     
@@ -885,7 +931,8 @@ public class PlanningPanel extends JPanel {
                 resource,
                 dateDebut, 
                 dateFin, 
-                false
+                false,
+                clients
             );
             dialog.setVisible(true);
             
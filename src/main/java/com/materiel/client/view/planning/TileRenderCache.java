@@ -0,0 +1,84 @@
+package com.materiel.client.view.planning;
+
+import java.awt.FontMetrics;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.materiel.client.model.Intervention;
+import com.materiel.client.view.ui.TextUtils;
+
+/**
+ * Cache des libellés de tuiles du {@link PlanningBoard}.
+ * <p>
+ * Une entrée par intervention (id, ou l'instance si elle n'a pas encore
+ * d'id) mémorise le libellé horaire déjà tronqué pour une largeur et une
+ * police données. Tant que les horaires, la taille et la police ne changent
+ * pas, un repaint relit l'entrée sans rien allouer ni mesurer.
+ */
+final class TileRenderCache {
+
+    static final int MAX_ENTRIES = 10_000;
+
+    private static final class Entry {
+        LocalDateTime start;
+        LocalDateTime end;
+        int width;
+        FontMetrics metrics;
+        String label;
+    }
+
+    private final Map<Object, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private long hits;
+    private long misses;
+
+    /** Libellé "HH:mm - HH:mm" tronqué à {@code maxWidth} pour la police courante. */
+    String label(Intervention it, int maxWidth, FontMetrics fm) {
+        Object key = it.getId() != null ? it.getId() : it;
+        Entry e = entries.get(key);
+        if (e != null && e.width == maxWidth && e.metrics == fm
+                && Objects.equals(e.start, it.getDateDebut()) && Objects.equals(e.end, it.getDateFin())) {
+            hits++;
+            return e.label;
+        }
+        misses++;
+        if (e == null) {
+            e = new Entry();
+            entries.put(key, e);
+        }
+        e.start = it.getDateDebut();
+        e.end = it.getDateFin();
+        e.width = maxWidth;
+        e.metrics = fm;
+        e.label = TextUtils.elide(fm, timeRange(e.start, e.end), maxWidth);
+        return e.label;
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    int size() { return entries.size(); }
+    long getHits() { return hits; }
+    long getMisses() { return misses; }
+
+    private static String timeRange(LocalDateTime start, LocalDateTime end) {
+        StringBuilder b = new StringBuilder(13);
+        appendTime(b, start);
+        b.append(" - ");
+        appendTime(b, end);
+        return b.toString();
+    }
+
+    private static void appendTime(StringBuilder b, LocalDateTime t) {
+        if (t == null) { b.append("--:--"); return; }
+        int h = t.getHour(), m = t.getMinute();
+        b.append((char) ('0' + h / 10)).append((char) ('0' + h % 10)).append(':')
+         .append((char) ('0' + m / 10)).append((char) ('0' + m % 10));
+    }
+}
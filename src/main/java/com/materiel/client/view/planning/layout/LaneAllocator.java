@@ -0,0 +1,133 @@
+package com.materiel.client.view.planning.layout;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Allocation de colonnes pour un balayage par date de début.
+ * <p>
+ * Les créneaux ouverts sont gardés dans un tas-min sur leur fin, les colonnes
+ * libérées dans un tas-min d'indices : chaque item reçoit la plus petite
+ * colonne libre en O(log n). Les tas sont des tableaux primitifs dimensionnés
+ * une fois, aucun objet n'est alloué par item. Les dates sont converties en
+ * secondes epoch via {@link #key(LocalDateTime)}.
+ */
+public final class LaneAllocator {
+
+    // tas des créneaux ouverts, ordonné par fin
+    private final long[] openEnds;
+    private final int[] openCols;
+    private int openSize;
+
+    // tas des colonnes libérées
+    private final int[] free;
+    private int freeSize;
+
+    private int nextCol;
+
+    /** @param capacity nombre maximal de créneaux simultanément ouverts */
+    public LaneAllocator(int capacity) {
+        openEnds = new long[Math.max(1, capacity)];
+        openCols = new int[Math.max(1, capacity)];
+        free = new int[Math.max(1, capacity)];
+    }
+
+    /** Clé primitive d'une date (secondes epoch, fuseau neutre). */
+    public static long key(LocalDateTime t) {
+        return t.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /** Ferme les créneaux terminés au plus tard à {@code start} et libère leurs colonnes. */
+    public void release(long start) {
+        while (openSize > 0 && openEnds[0] <= start) {
+            pushFree(openCols[0]);
+            popOpen();
+        }
+    }
+
+    /** Affecte la plus petite colonne libre à un créneau se terminant à {@code end}. */
+    public int acquire(long end) {
+        int col = freeSize > 0 ? popFree() : nextCol++;
+        pushOpen(end, col);
+        return col;
+    }
+
+    /** Nombre de créneaux encore ouverts. */
+    public int openCount() {
+        return openSize;
+    }
+
+    /** Nombre de colonnes utilisées depuis le dernier {@link #reset()}. */
+    public int columnCount() {
+        return nextCol;
+    }
+
+    /** Repart d'une allocation vide (nouveau groupe de chevauchements). */
+    public void reset() {
+        openSize = 0;
+        freeSize = 0;
+        nextCol = 0;
+    }
+
+    private void pushOpen(long end, int col) {
+        int i = openSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (openEnds[parent] <= end) break;
+            openEnds[i] = openEnds[parent];
+            openCols[i] = openCols[parent];
+            i = parent;
+        }
+        openEnds[i] = end;
+        openCols[i] = col;
+    }
+
+    private void popOpen() {
+        int last = --openSize;
+        if (last == 0) return;
+        long end = openEnds[last];
+        int col = openCols[last];
+        int i = 0;
+        int half = last >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < last && openEnds[child + 1] < openEnds[child]) child++;
+            if (end <= openEnds[child]) break;
+            openEnds[i] = openEnds[child];
+            openCols[i] = openCols[child];
+            i = child;
+        }
+        openEnds[i] = end;
+        openCols[i] = col;
+    }
+
+    private void pushFree(int col) {
+        int i = freeSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (free[parent] <= col) break;
+            free[i] = free[parent];
+            i = parent;
+        }
+        free[i] = col;
+    }
+
+    private int popFree() {
+        int min = free[0];
+        int last = --freeSize;
+        if (last > 0) {
+            int col = free[last];
+            int i = 0;
+            int half = last >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < last && free[child + 1] < free[child]) child++;
+                if (col <= free[child]) break;
+                free[i] = free[child];
+                i = child;
+            }
+            free[i] = col;
+        }
+        return min;
+    }
+}
@@ -39,21 +39,16 @@ public final class LaneLayout {
         if (items == null || items.isEmpty()) return Collections.emptyMap();
         items.sort(Comparator.comparing(se::start));
 
-        // Sweep-line : 1ère colonne libre
-        List<T> open = new ArrayList<>();
-        Map<T,Integer> col = new LinkedHashMap<>();
-        int maxCols = 0;
-
-        for (T it : items) {
-            LocalDateTime s = se.start(it);
-            open.removeIf(o -> !se.end(o).isAfter(s)); // garde overlaps stricts
-            boolean[] used = new boolean[open.size() + 1];
-            for (T o : open) used[col.get(o)] = true;
-            int idx = 0; while (idx < used.length && used[idx]) idx++;
-            col.put(it, idx);
-            open.add(it);
-            maxCols = Math.max(maxCols, idx + 1);
+        // Sweep-line : 1ère colonne libre (tas des fins + tas des colonnes libres)
+        int n = items.size();
+        int[] col = new int[n];
+        LaneAllocator lanes = new LaneAllocator(n);
+        for (int i = 0; i < n; i++) {
+            T it = items.get(i);
+            lanes.release(LaneAllocator.key(se.start(it)));
+            col[i] = lanes.acquire(LaneAllocator.key(se.end(it)));
         }
+        int maxCols = lanes.columnCount();
 
         // NB: si tu veux un agrandissement systématique dès 2 overlaps,
         // remplace le calcul ci-dessous par: int tracks = Math.max(1, maxCols);
@@ -61,8 +56,9 @@ public final class LaneLayout {
         int colsPerTrack = (int)Math.ceil(maxCols * 1.0 / tracks);
 
         Map<T, Lane> out = new LinkedHashMap<>();
-        for (T it : items) {
-            int k = col.get(it);
+        for (int i = 0; i < n; i++) {
+            T it = items.get(i);
+            int k = col[i];
             int track = k % tracks;
             int indexWithinTrack = k / tracks;
             out.put(it, new Lane(indexWithinTrack, colsPerTrack, track, tracks));
@@ -13,6 +13,8 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Panel de liste des ressources avec fonctionnalités CRUD
@@ -31,10 +33,19 @@ public class ResourceListPanel extends JPanel {
     private List<Resource> filteredResourcesList;
     
     public ResourceListPanel() {
+        this(null);
+    }
+    
+    /** @param initialLoad ressources déjà demandées au démarrage, ou null pour les charger ici */
+    public ResourceListPanel(CompletableFuture<List<Resource>> initialLoad) {
         resourcesList = new ArrayList<>();
         filteredResourcesList = new ArrayList<>();
         initComponents();
-        loadData();
+        if (initialLoad != null) {
+            showLoad(initialLoad);
+        } else {
+            loadData();
+        }
     }
     
     private void initComponents() {
@@ -205,18 +216,25 @@ public class ResourceListPanel extends JPanel {
     }
     
     private void loadData() {
-        SwingUtilities.invokeLater(() -> {
-            try {
-                ResourceService resourceService = ServiceFactory.getResourceService();
-                resourcesList = resourceService.getAllResources();
-                
-                filterResources();
-            } catch (Exception e) {
+        // Chargement hors de l'EDT : les autres écrans se chargent en parallèle
+        ResourceService resourceService = ServiceFactory.getResourceService();
+        showLoad(resourceService.getAllResourcesAsync());
+    }
+    
+    private void showLoad(CompletableFuture<List<Resource>> load) {
+        load.whenComplete((list, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
                 JOptionPane.showMessageDialog(this,
-                    "Erreur lors du chargement des ressources: " + e.getMessage(),
+                    "Erreur lors du chargement des ressources: " + cause.getMessage(),
                     "Erreur", JOptionPane.ERROR_MESSAGE);
+                return;
             }
-        });
+            resourcesList = list;
+            
+            filterResources();
+        }));
     }
     
     public void refreshData() {
@@ -263,7 +281,12 @@ public class ResourceListPanel extends JPanel {
     private void editSelectedResource() {
         int selectedRow = resourceTable.getSelectedRow();
         if (selectedRow >= 0) {
-            Resource resource = filteredResourcesList.get(selectedRow);
+            // Le dialogue modifie la ressource en place : on édite une copie
+            Resource resource = ServiceFactory.getResourceService().getResourceById(filteredResourcesList.get(selectedRow).getId());
+            if (resource == null) {
+                refreshData();
+                return;
+            }
             
             ResourceEditDialog dialog = new ResourceEditDialog((Frame) SwingUtilities.getWindowAncestor(this), resource);
             dialog.setVisible(true);
@@ -302,10 +325,10 @@ public class ResourceListPanel extends JPanel {
             
             if (result == JOptionPane.YES_OPTION) {
                 try {
-                    resource.setDisponible(!resource.isDisponible());
-                    
                     ResourceService resourceService = ServiceFactory.getResourceService();
-                    resourceService.saveResource(resource);
+                    Resource updated = resourceService.getResourceById(resource.getId());
+                    updated.setDisponible(!resource.isDisponible());
+                    resourceService.saveResource(updated);
                     refreshData();
                     
                     JOptionPane.showMessageDialog(this,
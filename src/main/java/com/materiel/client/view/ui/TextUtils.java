@@ -5,6 +5,8 @@ import java.awt.Graphics2D;
 
 /** Utility text helpers for UI components. */
 public final class TextUtils {
+    private static final String ELLIPSIS = "...";
+
     private TextUtils() {
     }
 
@@ -17,19 +19,33 @@ public final class TextUtils {
      * @return possibly shortened text with an ellipsis
      */
     public static String elide(Graphics2D g, String text, int maxWidth) {
+        return elide(g.getFontMetrics(), text, maxWidth);
+    }
+
+    /**
+     * Same as {@link #elide(Graphics2D, String, int)} with explicit metrics.
+     * The longest fitting prefix is found by bisection, so only O(log n)
+     * widths are measured.
+     */
+    public static String elide(FontMetrics fm, String text, int maxWidth) {
         if (text == null) {
             return "";
         }
-        FontMetrics fm = g.getFontMetrics();
         if (fm.stringWidth(text) <= maxWidth) {
             return text;
         }
-        String ellipsis = "...";
-        int ellipsisWidth = fm.stringWidth(ellipsis);
-        int end = text.length();
-        while (end > 0 && fm.stringWidth(text.substring(0, end)) + ellipsisWidth > maxWidth) {
-            end--;
+        int budget = maxWidth - fm.stringWidth(ELLIPSIS);
+        char[] chars = text.toCharArray();
+        int lo = 0;
+        int hi = chars.length;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (fm.charsWidth(chars, 0, mid) <= budget) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
         }
-        return text.substring(0, Math.max(0, end)) + ellipsis;
+        return text.substring(0, lo) + ELLIPSIS;
     }
 }
@@ -0,0 +1,153 @@
+package com.materiel.client.mock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackupStoreTest {
+
+    private Path data;
+    private Path backups;
+    private BackupStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path root = Files.createTempDirectory("gm-backup");
+        data = Files.createDirectories(root.resolve("data"));
+        backups = root.resolve("backups");
+        store = new BackupStore(data, backups, 0);
+    }
+
+    private static String interventions(int count, int insertedAt) {
+        StringBuilder b = new StringBuilder("[\n");
+        for (int i = 0; i < count; i++) {
+            if (i == insertedAt) {
+                b.append("  {\"id\":99999,\"titre\":\"Insertion\"},\n");
+            }
+            b.append("  {\"id\":").append(i).append(",\"titre\":\"Intervention ").append(i)
+                    .append("\",\"adresseIntervention\":\"").append(i * 7).append(" rue du Chantier\"},\n");
+        }
+        return b.append("]").toString();
+    }
+
+    @Test
+    void editInTheMiddleStoresOnlyNeighbouringChunks() throws Exception {
+        Path file = data.resolve("interventions.json");
+        Files.writeString(file, interventions(3_000, -1));
+        Files.writeString(data.resolve("sequences.json"), "{\"QUOTE-2024\":12}");
+        BackupStore.Snapshot first = store.backup();
+
+        Files.writeString(file, interventions(3_000, 1_500));
+        BackupStore.Snapshot second = store.backup();
+
+        Set<String> before = new HashSet<>(first.files().get("interventions.json").chunks());
+        long added = second.files().get("interventions.json").chunks().stream().filter(c -> !before.contains(c)).count();
+        assertTrue(first.files().get("interventions.json").chunks().size() > 10);
+        assertTrue(added <= 3, "blocs nouveaux : " + added);
+        assertSame(first.files().get("sequences.json"), second.files().get("sequences.json"));
+
+        Path restored = backups.resolveSibling("restored");
+        store.restore(first, restored);
+        assertEquals(interventions(3_000, -1), Files.readString(restored.resolve("interventions.json")));
+        store.restore(second, restored);
+        assertEquals(Files.readString(file), Files.readString(restored.resolve("interventions.json")));
+        assertEquals("{\"QUOTE-2024\":12}", Files.readString(restored.resolve("sequences.json")));
+    }
+
+    @Test
+    void pointInTimeSelectsTheLatestEarlierSnapshot() throws Exception {
+        Files.writeString(data.resolve("clients.json"), "[]");
+        BackupStore.Snapshot first = store.backup();
+        Thread.sleep(5);
+        Files.writeString(data.resolve("clients.json"), "[{\"id\":1}]");
+        BackupStore.Snapshot second = store.backup();
+
+        assertNull(store.snapshotAt(first.created().minusSeconds(1)));
+        assertEquals(first.id(), store.snapshotAt(first.created()).id());
+        assertEquals(second.id(), store.snapshotAt(Instant.now()).id());
+        assertEquals(2, new BackupStore(data, backups, 0).listSnapshots().size());
+    }
+
+    @Test
+    void unchangedDirectoryWritesNoSnapshot() throws Exception {
+        Files.writeString(data.resolve("clients.json"), "[]");
+        BackupStore.Snapshot first = store.backup();
+
+        assertSame(first, store.backup());
+        assertEquals(first.id(), new BackupStore(data, backups, 0).backup().id());
+        assertEquals(1, store.listSnapshots().size());
+    }
+
+    @Test
+    void onlyTheMostRecentSnapshotsAndTheirChunksAreKept() throws Exception {
+        BackupStore bounded = new BackupStore(data, backups, 0, 2);
+        for (int n = 1; n <= 4; n++) {
+            Files.writeString(data.resolve("clients.json"), "[{\"id\":" + n + ",\"nom\":\"Client " + n + "\"}]");
+            bounded.backup();
+            Thread.sleep(5);
+        }
+
+        List<BackupStore.Snapshot> snapshots = bounded.listSnapshots();
+        assertEquals(2, snapshots.size());
+        Set<String> referenced = new HashSet<>();
+        snapshots.forEach(s -> s.files().values().forEach(f -> referenced.addAll(f.chunks())));
+        Set<String> stored = new HashSet<>();
+        try (Stream<Path> chunks = Files.walk(backups.resolve("chunks"))) {
+            chunks.filter(Files::isRegularFile)
+                    .forEach(c -> stored.add(c.getFileName().toString().replace(".gz", "")));
+        }
+        assertEquals(referenced, stored);
+
+        Path restored = backups.resolveSibling("restored");
+        bounded.restore(snapshots.get(0), restored);
+        assertTrue(Files.readString(restored.resolve("clients.json")).contains("Client 3"));
+    }
+
+    @Test
+    void restoreRemovesFilesCreatedAfterTheSnapshot() throws Exception {
+        Files.writeString(data.resolve("orders.json"), "[]");
+        Files.createDirectories(data.resolve("interventions"));
+        Files.writeString(data.resolve("interventions/2024-01.json"), "[]");
+        BackupStore.Snapshot snapshot = store.backup();
+
+        Files.writeString(data.resolve("orders.json.journal"), "{\"op\":\"delete\",\"id\":\"1\"}\n");
+        Files.writeString(data.resolve("interventions/2024-02.json"), "[{\"id\":2}]");
+        Files.writeString(data.resolve("orders.json"), "[{\"id\":1}]");
+
+        store.restore(snapshot, data);
+
+        assertEquals("[]", Files.readString(data.resolve("orders.json")));
+        assertTrue(Files.exists(data.resolve("interventions/2024-01.json")));
+        assertFalse(Files.exists(data.resolve("orders.json.journal")));
+        assertFalse(Files.exists(data.resolve("interventions/2024-02.json")));
+    }
+
+    @Test
+    void corruptedChunkLeavesTheDirectoryUntouched() throws Exception {
+        Files.writeString(data.resolve("clients.json"), "[]");
+        Files.writeString(data.resolve("orders.json"), "[]");
+        BackupStore.Snapshot snapshot = store.backup();
+        String chunk = snapshot.files().get("orders.json").chunks().get(0);
+        try (Stream<Path> chunks = Files.walk(backups.resolve("chunks"))) {
+            Path file = chunks.filter(f -> f.getFileName().toString().startsWith(chunk)).findFirst().orElseThrow();
+            Files.write(file, new byte[] {1, 2, 3});
+        }
+        Files.writeString(data.resolve("clients.json"), "[{\"id\":1}]");
+
+        assertThrows(Exception.class, () -> store.restore(snapshot, data));
+
+        assertEquals("[{\"id\":1}]", Files.readString(data.resolve("clients.json")));
+        try (Stream<Path> files = Files.list(data)) {
+            assertEquals(2, files.count());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.materiel.client.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.materiel.client.config.StorageFormat;
+import com.materiel.client.model.BonLivraison;
+import com.materiel.client.model.Commande;
+import com.materiel.client.model.Devis;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentChainMigratorTest {
+
+    private final ObjectMapper mapper = DataFiles.mapper(StorageFormat.JSON);
+
+    @Test
+    void embeddedUpstreamDocumentsAreReplacedByTheirId() throws Exception {
+        Path file = Files.createTempDirectory("gm-chain").resolve("bons-livraison.json");
+        Files.writeString(file, "[{\"id\":1,\"numero\":\"BL-1\",\"commandeOrigine\":"
+                + "{\"id\":4,\"numero\":\"CMD-4\",\"devisOrigine\":{\"id\":9,\"numero\":\"DEV-9\"}}},"
+                + "{\"id\":2,\"numero\":\"BL-2\"}]");
+
+        assertEquals(1, DocumentChainMigrator.migrate(file, StorageFormat.JSON));
+
+        String migrated = Files.readString(file);
+        assertFalse(migrated.contains("commandeOrigine\""));
+        assertFalse(migrated.contains("CMD-4"));
+        assertTrue(Files.exists(file.resolveSibling("bons-livraison.json" + DocumentChainMigrator.BACKUP_SUFFIX)));
+        BonLivraison[] bons = mapper.readValue(file.toFile(), BonLivraison[].class);
+        assertEquals(4L, bons[0].getCommandeOrigineId());
+        assertNull(bons[1].getCommandeOrigineId());
+
+        assertEquals(0, DocumentChainMigrator.migrate(file, StorageFormat.JSON));
+    }
+
+    @Test
+    void upstreamDocumentIsPersistedAsIdOnly() throws Exception {
+        Devis devis = new Devis();
+        devis.setId(9L);
+        devis.setNumero("DEV-9");
+        Commande commande = new Commande();
+        commande.setId(4L);
+        commande.setDevisOrigine(devis);
+
+        String json = mapper.writeValueAsString(commande);
+
+        assertFalse(json.contains("DEV-9"));
+        Commande read = mapper.readValue(json, Commande.class);
+        assertEquals(9L, read.getDevisOrigineId());
+        assertNull(read.getDevisOrigine());
+    }
+}
@@ -0,0 +1,102 @@
+package com.materiel.client.mock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityCacheTest {
+
+    private Path file;
+    private EntityCache cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.createTempDirectory("gm-cache").resolve("items.json");
+        Files.writeString(file, "[1,2]");
+        cache = new EntityCache();
+    }
+
+    @Test
+    void servesReadsFromMemoryAfterFirstLoad() {
+        assertNull(cache.get(file));
+        cache.put(file, List.of("a", "b"));
+
+        List<String> first = cache.get(file);
+        List<String> second = cache.get(file);
+
+        assertEquals(List.of("a", "b"), first);
+        assertNotSame(first, second, "chaque lecture doit recevoir sa propre liste");
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void invalidatesOnExternalModification() throws Exception {
+        cache.put(file, List.of("a", "b"));
+        Files.writeString(file, "[1,2,3]");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+
+        assertNull(cache.get(file));
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void explicitInvalidationForcesReload() {
+        cache.put(file, List.of("a"));
+        cache.invalidate(file);
+        assertNull(cache.get(file));
+    }
+
+    @Test
+    void pendingContentWinsUntilWritten() throws Exception {
+        List<String> snapshot = cache.putPending(file, List.of("a", "b", "c"));
+        Files.writeString(file, "[\"a\",\"b\",\"c\"]");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        assertEquals(List.of("a", "b", "c"), cache.get(file));
+
+        cache.written(file, snapshot);
+        assertEquals(List.of("a", "b", "c"), cache.get(file));
+
+        Files.writeString(file, "[]");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        assertNull(cache.get(file));
+    }
+
+    @Test
+    void loadFinishingAfterASaveKeepsTheSavedContent() throws Exception {
+        // Le fichier est lu (["old"]) puis une sauvegarde passe avant la fin du chargement
+        List<String> saved = cache.putPending(file, List.of("saved"));
+        long revision = cache.revision(file);
+
+        assertEquals(List.of("saved"), cache.put(file, List.of("old")));
+        assertEquals(List.of("saved"), cache.get(file));
+        assertEquals(revision, cache.revision(file));
+
+        // L'écriture différée aboutit : l'ancien contenu lu ne revient pas non plus
+        Files.writeString(file, "[\"saved\"]");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        cache.written(file, saved);
+        assertEquals(List.of("saved"), cache.put(file, List.of("old")));
+        assertEquals(List.of("saved"), cache.get(file));
+    }
+
+    @Test
+    void failedWriteDropsOnlyItsOwnSnapshot() {
+        List<String> first = cache.putPending(file, List.of("a"));
+        List<String> second = cache.putPending(file, List.of("a", "b"));
+        long revision = cache.revision(file);
+
+        cache.failed(file, first);
+        assertEquals(List.of("a", "b"), cache.get(file));
+
+        cache.failed(file, second);
+        assertNull(cache.get(file));
+        assertNotEquals(revision, cache.revision(file));
+    }
+}
@@ -0,0 +1,108 @@
+package com.materiel.client.mock;
+
+import com.materiel.client.model.Intervention;
+import com.materiel.client.model.Resource;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InterventionIndexTest {
+
+    private static Intervention intervention(long id, LocalDateTime start, long resourceId) {
+        Intervention i = new Intervention();
+        i.setId(id);
+        i.setDateDebut(start);
+        i.setDateFin(start.plusHours(2));
+        i.setRessources(List.of(new Resource(resourceId, "R" + resourceId, Resource.ResourceType.CAMION)));
+        return i;
+    }
+
+    @Test
+    void rangeAndResourceQueriesFollowUpdates() {
+        LocalDateTime monday = LocalDate.of(2024, 12, 9).atTime(8, 0);
+        Intervention a = intervention(1, monday, 1);
+        Intervention b = intervention(2, monday.plusDays(3), 1);
+        Intervention c = intervention(3, monday.plusDays(10), 2);
+
+        InterventionIndex index = new InterventionIndex();
+        index.rebuild(List.of(c, b, a));
+
+        assertEquals(List.of(a, b), index.findByDateRange(monday.toLocalDate(), monday.toLocalDate().plusDays(6)));
+        assertEquals(List.of(a, b), index.findByResource(1L));
+        assertSame(c, index.findById(3L));
+
+        // Déplacement en place puis ré-indexation
+        b.setDateDebut(monday.plusDays(8));
+        b.setRessources(List.of(new Resource(2L, "R2", Resource.ResourceType.CAMION)));
+        index.index(b);
+
+        assertEquals(List.of(a), index.findByDateRange(monday.toLocalDate(), monday.toLocalDate().plusDays(6)));
+        assertEquals(List.of(a), index.findByResource(1L));
+        assertEquals(List.of(b, c), index.findByResource(2L));
+
+        index.remove(1L);
+        assertTrue(index.findByResource(1L).isEmpty());
+        assertNull(index.findById(1L));
+    }
+
+    @Test
+    void copyingIndexIsNotChangedByCallers() {
+        LocalDateTime monday = LocalDate.of(2024, 12, 9).atTime(8, 0);
+        InterventionIndex index = new InterventionIndex(i -> intervention(i.getId(), i.getDateDebut(), 1));
+        Intervention saved = intervention(1, monday, 1);
+        index.index(saved);
+
+        // Modifications de l'appelant, puis d'un résultat, jamais enregistrées
+        saved.setDateDebut(monday.plusDays(2));
+        index.findById(1L).setDateDebut(monday.plusDays(3));
+        index.findByResource(1L).get(0).setDateDebut(monday.plusDays(4));
+
+        assertEquals(monday, index.findById(1L).getDateDebut());
+        assertNotSame(index.findById(1L), index.findById(1L));
+        assertEquals(1, index.findByDateRange(monday.toLocalDate(), monday.toLocalDate()).size());
+    }
+
+    @Test
+    void readersRunAlongsideAWriter() throws Exception {
+        LocalDateTime monday = LocalDate.of(2024, 12, 9).atTime(8, 0);
+        InterventionIndex index = new InterventionIndex();
+        index.rebuild(List.of(intervention(1, monday, 1)));
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(pool.submit(() -> {
+                    for (int n = 0; n < 2_000; n++) {
+                        List<Intervention> week = index.findByDateRange(monday.toLocalDate(), monday.toLocalDate().plusDays(6));
+                        assertFalse(week.isEmpty());
+                        index.findByResource(1L);
+                    }
+                }));
+            }
+            Future<?> writer = pool.submit(() -> {
+                for (int n = 0; n < 2_000; n++) {
+                    long id = 100 + n % 50;
+                    index.index(intervention(id, monday.plusHours(n % 40), 1));
+                    index.remove(id - 25);
+                }
+            });
+            writer.get(30, TimeUnit.SECONDS);
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertSame(monday, index.findById(1L).getDateDebut());
+    }
+}
@@ -0,0 +1,222 @@
+package com.materiel.client.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.materiel.client.config.StorageFormat;
+import com.materiel.client.model.Intervention;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InterventionPartitionsTest {
+
+    private Path data;
+    private final ObjectMapper mapper = DataFiles.plainMapper(StorageFormat.JSON);
+    private final Set<String> loaded = new TreeSet<>();
+    private final Set<String> saved = new TreeSet<>();
+    private final Set<String> evicted = new TreeSet<>();
+    private volatile Consumer<String> onLoad = filename -> {};
+
+    /** Stockage synchrone sans cache, qui trace les fichiers lus et écrits. */
+    private final InterventionPartitions.Storage storage = new InterventionPartitions.Storage() {
+        @Override
+        public <T> List<T> load(String filename, Class<T[]> type) {
+            onLoad.accept(filename);
+            synchronized (loaded) {
+                loaded.add(filename);
+            }
+            Path file = data.resolve(filename);
+            try {
+                return Files.exists(file)
+                        ? new ArrayList<>(Arrays.asList(mapper.readValue(file.toFile(), type)))
+                        : new ArrayList<>();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public <T> void save(String filename, List<T> items, Runnable afterWrite) {
+            saved.add(filename);
+            try {
+                DataFiles.write(mapper, StorageFormat.JSON, data.resolve(filename), items);
+                if (afterWrite != null) {
+                    afterWrite.run();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void evict(String filename) {
+            evicted.add(filename);
+        }
+
+        /** Empreinte disque, comme le cache. */
+        @Override
+        public long revision(String filename) {
+            Path file = data.resolve(filename);
+            try {
+                return Files.exists(file) ? Files.getLastModifiedTime(file).toMillis() + Files.size(file) : 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    };
+
+    @BeforeEach
+    void setUp() throws IOException {
+        data = Files.createTempDirectory("gm-partitions");
+        List<Intervention> year = new ArrayList<>();
+        for (int month = 1; month <= 12; month++) {
+            for (int day = 1; day <= 28; day += 9) {
+                year.add(intervention((long) year.size() + 1, LocalDateTime.of(2024, month, day, 8, 0)));
+            }
+        }
+        open().replaceAll(year);
+        loaded.clear();
+        saved.clear();
+        evicted.clear();
+    }
+
+    @Test
+    void rangeQueryReadsOnlyTheMonthsItCovers() {
+        InterventionPartitions partitions = open();
+
+        List<Intervention> week = partitions.range(LocalDate.of(2024, 3, 8), LocalDate.of(2024, 3, 14));
+
+        assertEquals(List.of(LocalDateTime.of(2024, 3, 10, 8, 0)),
+                week.stream().map(Intervention::getDateDebut).toList());
+        assertEquals(Set.of("interventions/2024-03.json"), loaded);
+    }
+
+    @Test
+    void savingRewritesOnlyTheTouchedPartitions() {
+        InterventionPartitions partitions = open();
+        Intervention moved = partitions.find(1L);
+        loaded.clear();
+
+        moved.setTitre("Modifiée");
+        partitions.save(moved);
+        assertEquals(Set.of("interventions/2024-01.json"), saved);
+
+        saved.clear();
+        moved.setDateDebut(LocalDateTime.of(2024, 5, 20, 8, 0));
+        partitions.save(moved);
+        assertEquals(Set.of("interventions/2024-01.json", "interventions/2024-05.json",
+                InterventionPartitions.INDEX_FILE), saved);
+
+        InterventionPartitions reopened = open();
+        assertEquals("Modifiée", reopened.find(1L).getTitre());
+        assertEquals(5, reopened.range(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 31)).size());
+        assertEquals(3, reopened.range(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)).size());
+    }
+
+    @Test
+    void interruptedIndexWriteIsRebuiltFromThePartitions() throws IOException {
+        Files.createFile(data.resolve(InterventionPartitions.DIRECTORY).resolve("index.pending"));
+
+        InterventionPartitions partitions = open();
+        Intervention added = intervention(null, LocalDateTime.of(2024, 6, 3, 8, 0));
+        partitions.save(added);
+
+        assertEquals(49L, added.getId());
+        assertEquals(12, loaded.size()); // toutes les partitions parcourues, pas l'index
+        assertFalse(Files.exists(data.resolve(InterventionPartitions.DIRECTORY).resolve("index.pending")));
+    }
+
+    @Test
+    void coldMonthsAreEvictedAndIdsAreResolvedThroughTheIndex() {
+        InterventionPartitions partitions = open();
+
+        assertEquals(48, partitions.all().size());
+        assertEquals(InterventionPartitions.HOT_PARTITIONS, partitions.getResidentCount());
+        assertTrue(evicted.contains("interventions/2024-01.json"));
+        assertFalse(evicted.contains("interventions/2024-12.json"));
+
+        loaded.clear();
+        Intervention found = open().find(48L);
+        assertEquals(LocalDateTime.of(2024, 12, 28, 8, 0), found.getDateDebut());
+        assertEquals(Set.of(InterventionPartitions.INDEX_FILE, "interventions/2024-12.json"), loaded);
+    }
+
+    @Test
+    void readersDoNotWaitForEachOther() throws Exception {
+        InterventionPartitions partitions = open();
+        CountDownLatch januaryLoading = new CountDownLatch(1);
+        CountDownLatch releaseJanuary = new CountDownLatch(1);
+        onLoad = filename -> {
+            if (filename.equals("interventions/2024-01.json")) {
+                januaryLoading.countDown();
+                try {
+                    releaseJanuary.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+
+        CompletableFuture<List<Intervention>> january = CompletableFuture.supplyAsync(
+                () -> partitions.range(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)));
+        assertTrue(januaryLoading.await(5, TimeUnit.SECONDS));
+
+        assertEquals(4, CompletableFuture.supplyAsync(
+                () -> partitions.range(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29)))
+                .get(5, TimeUnit.SECONDS).size());
+
+        releaseJanuary.countDown();
+        assertEquals(4, january.get(5, TimeUnit.SECONDS).size());
+    }
+
+    @Test
+    void externalEditsChangeTheRevisionButRereadsDoNot() throws IOException {
+        InterventionPartitions partitions = open();
+        long revision = partitions.revision();
+        partitions.all();
+        partitions.all();
+        assertEquals(revision, partitions.revision());
+
+        Path directory = data.resolve(InterventionPartitions.DIRECTORY);
+        Path march = directory.resolve("2024-03.json");
+        DataFiles.write(mapper, StorageFormat.JSON, march, List.of(intervention(9L, LocalDateTime.of(2024, 3, 2, 8, 0))));
+        Files.setLastModifiedTime(march, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        assertNotEquals(revision, revision = partitions.revision());
+
+        DataFiles.write(mapper, StorageFormat.JSON, directory.resolve("2025-01.json"),
+                List.of(intervention(100L, LocalDateTime.of(2025, 1, 6, 8, 0))));
+        Files.setLastModifiedTime(directory, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        assertNotEquals(revision, partitions.revision());
+        assertEquals(1, partitions.range(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)).size());
+    }
+
+    private InterventionPartitions open() {
+        return new InterventionPartitions(data.resolve(InterventionPartitions.DIRECTORY), StorageFormat.JSON, storage);
+    }
+
+    private static Intervention intervention(Long id, LocalDateTime start) {
+        Intervention intervention = new Intervention();
+        intervention.setId(id);
+        intervention.setTitre("Intervention " + id);
+        intervention.setDateDebut(start);
+        intervention.setDateFin(start.plusHours(2));
+        return intervention;
+    }
+}
@@ -0,0 +1,102 @@
+package com.materiel.client.mock;
+
+import com.materiel.client.config.StorageFormat;
+import com.materiel.client.model.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonStoreTest {
+
+    private Path file;
+    private Path journal;
+    private JsonStore<Order> store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path dir = Files.createTempDirectory("gm-store");
+        file = dir.resolve("orders.json");
+        journal = dir.resolve("orders.json.journal");
+        store = new JsonStore<>(file, Order[].class, Order::getId);
+    }
+
+    private static Order order(String number) {
+        Order o = new Order();
+        o.setId(UUID.randomUUID());
+        o.setNumber(number);
+        return o;
+    }
+
+    @Test
+    void mutationsAreAppendedAndReplayedOnLoad() {
+        Order a = order("CMD-1");
+        Order b = order("CMD-2");
+        store.put(a);
+        store.put(b);
+        a.setNumber("CMD-1-bis");
+        store.put(a);
+        store.remove(b.getId());
+
+        assertTrue(Files.notExists(file), "le snapshot ne doit pas être réécrit");
+        assertTrue(Files.exists(journal));
+
+        List<Order> reloaded = new JsonStore<>(file, Order[].class, Order::getId).load();
+        assertEquals(1, reloaded.size());
+        assertEquals("CMD-1-bis", reloaded.get(0).getNumber());
+    }
+
+    @Test
+    void compactionFoldsJournalIntoSnapshot() {
+        Order a = order("CMD-1");
+        store.put(a);
+        store.compact();
+
+        assertTrue(Files.exists(file));
+        assertTrue(Files.notExists(journal));
+        assertEquals(1, store.load().size());
+    }
+
+    @Test
+    void truncatedLastJournalLineIsIgnored() throws Exception {
+        Order a = order("CMD-1");
+        store.put(a);
+        long complete = Files.size(journal);
+        Files.writeString(journal, "{\"op\":\"put\",\"data\":{\"id\":", StandardOpenOption.APPEND);
+
+        JsonStore<Order> reopened = new JsonStore<>(file, Order[].class, Order::getId);
+        List<Order> reloaded = reopened.load();
+        assertEquals(1, reloaded.size());
+        assertEquals(a.getId(), reloaded.get(0).getId());
+        assertEquals(complete, Files.size(journal));
+
+        // Les ajouts suivants ne doivent pas être collés au fragment
+        reopened.put(order("CMD-2"));
+        assertEquals(2, new JsonStore<>(file, Order[].class, Order::getId).load().size());
+    }
+
+    @Test
+    void jsonSnapshotIsMigratedToSmileAndExportable() throws Exception {
+        Order a = order("CMD-1");
+        store.put(a);
+        store.compact();
+
+        JsonStore<Order> binary = new JsonStore<>(file, Order[].class, Order::getId, StorageFormat.SMILE);
+        List<Order> migrated = binary.load();
+        assertEquals(1, migrated.size());
+        assertEquals("CMD-1", migrated.get(0).getNumber());
+        assertTrue(Files.exists(file.resolveSibling("orders.smile")));
+        assertTrue(Files.exists(file.resolveSibling("orders.json.migrated")));
+        assertTrue(Files.notExists(file));
+
+        Path export = file.resolveSibling("export.json");
+        binary.exportJson(export);
+        assertTrue(Files.readString(export).contains("\"CMD-1\""));
+    }
+}
@@ -0,0 +1,48 @@
+package com.materiel.client.mock;
+
+import com.materiel.client.model.Commande;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MockDataManagerTest {
+
+    private MockDataManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = MockDataManager.getInstance();
+        manager.resetAllData();
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.resetAllData();
+    }
+
+    @Test
+    void restoringASnapshotTakenBeforeNormalisationMigratesItAgain() throws Exception {
+        Path data = manager.getDataDirectory();
+        // État antérieur à la normalisation : devis imbriqué, aucune version de schéma
+        Files.writeString(data.resolve("commandes.json"),
+                "[{\"id\":4,\"numero\":\"CMD-4\",\"devisOrigine\":{\"id\":9,\"numero\":\"DEV-9\"}}]");
+        Files.deleteIfExists(data.resolve("schema.json"));
+        manager.getBackupStore().backup();
+
+        assertTrue(manager.restoreBackup(Instant.now()));
+
+        Commande restored = manager.getCommandes().stream()
+                .filter(c -> c.getId() == 4L)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(9L, restored.getDevisOrigineId());
+        assertFalse(Files.readString(data.resolve("commandes.json")).contains("DEV-9"));
+        assertTrue(Files.exists(data.resolve("schema.json")));
+    }
+}
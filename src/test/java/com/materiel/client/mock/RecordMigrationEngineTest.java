@@ -0,0 +1,71 @@
+package com.materiel.client.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.materiel.client.config.StorageFormat;
+import com.materiel.client.model.Intervention;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordMigrationEngineTest {
+
+    private final RecordMigrationEngine engine = new RecordMigrationEngine(StorageFormat.JSON);
+    private final ObjectMapper mapper = DataFiles.plainMapper(StorageFormat.JSON);
+    private final List<RecordMigrationEngine.RecordMigration> dropHours =
+            List.of(r -> r.remove("heureDebut") != null | r.remove("heureFin") != null);
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.createTempDirectory("gm-repair").resolve("interventions.json");
+    }
+
+    @Test
+    void legacyRecordsAreUpgradedAndInvalidOnesQuarantined() throws Exception {
+        Files.writeString(file, "["
+                + "{\"id\":1,\"titre\":\"A\",\"dateDebut\":\"2024-12-09T08:00:00\",\"heureDebut\":\"08:00\",\"heureFin\":\"10:00\"},"
+                + "{\"id\":2,\"titre\":\"B\"},"
+                + "{\"id\":3,\"titre\":\"C\",\"champInconnu\":true},"
+                + "42]");
+
+        RecordMigrationEngine.Report report = engine.run(file, Intervention.class, dropHours);
+
+        assertEquals(new RecordMigrationEngine.Report(1, 1, 2, false), report);
+        Intervention[] items = mapper.readValue(file.toFile(), Intervention[].class);
+        assertEquals(2, items.length);
+        assertEquals("A", items[0].getTitre());
+        List<String> quarantined = Files.readAllLines(file.resolveSibling("interventions.json" + RecordMigrationEngine.QUARANTINE_SUFFIX));
+        assertEquals(2, quarantined.size());
+        assertTrue(quarantined.get(0).contains("champInconnu"));
+    }
+
+    @Test
+    void readablePrefixOfATruncatedFileIsKept() throws Exception {
+        Files.writeString(file, "[{\"id\":1,\"titre\":\"A\"},{\"id\":2,\"tit");
+
+        RecordMigrationEngine.Report report = engine.run(file, Intervention.class, dropHours);
+
+        assertTrue(report.truncated());
+        assertEquals(1, mapper.readValue(file.toFile(), Intervention[].class).length);
+        try (var siblings = Files.list(file.getParent())) {
+            assertTrue(siblings.anyMatch(f -> f.getFileName().toString().startsWith("interventions.json.corrupted.")));
+        }
+    }
+
+    @Test
+    void upToDateFileIsLeftUntouched() throws Exception {
+        String content = "[{\"id\":1,\"titre\":\"A\"}]";
+        Files.writeString(file, content);
+
+        RecordMigrationEngine.Report report = engine.run(file, Intervention.class, dropHours);
+
+        assertFalse(report.changed());
+        assertEquals(content, Files.readString(file));
+        assertFalse(Files.exists(file.resolveSibling("interventions.json.repair.tmp")));
+    }
+}
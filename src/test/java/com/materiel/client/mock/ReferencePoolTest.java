@@ -0,0 +1,58 @@
+package com.materiel.client.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.materiel.client.model.Client;
+import com.materiel.client.model.Intervention;
+import com.materiel.client.model.Resource;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferencePoolTest {
+
+    private final ReferencePool pool = new ReferencePool();
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(pool.module());
+
+    @Test
+    void embeddedCopiesShareOneInstance() throws Exception {
+        String json = "["
+                + "{\"id\":1,\"titre\":\"A\",\"client\":{\"id\":3,\"nom\":\"Dupont\"},"
+                + "\"ressources\":[{\"id\":7,\"nom\":\"Grue\",\"type\":\"GRUE\"}]},"
+                + "{\"id\":2,\"titre\":\"B\",\"client\":{\"id\":3,\"nom\":\"Dupont\"},"
+                + "\"ressources\":[{\"id\":7,\"nom\":\"Grue\",\"type\":\"GRUE\"}]}]";
+
+        Intervention[] items = mapper.readValue(json, Intervention[].class);
+
+        assertSame(items[0].getClient(), items[1].getClient());
+        assertSame(items[0].getRessources().get(0), items[1].getRessources().get(0));
+        assertEquals(1, pool.getClientCount());
+        assertEquals(1, pool.getResourceCount());
+    }
+
+    @Test
+    void topLevelRecordsUpdateTheCanonicalInstance() throws Exception {
+        Intervention it = mapper.readValue(
+                "{\"id\":1,\"client\":{\"id\":3,\"nom\":\"Ancien nom\"}}", Intervention.class);
+
+        Client[] clients = mapper.readValue("[{\"id\":3,\"nom\":\"Nouveau nom\"}]", Client[].class);
+
+        assertSame(it.getClient(), clients[0]);
+        assertEquals("Nouveau nom", it.getClient().getNom());
+    }
+
+    @Test
+    void savedEditsReachEveryReference() {
+        Resource canonical = pool.intern(new Resource(7L, "Grue", Resource.ResourceType.GRUE));
+        Resource edited = new Resource(7L, "Grue 50t", Resource.ResourceType.GRUE);
+
+        Resource saved = pool.updateResources(List.of(edited)).get(0);
+
+        assertSame(canonical, saved);
+        assertEquals("Grue 50t", canonical.getNom());
+    }
+}
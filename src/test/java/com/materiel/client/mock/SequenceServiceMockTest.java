@@ -0,0 +1,73 @@
+package com.materiel.client.mock;
+
+import com.materiel.client.model.DocumentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequenceServiceMockTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 12, 9);
+    private Path dataDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataDir = Files.createTempDirectory("gm-seq");
+    }
+
+    @Test
+    void concurrentNumbersAreUnique() throws Exception {
+        SequenceServiceMock seq = new SequenceServiceMock(dataDir);
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 500; i++) numbers.add(seq.nextNumber(DocumentType.INVOICE, DATE));
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+
+        assertEquals(4000, numbers.size());
+        assertTrue(numbers.contains("FAC-2024-04000"));
+    }
+
+    @Test
+    void crashSkipsReservedBlockUnlessReconciled() {
+        SequenceServiceMock seq = new SequenceServiceMock(dataDir, 10);
+        seq.nextNumber(DocumentType.ORDER, DATE);
+        seq.nextNumber(DocumentType.ORDER, DATE);
+        // pas de close() : arrêt brutal
+
+        assertEquals("CMD-2024-00011", new SequenceServiceMock(dataDir, 10).nextNumber(DocumentType.ORDER, DATE));
+
+        SequenceServiceMock recovered = new SequenceServiceMock(dataDir, 10);
+        recovered.reconcile(DocumentType.ORDER, List.of("CMD-2024-00001", "CMD-2024-00002"));
+        assertEquals("CMD-2024-00003", recovered.nextNumber(DocumentType.ORDER, DATE));
+    }
+
+    @Test
+    void cleanCloseKeepsExactValue() {
+        SequenceServiceMock seq = new SequenceServiceMock(dataDir);
+        seq.nextNumber(DocumentType.QUOTE, DATE);
+        seq.close();
+        assertFalse(Files.exists(dataDir.resolve("sequences.reserved")));
+
+        SequenceServiceMock reopened = new SequenceServiceMock(dataDir);
+        reopened.reconcile(DocumentType.QUOTE, List.of()); // sans arrêt brutal : ignoré
+        assertEquals("DEV-2024-00002", reopened.nextNumber(DocumentType.QUOTE, DATE));
+    }
+}
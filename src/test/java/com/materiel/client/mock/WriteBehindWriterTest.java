@@ -0,0 +1,144 @@
+package com.materiel.client.mock;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindWriterTest {
+
+    @Test
+    void burstIsCoalescedIntoOneWriteOnFlush() throws Exception {
+        Path file = Files.createTempDirectory("gm-wb").resolve("interventions.json");
+        List<Path> written = new ArrayList<>();
+        try (WriteBehindWriter writer = new WriteBehindWriter(60_000)) {
+            for (int i = 1; i <= 5; i++) {
+                String content = "[" + i + "]";
+                writer.submit(file, out -> out.write(content.getBytes(StandardCharsets.UTF_8)), written::add);
+            }
+            assertEquals(1, writer.getQueueDepth());
+            assertFalse(Files.exists(file));
+
+            writer.flush();
+
+            assertEquals("[5]", Files.readString(file));
+            assertEquals(0, writer.getQueueDepth());
+            assertEquals(1, writer.getWriteCount());
+            assertEquals(4, writer.getCoalescedCount());
+            assertEquals(List.of(file), written);
+        }
+    }
+
+    @Test
+    void zeroDelayWritesImmediately() throws Exception {
+        Path file = Files.createTempDirectory("gm-wb").resolve("clients.json");
+        try (WriteBehindWriter writer = new WriteBehindWriter(0)) {
+            writer.submit(file, out -> {
+                out.write("[]".getBytes(StandardCharsets.UTF_8));
+                out.close(); // les sérialiseurs ferment le flux : le fsync doit rester possible
+            }, null);
+
+            assertEquals("[]", Files.readString(file));
+            try (Stream<Path> files = Files.list(file.getParent())) {
+                assertEquals(List.of(file), files.toList());
+            }
+        }
+    }
+
+    @Test
+    void saveAfterCloseIsWrittenOnTheCallingThread() throws Exception {
+        Path directory = Files.createTempDirectory("gm-wb");
+        for (long delay : new long[] {0, 60_000}) {
+            Path file = directory.resolve("devis-" + delay + ".json");
+            List<Path> written = new ArrayList<>();
+            WriteBehindWriter writer = new WriteBehindWriter(delay);
+            writer.close();
+
+            writer.submit(file, out -> out.write("[1]".getBytes(StandardCharsets.UTF_8)), written::add);
+
+            assertEquals("[1]", Files.readString(file));
+            assertEquals(List.of(file), written);
+            assertEquals(0, writer.getQueueDepth());
+        }
+    }
+
+    @Test
+    void flushWaitsForTheWriteInProgress() throws Exception {
+        Path file = Files.createTempDirectory("gm-wb").resolve("interventions.json");
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (WriteBehindWriter writer = new WriteBehindWriter(1)) {
+            writer.submit(file, out -> {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                out.write("[1]".getBytes(StandardCharsets.UTF_8));
+            }, null);
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            assertEquals(0, writer.getQueueDepth());
+
+            CompletableFuture<Void> flush = CompletableFuture.runAsync(writer::flush);
+            Thread.sleep(100);
+            assertFalse(flush.isDone());
+
+            release.countDown();
+            flush.get(5, TimeUnit.SECONDS);
+            assertEquals("[1]", Files.readString(file));
+        }
+    }
+
+    @Test
+    void failedWriteIsRetried() throws Exception {
+        Path file = Files.createTempDirectory("gm-wb").resolve("devis.json");
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch written = new CountDownLatch(1);
+        try (WriteBehindWriter writer = new WriteBehindWriter(1, 1)) {
+            writer.submit(file, out -> {
+                if (attempts.incrementAndGet() < 3) {
+                    throw new IOException("disque plein");
+                }
+                out.write("[]".getBytes(StandardCharsets.UTF_8));
+            }, f -> written.countDown(), e -> fail("ne doit pas abandonner"));
+
+            assertTrue(written.await(5, TimeUnit.SECONDS));
+            assertEquals(3, attempts.get());
+            assertEquals(0, writer.getFailureCount());
+            try (Stream<Path> files = Files.list(file.getParent())) {
+                assertEquals(List.of(file), files.toList());
+            }
+        }
+    }
+
+    @Test
+    void writeFailingEveryAttemptIsReported() throws Exception {
+        Path file = Files.createTempDirectory("gm-wb").resolve("devis.json");
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<Exception> failed = new CompletableFuture<>();
+        try (WriteBehindWriter writer = new WriteBehindWriter(1, 1)) {
+            writer.submit(file, out -> {
+                attempts.incrementAndGet();
+                throw new IOException("disque plein");
+            }, f -> fail("ne doit pas être écrit"), failed::complete);
+
+            assertEquals("disque plein", failed.get(5, TimeUnit.SECONDS).getMessage());
+            assertEquals(WriteBehindWriter.MAX_ATTEMPTS, attempts.get());
+            assertEquals(1, writer.getFailureCount());
+            assertEquals(0, writer.getQueueDepth());
+            assertFalse(Files.exists(file));
+        }
+    }
+}
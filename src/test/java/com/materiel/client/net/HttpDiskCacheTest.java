@@ -0,0 +1,117 @@
+package com.materiel.client.net;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpDiskCacheTest {
+
+    private static final String BODY = "[{\"id\":1,\"nom\":\"Grue 35T\"},{\"id\":2,\"nom\":\"Camion 8T\"}]";
+
+    @TempDir
+    Path directory;
+
+    private HttpServer server;
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private volatile String etag = "\"v1\"";
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/ressources", exchange -> {
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            fullResponses.incrementAndGet();
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                out.write(BODY.getBytes(StandardCharsets.UTF_8));
+            }
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.getResponseHeaders().add("ETag", etag);
+            exchange.sendResponseHeaders(200, buffer.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                buffer.writeTo(out);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    void unchangedResourceIsServedFromDiskAfterA304() throws Exception {
+        HttpDiskCache cache = new HttpDiskCache(directory, 1024 * 1024);
+        HttpClient client = client(cache);
+        HttpRequest request = HttpRequest.newBuilder(uri()).build();
+
+        assertEquals(BODY, client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+
+        HttpResponse<InputStream> cached = client.send(request, JsonResponses.streaming());
+        assertEquals(200, cached.statusCode());
+        assertEquals("\"v1\"", cached.headers().firstValue("ETag").orElse(null));
+        try (InputStream in = cached.body()) {
+            assertEquals(BODY, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        HttpResponse<String> async = client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .get(5, TimeUnit.SECONDS);
+        assertEquals(BODY, async.body());
+
+        assertEquals(1, fullResponses.get());
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.getRevalidations());
+        assertEquals(2, cache.getHits());
+        assertTrue(cache.getBytesSaved() > 0);
+    }
+
+    @Test
+    void changedResourceIsDownloadedAgain() throws Exception {
+        HttpDiskCache cache = new HttpDiskCache(directory, 1024 * 1024);
+        HttpClient client = client(cache);
+        HttpRequest request = HttpRequest.newBuilder(uri()).build();
+
+        client.send(request, HttpResponse.BodyHandlers.ofString());
+        etag = "\"v2\"";
+        client.send(request, HttpResponse.BodyHandlers.ofString());
+        client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(2, fullResponses.get());
+        assertEquals(2, cache.getRevalidations());
+        assertEquals(1, cache.getHits());
+    }
+
+    private HttpClient client(HttpDiskCache cache) {
+        return new TransportHttpClient(HttpClient.newHttpClient(), Map.of("Accept-Encoding", "gzip"),
+                Duration.ofSeconds(5), 8, cache);
+    }
+
+    private URI uri() {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + "/ressources");
+    }
+}
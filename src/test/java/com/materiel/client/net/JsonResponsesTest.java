@@ -0,0 +1,120 @@
+package com.materiel.client.net;
+
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLSession;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonResponsesTest {
+
+    @Test
+    void responseArrivingAfterTheCancellationIsClosed() {
+        CompletableFuture<HttpResponse<InputStream>> sent = new CompletableFuture<>();
+        CompletableFuture<Integer> decoded = JsonResponses.closeOnCancel(sent,
+                sent.thenApply(response -> 1));
+
+        decoded.cancel(true);
+        TrackedBody body = new TrackedBody();
+        sent.complete(new StubResponse(body));
+
+        assertTrue(body.closed);
+    }
+
+    @Test
+    void cancelledDecodingWaitingForTheExecutorClosesTheBody() {
+        List<Runnable> queued = new ArrayList<>();
+        CompletableFuture<HttpResponse<InputStream>> sent = new CompletableFuture<>();
+        boolean[] read = new boolean[1];
+        CompletableFuture<Integer> decoded = JsonResponses.closeOnCancel(sent,
+                sent.thenApplyAsync(response -> {
+                    read[0] = true;
+                    return 1;
+                }, queued::add));
+        TrackedBody body = new TrackedBody();
+        sent.complete(new StubResponse(body));
+
+        decoded.cancel(true);
+        queued.forEach(Runnable::run);
+
+        assertFalse(read[0]);
+        assertTrue(body.closed);
+    }
+
+    @Test
+    void decodedResponsesAreLeftToTheReader() {
+        CompletableFuture<HttpResponse<InputStream>> sent = new CompletableFuture<>();
+        CompletableFuture<Integer> decoded = JsonResponses.closeOnCancel(sent,
+                sent.thenApply(response -> 1));
+        TrackedBody body = new TrackedBody();
+        sent.complete(new StubResponse(body));
+
+        decoded.cancel(true);
+
+        assertFalse(body.closed);
+    }
+
+    private static final class TrackedBody extends ByteArrayInputStream {
+        boolean closed;
+
+        TrackedBody() {
+            super("[]".getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private record StubResponse(InputStream body) implements HttpResponse<InputStream> {
+        @Override
+        public int statusCode() {
+            return 200;
+        }
+
+        @Override
+        public HttpRequest request() {
+            return HttpRequest.newBuilder(URI.create("http://localhost/")).build();
+        }
+
+        @Override
+        public Optional<HttpResponse<InputStream>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return HttpHeaders.of(Map.of(), (name, value) -> true);
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return request().uri();
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+}
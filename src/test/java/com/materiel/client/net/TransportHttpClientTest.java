@@ -0,0 +1,178 @@
+package com.materiel.client.net;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransportHttpClientTest {
+
+    private static final String BODY = "[{\"id\":1,\"nom\":\"Grue 35T\"}]";
+
+    private HttpServer server;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile String authorization;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/gzip", exchange -> {
+            authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            boolean gzip = String.valueOf(exchange.getRequestHeaders().getFirst("Accept-Encoding")).contains("gzip");
+            byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+            if (gzip) {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                    out.write(body);
+                }
+                body = buffer.toByteArray();
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    void gzipResponsesAreDecompressedForEveryBodyHandler() throws Exception {
+        HttpClient client = client(8);
+        HttpRequest request = HttpRequest.newBuilder(uri("/gzip")).build();
+
+        assertEquals(BODY, client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+        try (InputStream in = client.send(request, HttpResponse.BodyHandlers.ofInputStream()).body()) {
+            assertEquals(BODY, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals("Bearer jeton", authorization);
+    }
+
+    @Test
+    void streamedGzipBodiesAreDecodedElementByElement() throws Exception {
+        HttpClient client = client(8);
+        HttpRequest request = HttpRequest.newBuilder(uri("/gzip")).build();
+        ObjectReader reader = new ObjectMapper().readerFor(Map.class);
+
+        HttpResponse<InputStream> response = client.send(request, JsonResponses.streaming());
+        List<Map<String, Object>> items = JsonResponses.readList(response.body(), reader);
+
+        assertEquals(1, items.size());
+        assertEquals("Grue 35T", items.get(0).get("nom"));
+    }
+
+    @Test
+    void asyncCallsBeyondTheLimitWaitForAFreeSlot() throws Exception {
+        TransportHttpClient client = client(1);
+        HttpRequest slow = HttpRequest.newBuilder(uri("/slow")).build();
+
+        CompletableFuture<HttpResponse<Void>> first = client.sendAsync(slow, HttpResponse.BodyHandlers.discarding());
+        CompletableFuture<HttpResponse<Void>> second = client.sendAsync(slow, HttpResponse.BodyHandlers.discarding());
+        assertEquals(1, client.getQueuedCount());
+
+        release.countDown();
+        for (CompletableFuture<HttpResponse<Void>> f : List.of(first, second)) {
+            assertEquals(204, f.get(5, TimeUnit.SECONDS).statusCode());
+        }
+        assertEquals(0, client.getQueuedCount());
+    }
+
+    @Test
+    void synchronousFailuresReleaseTheSlot() {
+        TransportHttpClient client = new TransportHttpClient(new FailingClient(), Map.of(), Duration.ofSeconds(5), 1);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost/ressources")).build();
+
+        for (int i = 0; i < 3; i++) {
+            CompletableFuture<HttpResponse<Void>> call = client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+        }
+        assertEquals(0, client.getQueuedCount());
+    }
+
+    private TransportHttpClient client(int maxRequests) {
+        return new TransportHttpClient(HttpClient.newHttpClient(),
+                Map.of("Accept-Encoding", "gzip", "Authorization", "Bearer jeton"),
+                Duration.ofSeconds(5), maxRequests);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + path);
+    }
+
+    /** Client dont l'envoi échoue avant même de partir. */
+    private static final class FailingClient extends HttpClient {
+        @Override public Optional<CookieHandler> cookieHandler() { return Optional.empty(); }
+        @Override public Optional<Duration> connectTimeout() { return Optional.empty(); }
+        @Override public Redirect followRedirects() { return Redirect.NEVER; }
+        @Override public Optional<ProxySelector> proxy() { return Optional.empty(); }
+        @Override public SSLContext sslContext() { return null; }
+        @Override public SSLParameters sslParameters() { return null; }
+        @Override public Optional<Authenticator> authenticator() { return Optional.empty(); }
+        @Override public Version version() { return Version.HTTP_1_1; }
+        @Override public Optional<Executor> executor() { return Optional.empty(); }
+
+        @Override
+        public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+            throw new IllegalStateException("client fermé");
+        }
+
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+            throw new IllegalStateException("client fermé");
+        }
+
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler,
+                                                                HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+            throw new IllegalStateException("client fermé");
+        }
+    }
+}
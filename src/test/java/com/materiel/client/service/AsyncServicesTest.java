@@ -0,0 +1,82 @@
+package com.materiel.client.service;
+
+import com.materiel.client.config.AppConfig;
+import com.materiel.client.config.DataMode;
+import com.materiel.client.mock.MockDataManager;
+import com.materiel.client.model.Client;
+import com.materiel.client.model.Intervention;
+import com.materiel.client.model.Resource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests pour AsyncServices
+ */
+@DisplayName("Tests AsyncServices")
+class AsyncServicesTest {
+
+    @BeforeEach
+    void setUp() {
+        AppConfig.getInstance().setDataMode(DataMode.MOCK_JSON);
+        ServiceFactory.resetServices();
+        MockDataManager.getInstance().resetAllData();
+    }
+
+    @Test
+    @DisplayName("Le planning chargé en parallèle correspond aux appels synchrones")
+    void loadPlanningMatchesBlockingCalls() throws Exception {
+        LocalDate start = LocalDate.now().minusDays(30);
+        LocalDate end = LocalDate.now().plusDays(30);
+
+        AsyncServices.PlanningData data = AsyncServices.loadPlanning(start, end).get(10, TimeUnit.SECONDS);
+
+        assertEquals(ServiceFactory.getResourceService().getAllResources().size(), data.resources().size());
+        assertEquals(ServiceFactory.getInterventionService().getInterventionsByDateRange(start, end).size(),
+                data.interventions().size());
+        assertEquals(ServiceFactory.getClientService().getAllClients().size(), data.clients().size());
+    }
+
+    @Test
+    @DisplayName("Annuler le chargement annule les appels qui le composent")
+    void cancellingTheLoadCancelsItsParts() {
+        CompletableFuture<List<Resource>> resources = new CompletableFuture<>();
+        CompletableFuture<List<Intervention>> interventions = CompletableFuture.completedFuture(List.of());
+        CompletableFuture<List<Client>> clients = new CompletableFuture<>();
+
+        AsyncServices.combine(resources, interventions, clients).cancel(false);
+
+        assertTrue(resources.isCancelled());
+        assertTrue(clients.isCancelled());
+        assertFalse(interventions.isCancelled());
+    }
+
+    @Test
+    @DisplayName("Les clients déjà connus ne sont pas redemandés")
+    void knownClientsAreReused() throws Exception {
+        List<Client> known = List.of(new Client());
+        LocalDate start = LocalDate.now();
+
+        AsyncServices.PlanningData data = AsyncServices.loadPlanning(start, start.plusDays(6), known)
+                .get(10, TimeUnit.SECONDS);
+
+        assertSame(known, data.clients());
+    }
+
+    @Test
+    @DisplayName("Les variantes asynchrones par défaut ne bloquent pas l'appelant")
+    void defaultAsyncVariantsRunOnTheServicePool() throws Exception {
+        Thread caller = Thread.currentThread();
+        String worker = AsyncServices.supply(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+        assertNotEquals(caller.getName(), worker);
+        assertTrue(worker.startsWith("service-async-"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.materiel.client.service;
+
+import com.materiel.client.model.BonLivraison;
+import com.materiel.client.model.Commande;
+import com.materiel.client.mock.MockDataManager;
+import com.materiel.client.service.impl.MockBonLivraisonService;
+import com.materiel.client.service.impl.MockCommandeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests des instantanés publiés par MockCommandeService et MockBonLivraisonService
+ */
+@DisplayName("Tests des instantanés des documents Mock")
+class MockDocumentSnapshotTest {
+    
+    private MockDataManager mockDataManager;
+    
+    @BeforeEach
+    void setUp() {
+        mockDataManager = MockDataManager.getInstance();
+        mockDataManager.resetAllData();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        mockDataManager.resetAllData();
+    }
+    
+    @Test
+    @DisplayName("Un changement de statut ne modifie pas l'instantané déjà lu")
+    void changerStatutLeavesPublishedSnapshotUntouched() {
+        MockCommandeService service = new MockCommandeService();
+        List<Commande> before = service.getAllCommandes();
+        Commande lue = before.get(0);
+        Commande.StatutCommande statut = lue.getStatut();
+        
+        service.marquerLivree(lue.getId(), LocalDate.now());
+        
+        assertEquals(statut, lue.getStatut());
+        assertNull(lue.getDateLivraisonEffective());
+        Commande publiee = service.getCommandeById(lue.getId());
+        assertNotSame(lue, publiee);
+        assertEquals(Commande.StatutCommande.LIVREE, publiee.getStatut());
+        assertSame(lue.getClient(), publiee.getClient(), "Le client reste l'instance partagée");
+    }
+    
+    @Test
+    @DisplayName("Un retour ne modifie pas le bon déjà lu")
+    void marquerRetourneLeavesPublishedSnapshotUntouched() {
+        MockBonLivraisonService service = new MockBonLivraisonService();
+        BonLivraison lu = service.getAllBonsLivraison().stream()
+                .filter(bl -> bl.getStatut() != BonLivraison.StatutBonLivraison.RETOURNE)
+                .findFirst()
+                .orElseThrow();
+        BonLivraison.StatutBonLivraison statut = lu.getStatut();
+        
+        service.marquerRetourne(lu.getId(), "Adresse introuvable");
+        
+        assertEquals(statut, lu.getStatut());
+        BonLivraison publie = service.getBonLivraisonById(lu.getId());
+        assertEquals(BonLivraison.StatutBonLivraison.RETOURNE, publie.getStatut());
+        assertEquals("Adresse introuvable", publie.getRaisonRetour());
+    }
+}
@@ -0,0 +1,90 @@
+package com.materiel.client.service;
+
+import com.materiel.client.model.Intervention;
+import com.materiel.client.model.Resource;
+import com.materiel.client.mock.MockDataManager;
+import com.materiel.client.service.impl.MockInterventionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests pour MockInterventionService
+ */
+@DisplayName("Tests MockInterventionService")
+class MockInterventionServiceTest {
+    
+    private MockDataManager mockDataManager;
+    private MockInterventionService service;
+    private Resource grue;
+    
+    @BeforeEach
+    void setUp() {
+        mockDataManager = MockDataManager.getInstance();
+        mockDataManager.resetAllData();
+        service = new MockInterventionService();
+        grue = mockDataManager.getResources().get(0);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        mockDataManager.resetAllData();
+    }
+    
+    private Intervention intervention(String titre, LocalDateTime debut, LocalDateTime fin) {
+        Intervention i = new Intervention();
+        i.setTitre(titre);
+        i.setDateDebut(debut);
+        i.setDateFin(fin);
+        i.setRessources(List.of(grue));
+        return service.saveIntervention(i);
+    }
+    
+    @Test
+    @DisplayName("Les conflits sont vus dans le mois et depuis le mois précédent")
+    void conflictsAreFoundInTheCoveredMonths() {
+        LocalDateTime june = LocalDate.of(2031, 6, 10).atTime(8, 0);
+        intervention("Levage", june, june.plusHours(4));
+        intervention("Chantier de fin de mois", LocalDate.of(2031, 5, 31).atTime(8, 0), LocalDate.of(2031, 6, 2).atTime(12, 0));
+        
+        Intervention sameSlot = new Intervention();
+        sameSlot.setDateDebut(june.plusHours(2));
+        sameSlot.setDateFin(june.plusHours(6));
+        sameSlot.setRessources(List.of(grue));
+        assertTrue(service.hasConflict(sameSlot));
+        
+        Intervention overMonthEnd = new Intervention();
+        overMonthEnd.setDateDebut(LocalDate.of(2031, 6, 1).atTime(9, 0));
+        overMonthEnd.setDateFin(LocalDate.of(2031, 6, 1).atTime(10, 0));
+        overMonthEnd.setRessources(List.of(grue));
+        assertTrue(service.hasConflict(overMonthEnd));
+        
+        sameSlot.setDateDebut(june.plusDays(1));
+        sameSlot.setDateFin(june.plusDays(1).plusHours(2));
+        assertFalse(service.hasConflict(sameSlot));
+    }
+    
+    @Test
+    @DisplayName("Les index de partition suivent les écritures")
+    void partitionIndexesFollowWrites() {
+        LocalDateTime march = LocalDate.of(2031, 3, 3).atTime(8, 0);
+        Intervention saved = intervention("Déplacement", march, march.plusHours(2));
+        assertEquals(1, service.getInterventionsByDateRange(march.toLocalDate(), march.toLocalDate()).size());
+        
+        saved.setDateDebut(march.plusMonths(1));
+        saved.setDateFin(march.plusMonths(1).plusHours(2));
+        service.saveIntervention(saved);
+        
+        assertTrue(service.getInterventionsByDateRange(march.toLocalDate(), march.toLocalDate()).isEmpty());
+        List<Intervention> april = service.getInterventionsByDateRange(march.toLocalDate().plusMonths(1), march.toLocalDate().plusMonths(1));
+        assertEquals(List.of(saved.getId()), april.stream().map(Intervention::getId).toList());
+        assertTrue(service.getInterventionsByResource(grue.getId()).stream().anyMatch(i -> i.getId().equals(saved.getId())));
+    }
+}
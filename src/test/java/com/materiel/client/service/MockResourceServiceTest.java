@@ -97,6 +97,34 @@ class MockResourceServiceTest {
         assertEquals(expectedResource.getType(), foundResource.getType());
     }
     
+    @Test
+    @DisplayName("Une ressource modifiée sans être enregistrée ne change pas les données")
+    void unsavedEditsDoNotLeakIntoTheCache() {
+        // Given
+        Resource edited = resourceService.getResourceById(resourceService.getAllResources().get(0).getId());
+        String nom = edited.getNom();
+        
+        // When
+        edited.setNom("Modification annulée");
+        
+        // Then
+        Resource reread = resourceService.getResourceById(edited.getId());
+        assertNotSame(edited, reread);
+        assertEquals(nom, reread.getNom());
+        assertEquals(nom, resourceService.getAllResources().get(0).getNom());
+    }
+    
+    @Test
+    @DisplayName("Les listes partagent les ressources en cache sans les copier")
+    void listingDoesNotCopyResources() {
+        // When
+        Resource first = resourceService.getAllResources().get(0);
+        
+        // Then
+        assertSame(first, resourceService.getAllResources().get(0));
+        assertNotSame(first, resourceService.getResourceById(first.getId()));
+    }
+    
     @Test
     @DisplayName("Devrait retourner null pour un ID inexistant")
     void shouldReturnNullForNonExistentId() {
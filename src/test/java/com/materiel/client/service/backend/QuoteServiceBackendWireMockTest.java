@@ -14,6 +14,7 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -50,15 +51,15 @@ public class QuoteServiceBackendWireMockTest {
     void testListAndCreateQuote() {
         UUID quoteId = UUID.randomUUID();
         UUID lineId = UUID.randomUUID();
-        String listBody = "[{'id':'"+quoteId+"','number':'Q-1','date':'2024-01-10','customerName':'Bob','lines':[]," +
-                "'totalHT':0,'totalTVA':0,'totalTTC':0,'status':'DRAFT'}]".replace(''','"');
+        String listBody = ("[{'id':'"+quoteId+"','number':'Q-1','date':'2024-01-10','customerName':'Bob','lines':[]," +
+                "'totalHT':0,'totalTVA':0,'totalTTC':0,'status':'DRAFT'}]").replace('\'','"');
         server.stubFor(get(urlEqualTo("/api/v1/quotes"))
                 .willReturn(okJson(listBody)));
 
         String postResp = ("{'id':'"+quoteId+"','number':'Q-1','date':'2024-01-10','customerName':'Bob',"+
                 "'lines':[{'id':'"+lineId+"','designation':'Item','unite':'u','quantite':1,"+
                 "'prixUnitaireHT':10,'remisePct':0,'tvaPct':20}],"+
-                "'totalHT':10,'totalTVA':2,'totalTTC':12,'status':'DRAFT'}").replace(''','"');
+                "'totalHT':10,'totalTVA':2,'totalTTC':12,'status':'DRAFT'}").replace('\'','"');
         server.stubFor(post(urlEqualTo("/api/v1/quotes"))
                 .willReturn(aResponse().withStatus(201).withHeader("Content-Type","application/json").withBody(postResp)));
         server.stubFor(put(urlEqualTo("/api/v1/quotes/"+quoteId))
@@ -93,6 +94,34 @@ public class QuoteServiceBackendWireMockTest {
         verify(postRequestedFor(urlEqualTo("/api/v1/quotes"))
                 .withRequestBody(matchingJsonPath("$.date", equalTo("2024-01-10")))
                 .withRequestBody(matchingJsonPath("$.lines[0].designation", equalTo("Item")))
-                .withRequestBody(matchingJsonPath("$.totalHT", equalTo(10.0))));
+                .withRequestBody(matchingJsonPath("$.totalHT", equalTo("10"))));
+    }
+
+    @Test
+    void testCursorPagination() {
+        String page1 = ("[" + quoteJson("Q-1") + "," + quoteJson("Q-2") + "]");
+        String page2 = ("[" + quoteJson("Q-3") + "]");
+        server.stubFor(get(urlEqualTo("/api/v1/quotes?limit=2"))
+                .willReturn(okJson(page1).withHeader("X-Next-Cursor", "c/2")));
+        server.stubFor(get(urlEqualTo("/api/v1/quotes?cursor=c%2F2&limit=2"))
+                .willReturn(okJson(page2)));
+        server.stubFor(get(urlEqualTo("/api/v1/quotes"))
+                .willReturn(okJson(page1).withHeader("X-Next-Cursor", "c/2")));
+        server.stubFor(get(urlEqualTo("/api/v1/quotes?cursor=c%2F2"))
+                .willReturn(okJson(page2)));
+
+        QuoteService service = ServiceFactory.getQuoteService();
+        List<String> numbers = new ArrayList<>();
+        service.iterate(2).forEachRemaining(q -> numbers.add(q.getNumber()));
+        assertEquals(List.of("Q-1", "Q-2", "Q-3"), numbers);
+
+        assertEquals(3, service.list().size());
+        verify(1, getRequestedFor(urlEqualTo("/api/v1/quotes?cursor=c%2F2&limit=2")));
+    }
+
+    private static String quoteJson(String number) {
+        return ("{'id':'" + UUID.randomUUID() + "','number':'" + number + "','date':'2024-01-10',"
+                + "'customerName':'Bob','lines':[],'totalHT':0,'totalTVA':0,'totalTTC':0,'status':'DRAFT'}")
+                .replace('\'', '"');
     }
 }
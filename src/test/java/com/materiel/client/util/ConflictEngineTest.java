@@ -0,0 +1,63 @@
+package com.materiel.client.util;
+
+import com.materiel.client.model.Intervention;
+import com.materiel.client.model.Resource;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflictEngineTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 12, 9, 0, 0);
+
+    private static Intervention intervention(long id, int startHour, int endHour, long... resourceIds) {
+        Intervention i = new Intervention();
+        i.setId(id);
+        i.setDateDebut(MONDAY.plusHours(startHour));
+        i.setDateFin(MONDAY.plusHours(endHour));
+        List<Resource> resources = new ArrayList<>();
+        for (long r : resourceIds) {
+            resources.add(new Resource(r, "R" + r, Resource.ResourceType.GRUE));
+        }
+        i.setRessources(resources);
+        return i;
+    }
+
+    @Test
+    void findsOverlapsOnSharedResourceOnly() {
+        Intervention a = intervention(1, 8, 12, 1);
+        Intervention b = intervention(2, 10, 14, 1);
+        Intervention c = intervention(3, 10, 14, 2);
+        Intervention d = intervention(4, 12, 16, 1); // contigu à a : pas de conflit avec a
+
+        Set<Intervention> conflicting = ConflictEngine.findConflicting(List.of(a, b, c, d));
+
+        assertEquals(Set.of(a, b, d), conflicting);
+        assertEquals(2, ConflictEngine.findConflicts(List.of(a, b, c, d)).size());
+    }
+
+    @Test
+    void indexIsUpdatedIncrementally() {
+        ConflictEngine engine = new ConflictEngine();
+        Intervention longOne = intervention(1, 0, 48, 7);
+        engine.rebuild(List.of(longOne));
+
+        Intervention candidate = intervention(2, 30, 31, 7);
+        assertTrue(engine.hasConflict(candidate), "le créneau long commencé avant doit être trouvé");
+        assertFalse(engine.hasConflict(longOne), "une intervention n'est pas en conflit avec elle-même");
+
+        longOne.setDateFin(MONDAY.plusHours(24));
+        engine.index(longOne);
+        assertFalse(engine.hasConflict(candidate));
+
+        engine.index(candidate);
+        engine.remove(1L);
+        assertFalse(engine.hasConflict(intervention(3, 0, 24, 7)));
+        assertTrue(engine.hasConflict(intervention(4, 30, 40, 7)));
+    }
+}
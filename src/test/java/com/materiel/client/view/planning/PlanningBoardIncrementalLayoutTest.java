@@ -0,0 +1,94 @@
+package com.materiel.client.view.planning;
+
+import com.materiel.client.model.Intervention;
+import com.materiel.client.util.UIConstants;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Relayout incrémental : seules les lignes modifiées sont recalculées, les suivantes sont décalées. */
+class PlanningBoardIncrementalLayoutTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 12, 9);
+
+    private static Intervention intervention(long id, int startHour, int endHour) {
+        Intervention i = new Intervention();
+        i.setId(id);
+        i.setDateDebut(MONDAY.atStartOfDay().plusHours(startHour));
+        i.setDateFin(MONDAY.atStartOfDay().plusHours(endHour));
+        return i;
+    }
+
+    @Test
+    void rowsBelowAreShiftedWhenARowGrows() {
+        UUID rowA = UUID.randomUUID();
+        UUID rowB = UUID.randomUUID();
+        Intervention a = intervention(1, 8, 12);
+        Intervention b = intervention(2, 8, 12);
+
+        PlanningBoard board = new PlanningBoard(MONDAY);
+        board.setPxPerHour(8); // ligne de 1344 px : douze colonnes imposent deux tracks
+        board.setDonnees(
+                List.of(new PlanningBoard.RessourceRow(rowA, "A", null), new PlanningBoard.RessourceRow(rowB, "B", null)),
+                Map.of(rowA, List.of(a), rowB, List.of(b)));
+        int rowBY = UIConstants.ROW_BASE_HEIGHT + 1;
+        assertEquals(rowBY, board.getTileBounds(rowB, b).y);
+
+        List<Intervention> crowded = new ArrayList<>(List.of(a));
+        for (int k = 0; k < 11; k++) crowded.add(intervention(10 + k, 9, 13));
+        board.updateRow(rowA, crowded);
+        int grown = 2 * UIConstants.ROW_BASE_HEIGHT + UIConstants.TRACK_V_GUTTER + 1;
+        assertEquals(grown, board.getTileBounds(rowB, b).y);
+
+        // Modification en place détectée par setDonnees
+        Intervention moved = crowded.get(11);
+        moved.setDateDebut(MONDAY.atTime(14, 0));
+        moved.setDateFin(MONDAY.atTime(16, 0));
+        board.setDonnees(
+                List.of(new PlanningBoard.RessourceRow(rowA, "A", null), new PlanningBoard.RessourceRow(rowB, "B", null)),
+                Map.of(rowA, crowded, rowB, List.of(b)));
+        assertEquals(rowBY, board.getTileBounds(rowB, b).y);
+    }
+
+    @Test
+    void zoomRescalesCachedColumns() {
+        UUID row = UUID.randomUUID();
+        Intervention a = intervention(1, 8, 12);
+        PlanningBoard board = new PlanningBoard(MONDAY);
+        board.setDonnees(List.of(new PlanningBoard.RessourceRow(row, "A", null)), Map.of(row, List.of(a)));
+        Rectangle before = new Rectangle(board.getTileBounds(row, a));
+
+        board.setPxPerHour(96);
+        Rectangle after = board.getTileBounds(row, a);
+        assertEquals(before.y, after.y);
+        assertEquals(before.width * 2, after.width);
+        assertEquals(board.getTimeGridModel().timeToX(LocalDateTime.of(MONDAY, java.time.LocalTime.of(8, 0))), after.x);
+    }
+
+    @Test
+    void hitTestFindsTileThroughRowAndXIndex() {
+        UUID rowA = UUID.randomUUID();
+        UUID rowB = UUID.randomUUID();
+        Intervention a = intervention(1, 8, 12);
+        Intervention b = intervention(2, 30, 34);
+        PlanningBoard board = new PlanningBoard(MONDAY);
+        board.setDonnees(
+                List.of(new PlanningBoard.RessourceRow(rowA, "A", null), new PlanningBoard.RessourceRow(rowB, "B", null)),
+                Map.of(rowA, List.of(a), rowB, List.of(b)));
+
+        Rectangle rb = board.getTileBounds(rowB, b);
+        assertSame(b, board.pickAt(new Point(rb.x + 2, rb.y + 2)).orElse(null));
+        Rectangle ra = board.getTileBounds(rowA, a);
+        assertSame(a, board.pickAt(new Point(ra.x + ra.width - 1, ra.y + 1)).orElse(null));
+        assertTrue(board.pickAt(new Point(ra.x + 2, rb.y + 2)).isEmpty());
+    }
+}
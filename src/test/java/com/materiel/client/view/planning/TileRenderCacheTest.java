@@ -0,0 +1,41 @@
+package com.materiel.client.view.planning;
+
+import com.materiel.client.model.Intervention;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TileRenderCacheTest {
+
+    @Test
+    void labelIsReusedUntilTimesOrWidthChange() {
+        Graphics2D g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 12));
+        FontMetrics fm = g.getFontMetrics();
+
+        Intervention it = new Intervention();
+        it.setId(42L);
+        it.setDateDebut(LocalDateTime.of(2024, 12, 9, 8, 5));
+        it.setDateFin(LocalDateTime.of(2024, 12, 9, 17, 30));
+
+        TileRenderCache cache = new TileRenderCache();
+        String full = cache.label(it, 500, fm);
+        assertEquals("08:05 - 17:30", full);
+        assertSame(full, cache.label(it, 500, fm));
+        assertEquals(1, cache.getHits());
+
+        String narrow = cache.label(it, fm.stringWidth("08:05..."), fm);
+        assertEquals("08:05...", narrow);
+
+        it.setDateFin(LocalDateTime.of(2024, 12, 9, 18, 0));
+        assertEquals("08:05 - 18:00", cache.label(it, 500, fm));
+        assertEquals(1, cache.size());
+        g.dispose();
+    }
+}
@@ -42,4 +42,31 @@ public class LaneLayoutTest {
         int expected = UIConstants.ROW_BASE_HEIGHT * 3 + UIConstants.TRACK_V_GUTTER * 2;
         assertEquals(expected, LaneLayout.computeRowHeight(laneCount, rowUsableWidth));
     }
+
+    @Test
+    void freedColumnIsReusedWhenEarlierColumnsClose() {
+        LocalDateTime t0 = LocalDateTime.of(2024, 12, 9, 8, 0);
+        List<Intervention> interventions = new ArrayList<>();
+        Intervention a = intervention(t0, t0.plusHours(1));
+        Intervention b = intervention(t0, t0.plusHours(1));
+        Intervention c = intervention(t0, t0.plusHours(4));   // colonne 2, reste ouverte seule
+        Intervention d = intervention(t0.plusHours(2), t0.plusHours(3));
+        Intervention e = intervention(t0.plusHours(2), t0.plusHours(3));
+        interventions.addAll(List.of(a, b, c, d, e));
+
+        Map<Intervention, LaneLayout.Lane> lanes = LaneLayout.computeLanes(
+                interventions, Intervention::getDateDebut, Intervention::getDateFin, 10_000);
+
+        assertEquals(2, lanes.get(c).index);
+        assertEquals(0, lanes.get(d).index);
+        assertEquals(1, lanes.get(e).index);
+        assertEquals(3, lanes.get(a).count);
+    }
+
+    private static Intervention intervention(LocalDateTime start, LocalDateTime end) {
+        Intervention in = new Intervention();
+        in.setDateDebut(start);
+        in.setDateFin(end);
+        return in;
+    }
 }